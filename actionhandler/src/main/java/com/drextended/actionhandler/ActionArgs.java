@@ -32,10 +32,44 @@ public class ActionArgs {
     @NonNull
     public final ActionParams params;
 
+    /**
+     * The state of the dispatch this action is fired in. Shared by all actions fired by single dispatch.
+     */
+    @NonNull
+    public final DispatchContext context;
+
+    /**
+     * The input of this action, e.g. the result of the previous stage of a chain. Null for actions fired by view.
+     */
+    @Nullable
+    public final Object input;
+
+    /**
+     * False if the action may deliver its result on a background thread,
+     * because the next stage of a chain is background work too.
+     */
+    public final boolean deliverOnMainThread;
 
     public ActionArgs(@NonNull ActionParams params, @Nullable String fireActionType) {
+        this(params, fireActionType, new DispatchContext());
+    }
+
+    public ActionArgs(@NonNull ActionParams params, @Nullable String fireActionType, @NonNull DispatchContext context) {
+        this(params, fireActionType, context, null, true);
+    }
+
+    public ActionArgs(
+            @NonNull ActionParams params,
+            @Nullable String fireActionType,
+            @NonNull DispatchContext context,
+            @Nullable Object input,
+            boolean deliverOnMainThread
+    ) {
         this.params = params;
         this.fireActionType = fireActionType;
+        this.context = context;
+        this.input = input;
+        this.deliverOnMainThread = deliverOnMainThread;
     }
 
     @Override
@@ -44,11 +78,12 @@ public class ActionArgs {
         if (o == null || getClass() != o.getClass()) return false;
         ActionArgs that = (ActionArgs) o;
         return Objects.equals(fireActionType, that.fireActionType) &&
-                params.equals(that.params);
+                params.equals(that.params) &&
+                Objects.equals(input, that.input);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(fireActionType, params);
+        return Objects.hash(fireActionType, params, input);
     }
 }
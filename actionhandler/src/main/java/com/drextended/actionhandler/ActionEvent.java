@@ -0,0 +1,117 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Single event of the action lifecycle: intercepted, fired, error or dismiss.
+ * Delivered to {@link com.drextended.actionhandler.listener.OnActionEventListener}s
+ * registered in {@link ActionHandler}.
+ */
+public class ActionEvent {
+
+    public enum Type {
+        /**
+         * The action type or the specific action was intercepted and will not be fired
+         */
+        INTERCEPTED,
+        /**
+         * The action was executed successfully
+         */
+        FIRED,
+        /**
+         * The action was executed with error
+         */
+        ERROR,
+        /**
+         * The action was dismissed
+         */
+        DISMISSED
+    }
+
+    @NonNull
+    public final Type type;
+
+    /**
+     * The action params and actual fired action type
+     */
+    @NonNull
+    public final ActionArgs args;
+
+    /**
+     * The result of action. Set only for {@link Type#FIRED}
+     */
+    @Nullable
+    public final Object result;
+
+    /**
+     * The error. Set only for {@link Type#ERROR}
+     */
+    @Nullable
+    public final Throwable error;
+
+    /**
+     * The reason of dismiss or interception. Set only for {@link Type#DISMISSED} and {@link Type#INTERCEPTED}
+     */
+    @Nullable
+    public final String reason;
+
+    protected ActionEvent(
+            @NonNull Type type,
+            @NonNull ActionArgs args,
+            @Nullable Object result,
+            @Nullable Throwable error,
+            @Nullable String reason
+    ) {
+        this.type = type;
+        this.args = args;
+        this.result = result;
+        this.error = error;
+        this.reason = reason;
+    }
+
+    public static ActionEvent intercepted(@NonNull ActionArgs args, @Nullable String reason) {
+        return new ActionEvent(Type.INTERCEPTED, args, null, null, reason);
+    }
+
+    public static ActionEvent fired(@NonNull ActionArgs args, @Nullable Object result) {
+        return new ActionEvent(Type.FIRED, args, result, null, null);
+    }
+
+    public static ActionEvent error(@NonNull ActionArgs args, @Nullable Throwable error) {
+        return new ActionEvent(Type.ERROR, args, null, error, null);
+    }
+
+    public static ActionEvent dismissed(@NonNull ActionArgs args, @Nullable String reason) {
+        return new ActionEvent(Type.DISMISSED, args, null, null, reason);
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "ActionEvent{" +
+                "type=" + type +
+                ", fireActionType='" + args.fireActionType + '\'' +
+                ", params=" + args.params +
+                ", result=" + result +
+                ", error=" + error +
+                ", reason='" + reason + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kill switch table for action types, checked by {@link ActionHandler} before any interceptor.
+ * Each action type gets an index on first use, disabled types are stored as a bitset.
+ * The bitset is replaced as a whole on every change, so bulk updates are applied atomically
+ * and a check is a lock free lookup of the index and a single bit test.
+ */
+public class ActionGate {
+
+    private static final long[] NONE = new long[0];
+
+    // Indices of action types in the bitset
+    private final Map<String, Integer> mIndices = new ConcurrentHashMap<>();
+
+    // Action types by index
+    private final List<String> mTypes = new ArrayList<>();
+
+    // Bitset of disabled action types. Replaced on every change.
+    private volatile long[] mDisabled = NONE;
+
+    /**
+     * Check if given action type is enabled
+     *
+     * @param actionType The action type to check
+     * @return false if the action type was disabled, true otherwise
+     */
+    public boolean isEnabled(@Nullable String actionType) {
+        if (actionType == null) return true;
+        final long[] disabled = mDisabled;
+        if (disabled.length == 0) return true;
+        final Integer index = mIndices.get(actionType);
+        if (index == null) return true;
+        final int word = index >>> 6;
+        return word >= disabled.length || (disabled[word] & (1L << index)) == 0;
+    }
+
+    /**
+     * Enable given action types
+     *
+     * @param actionTypes The action types to enable
+     */
+    public void enable(@NonNull String... actionTypes) {
+        update(Arrays.asList(actionTypes), null, false);
+    }
+
+    /**
+     * Disable given action types. Disabled action types are not fired
+     * and dismiss listeners are notified with reason {@link ActionHandler#REASON_GATED}.
+     *
+     * @param actionTypes The action types to disable
+     */
+    public void disable(@NonNull String... actionTypes) {
+        update(null, Arrays.asList(actionTypes), false);
+    }
+
+    /**
+     * Enable and disable action types in one atomic step,
+     * so a check never sees only part of the change.
+     *
+     * @param enabledTypes  The action types to enable
+     * @param disabledTypes The action types to disable
+     */
+    public void update(@Nullable Collection<String> enabledTypes, @Nullable Collection<String> disabledTypes) {
+        update(enabledTypes, disabledTypes, false);
+    }
+
+    /**
+     * Replace all disabled action types in one atomic step.
+     * Action types which are not in the given collection become enabled.
+     *
+     * @param disabledTypes The action types to disable
+     */
+    public void setDisabled(@Nullable Collection<String> disabledTypes) {
+        update(null, disabledTypes, true);
+    }
+
+    /**
+     * Enable all action types
+     */
+    public void enableAll() {
+        update(null, null, true);
+    }
+
+    /**
+     * @return all disabled action types
+     */
+    @NonNull
+    public synchronized List<String> getDisabledTypes() {
+        final long[] disabled = mDisabled;
+        final List<String> types = new ArrayList<>();
+        for (int index = 0; index < mTypes.size(); index++) {
+            final int word = index >>> 6;
+            if (word < disabled.length && (disabled[word] & (1L << index)) != 0) {
+                types.add(mTypes.get(index));
+            }
+        }
+        return Collections.unmodifiableList(types);
+    }
+
+    private synchronized void update(
+            @Nullable Collection<String> enabledTypes,
+            @Nullable Collection<String> disabledTypes,
+            boolean reset
+    ) {
+        int maxIndex = -1;
+        if (disabledTypes != null) {
+            for (String actionType : disabledTypes) {
+                if (actionType != null) maxIndex = Math.max(maxIndex, indexOf(actionType));
+            }
+        }
+        final long[] current = reset ? NONE : mDisabled;
+        final int words = maxIndex < 0 ? 0 : (maxIndex >>> 6) + 1;
+        final long[] disabled = Arrays.copyOf(current, Math.max(current.length, words));
+        if (enabledTypes != null) {
+            for (String actionType : enabledTypes) {
+                final Integer index = actionType == null ? null : mIndices.get(actionType);
+                if (index != null && (index >>> 6) < disabled.length) {
+                    disabled[index >>> 6] &= ~(1L << index);
+                }
+            }
+        }
+        if (disabledTypes != null) {
+            for (String actionType : disabledTypes) {
+                if (actionType == null) continue;
+                final int index = mIndices.get(actionType);
+                disabled[index >>> 6] |= 1L << index;
+            }
+        }
+        mDisabled = disabled;
+    }
+
+    private int indexOf(@NonNull String actionType) {
+        Integer index = mIndices.get(actionType);
+        if (index == null) {
+            index = mTypes.size();
+            mTypes.add(actionType);
+            mIndices.put(actionType, index);
+        }
+        return index;
+    }
+}
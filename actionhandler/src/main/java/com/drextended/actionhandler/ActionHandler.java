@@ -22,43 +22,135 @@ import android.view.View;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.lifecycle.LifecycleOwner;
 
 import com.drextended.actionhandler.action.Action;
 import com.drextended.actionhandler.action.ActionFactory;
 import com.drextended.actionhandler.action.BaseAction;
+import com.drextended.actionhandler.action.BatchAction;
 import com.drextended.actionhandler.action.Cancelable;
+import com.drextended.actionhandler.action.CompositeAction;
+import com.drextended.actionhandler.action.ModelClassAction;
+import com.drextended.actionhandler.action.PrefetchableAction;
+import com.drextended.actionhandler.action.ScheduledAction;
 import com.drextended.actionhandler.action.SingleActionFactory;
 import com.drextended.actionhandler.action.SingleActionFactoryAdapter;
 import com.drextended.actionhandler.listener.ActionCallback;
 import com.drextended.actionhandler.listener.ActionClickListener;
 import com.drextended.actionhandler.listener.ActionFireInterceptor;
 import com.drextended.actionhandler.listener.ActionInterceptor;
+import com.drextended.actionhandler.listener.ActionPrefetcher;
+import com.drextended.actionhandler.listener.AsyncActionListener;
+import com.drextended.actionhandler.listener.ContextualActionFireInterceptor;
 import com.drextended.actionhandler.listener.OnActionDismissListener;
 import com.drextended.actionhandler.listener.OnActionErrorListener;
+import com.drextended.actionhandler.listener.OnActionEventListener;
 import com.drextended.actionhandler.listener.OnActionFiredListener;
-import com.drextended.actionhandler.util.DebounceHelper;
-
+import com.drextended.actionhandler.util.AUtils;
+import com.drextended.actionhandler.util.AcceptanceCache;
+import com.drextended.actionhandler.util.ActionTypeIndex;
+import com.drextended.actionhandler.util.ActionTypeTrie;
+import com.drextended.actionhandler.util.DebounceInterceptor;
+import com.drextended.actionhandler.util.MainThreadBatcher;
+import com.drextended.actionhandler.util.RateLimitInterceptor;
+import com.drextended.actionhandler.util.TimerWheel;
+
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Use ActionHandler to manage action and bind them to view
  */
 @SuppressWarnings("WeakerAccess")
-public class ActionHandler implements ActionClickListener, OnActionFiredListener, OnActionErrorListener, OnActionDismissListener, ActionFireInterceptor {
+public class ActionHandler implements ActionClickListener, ActionPrefetcher, OnActionFiredListener, OnActionErrorListener, OnActionDismissListener, ContextualActionFireInterceptor {
 
     public static final String TAG = "ActionHandler";
 
+    /**
+     * Reason of {@link ActionEvent.Type#INTERCEPTED} event if debounce time for action type not elapsed
+     */
+    public static final String REASON_DEBOUNCE = "Debounce time not elapsed";
+
+    /**
+     * Reason of {@link ActionEvent.Type#INTERCEPTED} event if rate limit for action type exceeded
+     */
+    public static final String REASON_RATE_LIMIT = "Rate limit exceeded";
+
+    /**
+     * Reason of {@link ActionEvent.Type#INTERCEPTED} event if action type was intercepted by {@link ActionInterceptor}
+     */
+    public static final String REASON_INTERCEPTED = "Intercepted by ActionInterceptor";
+
+    /**
+     * Reason of {@link ActionEvent.Type#INTERCEPTED} event if action was intercepted by {@link ActionFireInterceptor}
+     */
+    public static final String REASON_FIRE_INTERCEPTED = "Intercepted by ActionFireInterceptor";
+
+    /**
+     * Count of models evaluated by one task of parallel evaluation of a batch
+     */
+    public static final int BATCH_CHUNK_SIZE = 128;
+
+    /**
+     * Reason of dismiss if action type was disabled by {@link ActionGate}
+     */
+    public static final String REASON_GATED = "Action type disabled";
+
+    /**
+     * Reason of dismiss of {@link ActionResult} if no action accepted the model
+     */
+    public static final String REASON_NO_ACTION = "No action accepted the model";
+
+    /**
+     * Reason of dismiss if action type was shed by {@link AdmissionController} because the main thread is overloaded
+     */
+    public static final String REASON_LOAD_SHED = "Shed under main thread load";
+
+    /**
+     * Reason of dismiss if a fire was dropped by {@link DispatchQueue} because it was full
+     */
+    public static final String REASON_QUEUE_OVERFLOW = "Dispatch queue overflow";
+
+    /**
+     * Reason of dismiss of fires which were queued when {@link DispatchQueue} was cleared or detached
+     */
+    public static final String REASON_QUEUE_CLEARED = "Dispatch queue cleared";
+
+    /**
+     * Reason of interception of fires made after the {@link CancellationScope} was cancelled,
+     * and of dismiss of runs stopped by {@link Cancelable#cancel()}
+     */
+    public static final String REASON_CANCELLED = "Cancellation scope is cancelled";
+
     // Actions which was added to the handler
     protected final List<ActionPair> mActions = new ArrayList<>();
 
     // Factory for build actions on demand
     protected ActionFactory mActionFactory;
 
+    // Actions by action types and patterns (like "cart.*" or "cart.**") they were added with
+    private final ActionTypeTrie<ActionPair> mActionTypeTrie = new ActionTypeTrie<>();
+
+    // Actions which can accept a model of specific class, by action type and model class.
+    // Resolved on first dispatch and reused until actions are changed.
+    private final Map<String, Map<Class<?>, ActionPair[]>> mCandidates = new ConcurrentHashMap<>();
+
     // Callbacks to be invoked when an action is executed successfully
     protected Set<OnActionFiredListener> mOnActionFiredListeners;
 
@@ -68,20 +160,79 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
     // Callbacks to be invoked when an action is executed but dismissed
     protected Set<OnActionDismissListener> mOnActionDismissListeners;
 
-    // Callback to be invoked right before specific action will be fired.
-    // Can intercept an action to prevent it to be fired
-    protected Set<ActionFireInterceptor> mActionFireInterceptors;
+    // Callbacks to be invoked for any event: intercepted, fired, error or dismiss.
+    // Can be added and removed from any thread (e.g. by subscribing to an event stream)
+    protected final Set<OnActionEventListener> mOnActionEventListeners = new CopyOnWriteArraySet<>();
+
+    // Callbacks subscribed only to specific action types (matched by ActionParams#actionType)
+    protected ActionTypeIndex<OnActionFiredListener> mTypedActionFiredListeners;
+    protected ActionTypeIndex<OnActionErrorListener> mTypedActionErrorListeners;
+    protected ActionTypeIndex<OnActionDismissListener> mTypedActionDismissListeners;
+
+    // Interceptors ordered by priority: debounce, rate limits, ActionInterceptors and ActionFireInterceptors.
+    // Can intercept an action type or specific action to prevent it to be fired
+    protected InterceptorPipeline mInterceptorPipeline = new InterceptorPipeline();
+
+    /**
+     * Live view of action fire interceptors of {@link #mInterceptorPipeline}, changes are applied to the pipeline.
+     *
+     * @deprecated Use {@link #addActionFireInterceptor(ActionFireInterceptor)},
+     * {@link #removeActionFireInterceptor(ActionFireInterceptor)} or {@link InterceptorPipeline#getStages()}
+     */
+    @Deprecated
+    protected final Set<ActionFireInterceptor> mActionFireInterceptors = new FireInterceptorSet();
+
+    // Built-in stages of the pipeline, which are not removed by removeAllActionInterceptors()
+    private final Set<ActionInterceptor> mBuiltInInterceptors = new HashSet<>(1);
+
+    // Kill switch for action types, checked before any interceptor
+    protected final ActionGate mActionGate = new ActionGate();
+
+    // Results of isModelAccepted shared between dispatches, optional
+    @Nullable
+    protected AcceptanceCache mAcceptanceCache;
+
+    // Fires actions on the threads they declare, optional
+    @Nullable
+    protected ActionScheduler mActionScheduler;
+
+    // Observer actions fired after primary actions, created on first use
+    @Nullable
+    protected ObserverDispatcher mObserverDispatcher;
 
-    // Callback to be invoked after a view with an action is clicked and before action handling started.
-    // Can intercept an action to prevent it to be fired
-    private Set<ActionInterceptor> mActionInterceptors;
+    // Defers or sheds low priority action types under main thread load, optional
+    @Nullable
+    protected AdmissionController mAdmissionController;
 
-    // Debounce milliseconds for specific action types (<action type, milliseconds>)
-    private Map<String, Long> mActionDebounceTime;
+    // Queue of fires in queued mode, optional
+    @Nullable
+    protected volatile DispatchQueue mDispatchQueue;
 
-    private long mDefaultDebounceTime = 0;
+    // Timers of delayed fires, created on first use
+    @Nullable
+    private TimerWheel mTimerWheel;
 
-    private DebounceHelper mDebounceHelper;
+    // Runs actions which need the main thread if fired from a background thread
+    private final MainThreadBatcher mMainThreadBatcher = new MainThreadBatcher();
+
+    // Log actions fired on a thread they don't declare
+    protected boolean mStrictThreadMode;
+
+    // Scope which cancels this handler, optional
+    @Nullable
+    protected CancellationScope mCancellationScope;
+
+    // Registry of requests retained across configuration changes, optional
+    @Nullable
+    protected RequestRegistry mRequestRegistry;
+
+    // Registered in the cancellation scope
+    private final Cancelable mScopeCancelable = new Cancelable() {
+        @Override
+        public void cancel() {
+            cancelAll();
+        }
+    };
 
     /**
      * @param actions list of actions to handle by this handler
@@ -143,6 +294,37 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         mOnActionFiredListeners.add(actionFiredListener);
     }
 
+    /**
+     * Add new callback to be invoked when an action is executed successfully.
+     * The callback is called by given executor: the notifying thread (usually main thread)
+     * only puts an event to the bounded queue of {@link AsyncActionListener}.
+     * To configure queue capacity and overflow policy
+     * add {@link AsyncActionListener} by {@link #addActionFiredListener(OnActionFiredListener)}.
+     *
+     * @param actionFiredListener new callback to be invoked when an action is executed successfully
+     * @param executor            The executor to call the callback with
+     * @return the wrapper which queues events, can be used to monitor dropped events
+     */
+    public AsyncActionListener addActionFiredListener(OnActionFiredListener actionFiredListener, Executor executor) {
+        final AsyncActionListener asyncListener = new AsyncActionListener(actionFiredListener, executor);
+        addActionFiredListener(asyncListener);
+        return asyncListener;
+    }
+
+    /**
+     * Add new callback to be invoked when an action of given types is executed successfully.
+     * The callback is not called for other action types at all.
+     *
+     * @param actionFiredListener new callback to be invoked when an action is executed successfully
+     * @param actionTypes         The action types to subscribe to (matched by {@link ActionParams#actionType})
+     */
+    public void addActionFiredListener(OnActionFiredListener actionFiredListener, String... actionTypes) {
+        if (mTypedActionFiredListeners == null) {
+            mTypedActionFiredListeners = new ActionTypeIndex<>();
+        }
+        mTypedActionFiredListeners.add(actionFiredListener, actionTypes);
+    }
+
     /**
      * Remove the callback for fire event
      *
@@ -151,6 +333,10 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
     public void removeActionFiredListener(OnActionFiredListener actionFiredListener) {
         if (mOnActionFiredListeners != null) {
             mOnActionFiredListeners.remove(actionFiredListener);
+            removeAsyncListeners(mOnActionFiredListeners, actionFiredListener);
+        }
+        if (mTypedActionFiredListeners != null) {
+            mTypedActionFiredListeners.remove(actionFiredListener);
         }
     }
 
@@ -161,6 +347,9 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         if (mOnActionFiredListeners != null) {
             mOnActionFiredListeners.clear();
         }
+        if (mTypedActionFiredListeners != null) {
+            mTypedActionFiredListeners.clear();
+        }
     }
 
     /**
@@ -176,6 +365,35 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         mOnActionErrorListeners.add(actionErrorListener);
     }
 
+    /**
+     * Add new callback to be invoked when an action is executed with error.
+     * The callback is called by given executor: the notifying thread (usually main thread)
+     * only puts an event to the bounded queue of {@link AsyncActionListener}.
+     *
+     * @param actionErrorListener new callback to be invoked when an action is executed with error
+     * @param executor            The executor to call the callback with
+     * @return the wrapper which queues events, can be used to monitor dropped events
+     */
+    public AsyncActionListener addActionErrorListener(OnActionErrorListener actionErrorListener, Executor executor) {
+        final AsyncActionListener asyncListener = new AsyncActionListener(actionErrorListener, executor);
+        addActionErrorListener(asyncListener);
+        return asyncListener;
+    }
+
+    /**
+     * Add new callback to be invoked when an action of given types is executed with error.
+     * The callback is not called for other action types at all.
+     *
+     * @param actionErrorListener new callback to be invoked when an action is executed with error
+     * @param actionTypes         The action types to subscribe to (matched by {@link ActionParams#actionType})
+     */
+    public void addActionErrorListener(OnActionErrorListener actionErrorListener, String... actionTypes) {
+        if (mTypedActionErrorListeners == null) {
+            mTypedActionErrorListeners = new ActionTypeIndex<>();
+        }
+        mTypedActionErrorListeners.add(actionErrorListener, actionTypes);
+    }
+
     /**
      * Remove the callback for error event
      *
@@ -184,6 +402,10 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
     public void removeActionErrorListener(OnActionErrorListener actionErrorListener) {
         if (mOnActionErrorListeners != null) {
             mOnActionErrorListeners.remove(actionErrorListener);
+            removeAsyncListeners(mOnActionErrorListeners, actionErrorListener);
+        }
+        if (mTypedActionErrorListeners != null) {
+            mTypedActionErrorListeners.remove(actionErrorListener);
         }
     }
 
@@ -194,6 +416,9 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         if (mOnActionErrorListeners != null) {
             mOnActionErrorListeners.clear();
         }
+        if (mTypedActionErrorListeners != null) {
+            mTypedActionErrorListeners.clear();
+        }
     }
 
     /**
@@ -209,6 +434,35 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         mOnActionDismissListeners.add(listener);
     }
 
+    /**
+     * Add new callback to be invoked when an action is executed but dismissed.
+     * The callback is called by given executor: the notifying thread (usually main thread)
+     * only puts an event to the bounded queue of {@link AsyncActionListener}.
+     *
+     * @param listener new callback to be invoked when an action was dismissed
+     * @param executor The executor to call the callback with
+     * @return the wrapper which queues events, can be used to monitor dropped events
+     */
+    public AsyncActionListener addActionDismissListener(OnActionDismissListener listener, Executor executor) {
+        final AsyncActionListener asyncListener = new AsyncActionListener(listener, executor);
+        addActionDismissListener(asyncListener);
+        return asyncListener;
+    }
+
+    /**
+     * Add new callback to be invoked when an action of given types is executed but dismissed.
+     * The callback is not called for other action types at all.
+     *
+     * @param listener    new callback to be invoked when an action was dismissed
+     * @param actionTypes The action types to subscribe to (matched by {@link ActionParams#actionType})
+     */
+    public void addActionDismissListener(OnActionDismissListener listener, String... actionTypes) {
+        if (mTypedActionDismissListeners == null) {
+            mTypedActionDismissListeners = new ActionTypeIndex<>();
+        }
+        mTypedActionDismissListeners.add(listener, actionTypes);
+    }
+
     /**
      * Remove the callback for dismiss event
      *
@@ -217,6 +471,22 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
     public void removeActionDismissListener(OnActionDismissListener listener) {
         if (mOnActionDismissListeners != null) {
             mOnActionDismissListeners.remove(listener);
+            removeAsyncListeners(mOnActionDismissListeners, listener);
+        }
+        if (mTypedActionDismissListeners != null) {
+            mTypedActionDismissListeners.remove(listener);
+        }
+    }
+
+    // Removes async wrappers, which were added for given listener
+    private static void removeAsyncListeners(@NonNull Set<?> listeners, @Nullable Object listener) {
+        if (listener == null) return;
+        final Iterator<?> iterator = listeners.iterator();
+        while (iterator.hasNext()) {
+            final Object item = iterator.next();
+            if (item instanceof AsyncActionListener && ((AsyncActionListener) item).getListener() == listener) {
+                iterator.remove();
+            }
         }
     }
 
@@ -227,6 +497,9 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         if (mOnActionDismissListeners != null) {
             mOnActionDismissListeners.clear();
         }
+        if (mTypedActionDismissListeners != null) {
+            mTypedActionDismissListeners.clear();
+        }
     }
 
     /**
@@ -253,10 +526,35 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
      * @param actionInterceptor The interceptor, which can prevent action type to be handled
      */
     public void addActionInterceptor(ActionInterceptor actionInterceptor) {
-        if (mActionInterceptors == null) {
-            mActionInterceptors = new HashSet<>(1);
+        addActionInterceptor(actionInterceptor, InterceptorPipeline.PRIORITY_DEFAULT);
+    }
+
+    /**
+     * Add new callback to be invoked after a view with an action of given types is clicked
+     * and before action type handling started.
+     * The interceptor is not called for other action types at all.
+     *
+     * @param actionInterceptor The interceptor, which can prevent action type to be handled
+     * @param actionTypes       The action types to intercept
+     */
+    public void addActionInterceptor(ActionInterceptor actionInterceptor, String... actionTypes) {
+        addActionInterceptor(actionInterceptor, InterceptorPipeline.PRIORITY_DEFAULT, actionTypes);
+    }
+
+    /**
+     * Add new callback to be invoked after a view with an action is clicked and before action type handling started.
+     * Interceptors with higher priority are called first, the first interceptor which intercepts an action type
+     * stops the chain. Debounce check has priority {@link InterceptorPipeline#PRIORITY_DEBOUNCE}
+     * and rate limits have priority {@link InterceptorPipeline#PRIORITY_RATE_LIMIT}.
+     *
+     * @param actionInterceptor The interceptor, which can prevent action type to be handled
+     * @param priority          The priority of the interceptor
+     * @param actionTypes       The action types to intercept, or nothing to intercept any action type
+     */
+    public void addActionInterceptor(ActionInterceptor actionInterceptor, int priority, String... actionTypes) {
+        if (actionInterceptor != null) {
+            mInterceptorPipeline.addInterceptor(actionInterceptor, priority, null, REASON_INTERCEPTED, actionTypes);
         }
-        mActionInterceptors.add(actionInterceptor);
     }
 
     /**
@@ -265,17 +563,17 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
      * @param actionInterceptor The interceptor to remove
      */
     public void removeActionInterceptor(ActionInterceptor actionInterceptor) {
-        if (mActionInterceptors != null) {
-            mActionInterceptors.remove(actionInterceptor);
-        }
+        mInterceptorPipeline.removeInterceptor(actionInterceptor);
     }
 
     /**
-     * Remove all action interceptors
+     * Remove all action interceptors. Debounce and rate limits are kept.
      */
     public void removeAllActionInterceptors() {
-        if (mActionInterceptors != null) {
-            mActionInterceptors.clear();
+        for (InterceptorPipeline.Stage stage : mInterceptorPipeline.getStages()) {
+            if (!stage.fireInterceptor && !mBuiltInInterceptors.contains(stage.interceptor)) {
+                mInterceptorPipeline.removeInterceptor((ActionInterceptor) stage.interceptor);
+            }
         }
     }
 
@@ -286,10 +584,35 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
      * @param actionFireInterceptor The interceptor, which can prevent action to be fired
      */
     public void addActionFireInterceptor(ActionFireInterceptor actionFireInterceptor) {
-        if (mActionFireInterceptors == null) {
-            mActionFireInterceptors = new HashSet<>(1);
+        addActionFireInterceptor(actionFireInterceptor, InterceptorPipeline.PRIORITY_DEFAULT);
+    }
+
+    /**
+     * Add new callback to be invoked right before an action of given types will be fired.
+     * The interceptor is matched by the type of action to fire
+     * (or by {@link ActionParams#actionType} for actions added with null type)
+     * and is not called for other action types at all.
+     *
+     * @param actionFireInterceptor The interceptor, which can prevent action to be fired
+     * @param actionTypes           The action types to intercept
+     */
+    public void addActionFireInterceptor(ActionFireInterceptor actionFireInterceptor, String... actionTypes) {
+        addActionFireInterceptor(actionFireInterceptor, InterceptorPipeline.PRIORITY_DEFAULT, actionTypes);
+    }
+
+    /**
+     * Add new callback to be invoked right before an action will be fired.
+     * Interceptors with higher priority are called first, the first interceptor which intercepts an action
+     * stops the chain.
+     *
+     * @param actionFireInterceptor The interceptor, which can prevent action to be fired
+     * @param priority              The priority of the interceptor
+     * @param actionTypes           The action types to intercept, or nothing to intercept any action type
+     */
+    public void addActionFireInterceptor(ActionFireInterceptor actionFireInterceptor, int priority, String... actionTypes) {
+        if (actionFireInterceptor != null) {
+            mInterceptorPipeline.addFireInterceptor(actionFireInterceptor, priority, null, REASON_FIRE_INTERCEPTED, actionTypes);
         }
-        mActionFireInterceptors.add(actionFireInterceptor);
     }
 
     /**
@@ -298,18 +621,253 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
      * @param actionFireInterceptor The interceptor to remove
      */
     public void removeActionFireInterceptor(ActionFireInterceptor actionFireInterceptor) {
-        if (mActionFireInterceptors != null) {
-            mActionFireInterceptors.remove(actionFireInterceptor);
-        }
+        mInterceptorPipeline.removeFireInterceptor(actionFireInterceptor);
     }
 
     /**
      * Remove all action fire interceptors
      */
     public void removeAllActionFireInterceptors() {
-        if (mActionFireInterceptors != null) {
-            mActionFireInterceptors.clear();
+        mInterceptorPipeline.clearFireInterceptors();
+    }
+
+    /**
+     * Set the cache to share results of {@link Action#isModelAccepted(Object)} between dispatches.
+     * Only models which implement {@link AcceptanceCache.VersionedModel} are cached.
+     * Without it results are reused only within single dispatch.
+     *
+     * @param acceptanceCache The cache or null to disable it
+     */
+    public void setAcceptanceCache(@Nullable AcceptanceCache acceptanceCache) {
+        mAcceptanceCache = acceptanceCache;
+    }
+
+    /**
+     * Set the scheduler to fire actions on the threads they declare by {@link ScheduledAction}.
+     * Without it actions which need the main thread are posted to it when fired off the main thread,
+     * other actions are fired on the thread {@link #fireAction(ActionParams)} is called on.
+     *
+     * @param actionScheduler The scheduler or null to fire actions without scheduling
+     */
+    public void setActionScheduler(@Nullable ActionScheduler actionScheduler) {
+        mActionScheduler = actionScheduler;
+    }
+
+    /**
+     * Enable queued mode: fires are put to given bounded queue and dispatched on the main thread
+     * at the rate of the queue, fires dropped by overflow policy are dismissed with
+     * reason {@link #REASON_QUEUE_OVERFLOW}. Fires queued when the mode is disabled are not dispatched,
+     * they are dismissed with reason {@link #REASON_QUEUE_CLEARED}.
+     *
+     * @param dispatchQueue The queue or null to dispatch fires immediately
+     */
+    public void setDispatchQueue(@Nullable DispatchQueue dispatchQueue) {
+        final DispatchQueue previous = mDispatchQueue;
+        if (previous == dispatchQueue) return;
+        if (previous != null) {
+            previous.clear();
+            previous.setConsumer(null);
         }
+        if (dispatchQueue != null) {
+            dispatchQueue.setConsumer(new DispatchQueue.Consumer() {
+                @Override
+                public void onDispatch(@NonNull ActionParams params, @NonNull DispatchContext context) {
+                    dispatchAction(params, context);
+                }
+
+                @Override
+                public void onDropped(
+                        @NonNull ActionParams params,
+                        @NonNull DispatchContext context,
+                        @NonNull String reason
+                ) {
+                    rejectDispatch(params, context, reason, false);
+                }
+            });
+        }
+        mDispatchQueue = dispatchQueue;
+    }
+
+    /**
+     * @return the queue of fires if queued mode is enabled, null otherwise
+     */
+    @Nullable
+    public DispatchQueue getDispatchQueue() {
+        return mDispatchQueue;
+    }
+
+    /**
+     * Bind this handler to the cancellation scope. When the scope is cancelled, {@link #cancelAll()} is called,
+     * following fires are dropped and events of actions are not delivered to listeners anymore.
+     * The scope is passed to actions by {@link DispatchContext#getCancellationScope()},
+     * so they can register their in-flight work in it.
+     *
+     * @param cancellationScope The scope, e.g. {@link LifecycleCancellationScope}, or null to unbind
+     */
+    public void setCancellationScope(@Nullable CancellationScope cancellationScope) {
+        if (mCancellationScope != null) mCancellationScope.unregister(mScopeCancelable);
+        mCancellationScope = cancellationScope;
+        if (cancellationScope != null) cancellationScope.register(mScopeCancelable);
+    }
+
+    /**
+     * Bind this handler to the lifecycle: all actions are cancelled when the owner is destroyed
+     * and no events are delivered after that. Requires androidx lifecycle on the classpath.
+     *
+     * @param owner The owner of lifecycle, e.g. activity or fragment
+     */
+    public void bindToLifecycle(@NonNull LifecycleOwner owner) {
+        setCancellationScope(new LifecycleCancellationScope(owner));
+    }
+
+    /**
+     * @return the cancellation scope of this handler or null if it is not bound
+     */
+    @Nullable
+    public CancellationScope getCancellationScope() {
+        return mCancellationScope;
+    }
+
+    /**
+     * Attach this handler to the registry of requests retained across configuration changes.
+     * Requests of actions which provide a key (e.g. {@link com.drextended.actionhandler.action.RxRequestAction#getRequestKey(ActionArgs)})
+     * are kept running when this handler is cancelled, their responses are delivered to the actions
+     * of the handler attached to the registry next, e.g. the handler of recreated activity.
+     * Responses received while no handler was attached are posted to this handler.
+     *
+     * @param requestRegistry The registry retained across configuration changes, or null to detach
+     */
+    public void setRequestRegistry(@Nullable RequestRegistry requestRegistry) {
+        if (mRequestRegistry != null) mRequestRegistry.detachHandler(this);
+        mRequestRegistry = requestRegistry;
+        if (requestRegistry != null) requestRegistry.attachHandler(this);
+    }
+
+    /**
+     * @return the request registry of this handler or null if it is not attached
+     */
+    @Nullable
+    public RequestRegistry getRequestRegistry() {
+        return mRequestRegistry;
+    }
+
+    /**
+     * Enable strict thread mode: actions fired on a thread which differs from the thread they declare
+     * by {@link ScheduledAction} (e.g. background action fired on the main thread) are logged with stack trace.
+     * Actions which need the main thread are always moved to it if fired from a background thread,
+     * see {@link #fireAction(ActionParams)}.
+     *
+     * @param strictThreadMode true to enable strict thread mode
+     */
+    public void setStrictThreadMode(boolean strictThreadMode) {
+        mStrictThreadMode = strictThreadMode;
+    }
+
+    /**
+     * Set the controller to defer or shed low priority action types while the main thread is overloaded.
+     * Shed fires are dismissed with reason {@link #REASON_LOAD_SHED}.
+     * The controller should be started to observe the load, see {@link AdmissionController#start()}.
+     *
+     * @param admissionController The controller or null to admit all fires
+     */
+    public void setAdmissionController(@Nullable AdmissionController admissionController) {
+        mAdmissionController = admissionController;
+    }
+
+    /**
+     * Add observer action for any action type, fired after primary actions
+     * by {@link ObserverDispatcher} in given mode.
+     *
+     * @param action The observer action, e.g. tracking
+     * @param mode   How the action should be fired
+     */
+    public void addObserverAction(@NonNull Action action, @NonNull ObserverDispatcher.Mode mode) {
+        addObserverAction(null, action, mode);
+    }
+
+    /**
+     * Add observer action for given action type, fired after primary actions
+     * by {@link ObserverDispatcher} in given mode.
+     *
+     * @param actionType The action type to observe or null to observe any action type
+     * @param action     The observer action, e.g. tracking
+     * @param mode       How the action should be fired
+     */
+    public synchronized void addObserverAction(
+            @Nullable String actionType,
+            @NonNull Action action,
+            @NonNull ObserverDispatcher.Mode mode
+    ) {
+        if (mObserverDispatcher == null) mObserverDispatcher = new ObserverDispatcher();
+        mObserverDispatcher.add(actionType, action, mode);
+    }
+
+    /**
+     * Remove observer action for all action types
+     *
+     * @param action The observer action
+     */
+    public void removeObserverAction(Action action) {
+        if (mObserverDispatcher != null) mObserverDispatcher.remove(action);
+    }
+
+    /**
+     * @return the dispatcher of observer actions or null if no observer actions were added
+     */
+    @Nullable
+    public ObserverDispatcher getObserverDispatcher() {
+        return mObserverDispatcher;
+    }
+
+    /**
+     * Returns the gate which allows to enable and disable action types at runtime.
+     * Disabled action types are not fired and dismiss listeners are notified
+     * with reason {@link #REASON_GATED}.
+     *
+     * @return the action gate
+     */
+    @NonNull
+    public ActionGate getActionGate() {
+        return mActionGate;
+    }
+
+    /**
+     * Returns the pipeline of all interceptors of this handler.
+     * Can be used to inspect order of interceptors and time spent by each of them
+     * (see {@link InterceptorPipeline#setTimingEnabled(boolean)}).
+     *
+     * @return the interceptor pipeline
+     */
+    @NonNull
+    public InterceptorPipeline getInterceptorPipeline() {
+        return mInterceptorPipeline;
+    }
+
+    /**
+     * Add new callback to be invoked for any event of the action lifecycle:
+     * intercepted, fired, error or dismiss.
+     * See {@link com.drextended.actionhandler.util.RxActionEvents} to observe events as a stream.
+     *
+     * @param listener new callback to be invoked for any action event
+     */
+    public void addActionEventListener(OnActionEventListener listener) {
+        if (listener != null) mOnActionEventListeners.add(listener);
+    }
+
+    /**
+     * Remove the callback for action events
+     *
+     * @param listener callback to remove
+     */
+    public void removeActionEventListener(OnActionEventListener listener) {
+        if (listener != null) mOnActionEventListeners.remove(listener);
+    }
+
+    /**
+     * Remove all callbacks for action events
+     */
+    public void removeAllActionEventListeners() {
+        mOnActionEventListeners.clear();
     }
 
     /**
@@ -326,6 +884,21 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         addActionErrorListener(actionCallback);
     }
 
+    /**
+     * Add new action callback, which is invoked only for given action types.
+     * One method for adding all listeners and interceptors.
+     *
+     * @param actionCallback The action callback
+     * @param actionTypes    The action types to subscribe to
+     */
+    public void addCallback(ActionCallback actionCallback, String... actionTypes) {
+        addActionInterceptor(actionCallback, actionTypes);
+        addActionFireInterceptor(actionCallback, actionTypes);
+        addActionFiredListener(actionCallback, actionTypes);
+        addActionDismissListener(actionCallback, actionTypes);
+        addActionErrorListener(actionCallback, actionTypes);
+    }
+
     /**
      * Remove action callback
      *
@@ -348,38 +921,182 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         removeAllActionInterceptors();
         removeAllActionFireInterceptors();
         removeAllActionErrorListeners();
+        removeAllActionEventListeners();
     }
 
     @Override
-    public void onActionFired(@NonNull ActionArgs args, @Nullable Object result) {
+    public void onActionFired(@NonNull final ActionArgs args, @Nullable final Object result) {
+        final BatchResult batch = args.context.getBatch();
+        if (batch != null && batch.onFired(result)) return;
+        completeResult(args, ActionResult.Status.FIRED, result, null, null);
+        notifyOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                notifyActionFired(args, result);
+            }
+        });
+    }
+
+    private void notifyActionFired(@NonNull ActionArgs args, @Nullable Object result) {
+        if (isScopeCancelled()) return;
         if (mOnActionFiredListeners != null) {
             for (final OnActionFiredListener listener : mOnActionFiredListeners) {
                 listener.onActionFired(args, result);
             }
         }
+        final Set<OnActionFiredListener> typedListeners = mTypedActionFiredListeners == null
+                ? null : mTypedActionFiredListeners.get(args.params.actionType);
+        if (typedListeners != null) {
+            for (final OnActionFiredListener listener : typedListeners) {
+                listener.onActionFired(args, result);
+            }
+        }
+        if (!mOnActionEventListeners.isEmpty()) {
+            notifyActionEvent(ActionEvent.fired(args, result));
+        }
     }
 
     @Override
-    public void onActionError(@NonNull ActionArgs args, @Nullable Throwable throwable) {
+    public void onActionError(@NonNull final ActionArgs args, @Nullable final Throwable throwable) {
+        final BatchResult batch = args.context.getBatch();
+        if (batch != null && batch.onError(throwable)) return;
+        completeResult(args, ActionResult.Status.ERROR, null, throwable, null);
+        notifyOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                notifyActionError(args, throwable);
+            }
+        });
+    }
+
+    private void notifyActionError(@NonNull ActionArgs args, @Nullable Throwable throwable) {
+        if (isScopeCancelled()) return;
         if (mOnActionErrorListeners != null) {
             for (final OnActionErrorListener listener : mOnActionErrorListeners) {
                 listener.onActionError(args, throwable);
             }
         }
+        final Set<OnActionErrorListener> typedListeners = mTypedActionErrorListeners == null
+                ? null : mTypedActionErrorListeners.get(args.params.actionType);
+        if (typedListeners != null) {
+            for (final OnActionErrorListener listener : typedListeners) {
+                listener.onActionError(args, throwable);
+            }
+        }
+        if (!mOnActionEventListeners.isEmpty()) {
+            notifyActionEvent(ActionEvent.error(args, throwable));
+        }
     }
 
     @Override
-    public void onActionDismiss(@NonNull ActionArgs args, @Nullable String reason) {
+    public void onActionDismiss(@NonNull final ActionArgs args, @Nullable final String reason) {
+        final BatchResult batch = args.context.getBatch();
+        if (batch != null && batch.onDismiss()) return;
+        completeResult(args, ActionResult.Status.DISMISSED, null, null, reason);
+        notifyOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                notifyActionDismiss(args, reason);
+            }
+        });
+    }
+
+    private void notifyActionDismiss(@NonNull ActionArgs args, @Nullable String reason) {
+        if (isScopeCancelled()) return;
         if (mOnActionDismissListeners != null) {
             for (final OnActionDismissListener listener : mOnActionDismissListeners) {
                 listener.onActionDismiss(args, reason);
             }
         }
-    }
+        final Set<OnActionDismissListener> typedListeners = mTypedActionDismissListeners == null
+                ? null : mTypedActionDismissListeners.get(args.params.actionType);
+        if (typedListeners != null) {
+            for (final OnActionDismissListener listener : typedListeners) {
+                listener.onActionDismiss(args, reason);
+            }
+        }
+        if (!mOnActionEventListeners.isEmpty()) {
+            notifyActionEvent(ActionEvent.dismissed(args, reason));
+        }
+    }
+
+    /**
+     * Called when an action type or specific action was intercepted and will not be fired.
+     *
+     * @param args   The action params and the action type which was intercepted
+     * @param reason The reason of interception
+     */
+    protected void onActionIntercepted(@NonNull final ActionArgs args, @Nullable final String reason) {
+        final BatchResult batch = args.context.getBatch();
+        if (batch != null && batch.onIntercepted()) return;
+        completeResult(args, ActionResult.Status.INTERCEPTED, null, null, reason);
+        if (mOnActionEventListeners.isEmpty()) return;
+        notifyOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                if (isScopeCancelled() || mOnActionEventListeners.isEmpty()) return;
+                notifyActionEvent(ActionEvent.intercepted(args, reason));
+            }
+        });
+    }
+
+    /**
+     * Listeners usually touch views, so events notified on background threads are posted to the main thread
+     */
+    private void notifyOnMainThread(@NonNull Runnable notify) {
+        if (AUtils.isMainThread()) {
+            notify.run();
+        } else {
+            mMainThreadBatcher.execute(notify);
+        }
+    }
+
+    private boolean isScopeCancelled() {
+        final CancellationScope scope = mCancellationScope;
+        return scope != null && scope.isCancelled();
+    }
+
+    private static void completeResult(
+            @NonNull ActionArgs args,
+            @NonNull ActionResult.Status status,
+            @Nullable Object result,
+            @Nullable Throwable throwable,
+            @Nullable String reason
+    ) {
+        final ActionResult actionResult = args.context.getResult();
+        if (actionResult != null && args.fireActionType != null) {
+            actionResult.complete(status, args, result, throwable, reason);
+        }
+    }
+
+    private void notifyActionEvent(@NonNull ActionEvent event) {
+        for (final OnActionEventListener listener : mOnActionEventListeners) {
+            listener.onActionEvent(event);
+        }
+    }
 
     @Override
     public boolean onInterceptActionFire(@NonNull ActionParams actionParams, @Nullable String actionType, @NonNull Action action) {
-        return interceptActionFire(actionParams, actionType, action);
+        return onInterceptActionFire(actionParams, actionType, action, new DispatchContext());
+    }
+
+    @Override
+    public boolean onInterceptActionFire(
+            @NonNull ActionParams actionParams,
+            @Nullable String actionType,
+            @NonNull Action action,
+            @NonNull DispatchContext context
+    ) {
+        if (!mActionGate.isEnabled(actionType)) {
+            onActionDismiss(new ActionArgs(actionParams, actionType, context), REASON_GATED);
+            return true;
+        }
+        final InterceptorPipeline.Stage stage = mInterceptorPipeline.interceptFire(actionParams, actionType, action);
+        if (stage != null) {
+            onActionIntercepted(new ActionArgs(actionParams, actionType, context), stage.reason);
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -390,8 +1107,14 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
      * false otherwise.
      */
     public boolean canHandle(final String actionType) {
-        for (ActionPair actionPair : mActions) {
-            if (equals(actionType, actionPair.actionType)) return true;
+        if (actionType == null) {
+            for (ActionPair actionPair : mActions) {
+                if (actionPair.actionType == null) return true;
+            }
+            return false;
+        }
+        for (ActionPair actionPair : mActionTypeTrie.match(actionType)) {
+            if (actionPair.actionType != null) return true;
         }
         return false;
     }
@@ -405,9 +1128,8 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
      * false otherwise.
      */
     public boolean canHandle(@NonNull final String actionType, @Nullable Object model) {
-        for (ActionPair actionPair : mActions) {
-            if (equals(actionType, actionPair.actionType) &&
-                    actionPair.action.isModelAccepted(model)) {
+        for (ActionPair actionPair : getCandidates(actionType, model)) {
+            if (actionPair.actionType != null && actionPair.action.isModelAccepted(model)) {
                 return true;
             }
         }
@@ -442,6 +1164,38 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         ));
     }
 
+    /**
+     * Called when a view with an action is touched down. Starts speculative work of the first
+     * {@link PrefetchableAction} which accepts the model, so the following click attaches to it.
+     * Interceptors are not checked, they are checked on the click as usual.
+     *
+     * @param view       The view that was touched.
+     * @param actionType The action type, which appointed to the view
+     * @param model      The model, which  appointed to the view and should be handled
+     * @param actionTag  The tag, which can be used to distinct click source or etc.
+     * @return the handle to cancel the prefetch, or null if nothing was prefetched
+     */
+    @Nullable
+    @Override
+    public Cancelable onActionPrefetch(
+            @NonNull View view,
+            @NonNull String actionType,
+            @Nullable Object model,
+            @Nullable Object actionTag
+    ) {
+        if (isScopeCancelled() || !mActionGate.isEnabled(actionType)) return null;
+        final DispatchContext context = newDispatchContext(null, null);
+        for (ActionPair actionPair : getCandidates(actionType, model)) {
+            if (actionPair.actionType != null
+                    && actionPair.action instanceof PrefetchableAction
+                    && context.isModelAccepted(actionPair.action, model)) {
+                final ActionParams params = new ActionParams(view.getContext(), view, actionType, model, actionTag);
+                return ((PrefetchableAction) actionPair.action).prefetch(new ActionArgs(params, actionPair.actionType, context));
+            }
+        }
+        return null;
+    }
+
     /**
      * Call for initiate actions to fire.
      *
@@ -502,30 +1256,534 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         ));
     }
 
+    /**
+     * Call for initiate actions to fire. Can be called from any thread: actions which need
+     * the main thread (all actions except ones declaring {@link ActionThread#ANY} or a background thread
+     * by {@link ScheduledAction}) are posted to the main thread, posts made before the main thread
+     * picks them up are run by one message. Other actions are fired on the calling thread.
+     *
+     * @param actionParams The action params
+     */
     public void fireAction(ActionParams actionParams) {
-        if (!checkDebounceTimeElapsed(actionParams.actionType)) {
-            Log.d("ActionHandler", "Debounce time not elapsed. Action intercepted!");
+        fireAction(actionParams, newDispatchContext(null, null));
+    }
+
+    /**
+     * Call for initiate actions to fire and get the handle to observe the outcome of this dispatch.
+     *
+     * @param context    The Context, which generally get from view by {@link View#getContext()}
+     * @param view       The view that was clicked.
+     * @param actionType The action type, which appointed to the view
+     * @param model      The model, which  appointed to the view and should be handled
+     * @param actionTag  The tag, which can be used to distinct click source or etc.
+     * @return the handle completed by the first event of an action fired for the action type
+     */
+    @NonNull
+    public ActionResult fireActionForResult(
+            @NonNull Context context,
+            @Nullable View view,
+            @NonNull String actionType,
+            @Nullable Object model,
+            @Nullable Object actionTag
+    ) {
+        return fireActionForResult(new ActionParams(context, view, actionType, model, actionTag));
+    }
+
+    /**
+     * Call for initiate actions to fire and get the handle to observe the outcome of this dispatch.
+     * See {@link ActionResult} for details.
+     *
+     * @param actionParams The action params
+     * @return the handle completed by the first event of an action fired for the action type
+     */
+    @NonNull
+    public ActionResult fireActionForResult(@NonNull ActionParams actionParams) {
+        final ActionResult result = new ActionResult(actionParams);
+        fireAction(actionParams, newDispatchContext(null, result));
+        return result;
+    }
+
+    @NonNull
+    private DispatchContext newDispatchContext(@Nullable BatchResult batch, @Nullable ActionResult result) {
+        return new DispatchContext(mAcceptanceCache, batch, result, mCancellationScope, mRequestRegistry);
+    }
+
+    private void fireAction(@NonNull ActionParams actionParams, @NonNull DispatchContext context) {
+        if (dropIfScopeCancelled(actionParams, context)) return;
+        final DispatchQueue dispatchQueue = mDispatchQueue;
+        if (dispatchQueue != null) {
+            dispatchQueue.offer(actionParams, context);
+        } else {
+            dispatchAction(actionParams, context);
+        }
+    }
+
+    private void dispatchAction(@NonNull final ActionParams actionParams, @NonNull final DispatchContext context) {
+        if (!mActionGate.isEnabled(actionParams.actionType)) {
+            rejectDispatch(actionParams, context, REASON_GATED, false);
             return;
         }
 
-        if (interceptAction(actionParams)) return;
+        final InterceptorPipeline.Stage stage = mInterceptorPipeline.intercept(actionParams);
+        if (stage != null) {
+            if (REASON_DEBOUNCE.equals(stage.reason)) {
+                Log.d(TAG, "Debounce time not elapsed. Action intercepted!");
+            }
+            rejectDispatch(actionParams, context, stage.reason, true);
+            return;
+        }
+
+        if (mAdmissionController != null) {
+            switch (mAdmissionController.admit(actionParams.actionType)) {
+                case SHED:
+                    rejectDispatch(actionParams, context, REASON_LOAD_SHED, false);
+                    return;
+                case DEFER:
+                    mAdmissionController.defer(actionParams.actionType, new AdmissionController.Deferred() {
+                        @Override
+                        public void onAdmitted() {
+                            fireAdmittedAction(actionParams, context);
+                        }
+
+                        @Override
+                        public void onShed() {
+                            rejectDispatch(actionParams, context, REASON_LOAD_SHED, false);
+                        }
+                    });
+                    return;
+                default:
+                    break;
+            }
+        }
+        fireAdmittedAction(actionParams, context);
+    }
+
+    /**
+     * Notify listeners that the dispatch was rejected. A batch is closed with the reason,
+     * so it is reported as intercepted as a whole.
+     */
+    private void rejectDispatch(
+            @NonNull ActionParams actionParams,
+            @NonNull DispatchContext context,
+            @NonNull String reason,
+            boolean intercepted
+    ) {
+        final BatchResult batch = context.getBatch();
+        if (batch != null) {
+            batch.setInterceptReason(reason);
+            batch.close();
+        }
+        final ActionArgs args = new ActionArgs(actionParams, actionParams.actionType, context);
+        if (intercepted) {
+            onActionIntercepted(args, reason);
+        } else {
+            onActionDismiss(args, reason);
+        }
+    }
 
-        List<ActionPair> actionPairs = getActionsForActionType(actionParams.actionType);
+    /**
+     * Drop the fire if the cancellation scope was cancelled, e.g. while the fire was queued or deferred.
+     * A batch is closed and a result handle is completed as intercepted with reason {@link #REASON_CANCELLED},
+     * listeners are not notified.
+     *
+     * @return true if the fire is dropped
+     */
+    private boolean dropIfScopeCancelled(@NonNull ActionParams actionParams, @NonNull DispatchContext context) {
+        if (!isScopeCancelled()) return false;
+        Log.d(TAG, "Cancellation scope is cancelled. Action dropped!");
+        final BatchResult batch = context.getBatch();
+        if (batch != null) {
+            batch.setInterceptReason(REASON_CANCELLED);
+            batch.close();
+        }
+        final ActionResult result = context.getResult();
+        if (result != null) {
+            result.complete(ActionResult.Status.INTERCEPTED,
+                    new ActionArgs(actionParams, actionParams.actionType, context), null, null, REASON_CANCELLED);
+        }
+        return true;
+    }
 
+    private void fireAdmittedAction(@NonNull ActionParams actionParams, @NonNull DispatchContext context) {
+        if (dropIfScopeCancelled(actionParams, context)) return;
+        if (context.getBatch() != null) {
+            fireAdmittedBatch(actionParams, context);
+            return;
+        }
+        final ActionPair[] actionPairs = getCandidates(actionParams.actionType, actionParams.model);
+        boolean fired = false;
+        boolean notifying = false;
         for (ActionPair actionPair : actionPairs) {
             final Action action = actionPair.action;
-            if (action.isModelAccepted(actionParams.model)) {
-                if (interceptActionFire(actionParams, actionPair.actionType, action)) continue;
-                action.onFireAction(new ActionArgs(actionParams, actionPair.actionType));
+            if (context.isModelAccepted(action, actionParams.model)) {
+                if (onInterceptActionFire(actionParams, actionPair.actionType, action, context)) continue;
+                scheduleFire(actionParams.actionType, action,
+                        new ActionArgs(actionParams, actionPair.actionType, context), null);
+                if (actionPair.actionType != null) {
+                    fired = true;
+                    notifying |= action instanceof BaseAction;
+                }
             }
         }
+
+        if (mObserverDispatcher != null && !mObserverDispatcher.isEmpty()) {
+            mObserverDispatcher.dispatch(actionParams);
+        }
+
+        final ActionResult result = context.getResult();
+        if (result != null && !notifying) {
+            if (fired) {
+                result.complete(ActionResult.Status.FIRED, null, null, null, null);
+            } else {
+                result.complete(ActionResult.Status.DISMISSED, null, null, null, REASON_NO_ACTION);
+            }
+        }
+    }
+
+    /**
+     * Fire the action on the thread it declares by {@link ScheduledAction}: by the scheduler if it is set,
+     * otherwise actions which need the main thread are posted to it and others are fired on the current thread.
+     *
+     * @param onFinished The callback to run after {@link Action#onFireAction(ActionArgs)} returned, or null
+     */
+    private void scheduleFire(
+            @NonNull String actionType,
+            @NonNull final Action action,
+            @NonNull final ActionArgs args,
+            @Nullable final Runnable onFinished
+    ) {
+        if (mActionScheduler != null) {
+            mActionScheduler.schedule(actionType, action, args, onFinished);
+        } else if (!AUtils.isMainThread() && ActionScheduler.getActionThread(action).isMain()) {
+            mMainThreadBatcher.execute(new Runnable() {
+                @Override
+                public void run() {
+                    fireOnCurrentThread(action, args, onFinished);
+                }
+            });
+        } else {
+            fireOnCurrentThread(action, args, onFinished);
+        }
+    }
+
+    private void fireOnCurrentThread(@NonNull Action action, @NonNull ActionArgs args, @Nullable Runnable onFinished) {
+        try {
+            fireOnCurrentThread(action, args);
+        } finally {
+            if (onFinished != null) onFinished.run();
+        }
+    }
+
+    private void fireOnCurrentThread(@NonNull Action action, @NonNull ActionArgs args) {
+        if (mStrictThreadMode) {
+            final ActionThread thread = ActionScheduler.getActionThread(action);
+            final boolean mainThread = AUtils.isMainThread();
+            if ((thread.isMain() && !mainThread) || (thread.isBackground() && mainThread)) {
+                Log.w(TAG, "StrictThreadMode: " + action.getClass().getName() + " declares " + thread
+                        + " but is fired on " + Thread.currentThread().getName(), new IllegalStateException());
+            }
+        }
+        action.onFireAction(args);
+    }
+
+    /**
+     * Fire action type for many models at once, e.g. for bulk operation on selected items.
+     * Debounce, gate and interceptors are checked once for the whole batch
+     * (the model of {@link ActionParams} is the collection of models),
+     * fire interceptors are checked once for each action.
+     * {@link BatchAction}s receive all accepted models by single call, other actions are fired for each model.
+     * The batch goes the same way as {@link #fireAction(ActionParams)}: through the dispatch queue,
+     * the admission controller and the scheduler, so actions are fired on the threads they declare.
+     * Fired, error and dismiss events of actions are collected to {@link BatchResult},
+     * fired listeners are notified once with it as the result, after all actions fired by the batch returned
+     * from their fire methods on the threads they were scheduled to. If the batch is queued or deferred,
+     * the returned result is filled when the batch is fired.
+     *
+     * @param context    The Context
+     * @param actionType The action type to fire
+     * @param models     The models to handle
+     * @param actionTag  The tag, which can be used to distinct click source or etc.
+     * @return the aggregated result of the batch
+     */
+    @NonNull
+    public BatchResult fireBatch(
+            @NonNull Context context,
+            @NonNull String actionType,
+            @NonNull Collection<?> models,
+            @Nullable Object actionTag
+    ) {
+        return fireBatch(context, actionType, models, actionTag, null);
+    }
+
+    /**
+     * Fire action type for many models at once, see {@link #fireBatch(Context, String, Collection, Object)}.
+     * If the executor is given and this is called off the main thread, acceptance of models is evaluated
+     * in parallel by chunks of {@link #BATCH_CHUNK_SIZE} models, so {@link Action#isModelAccepted(Object)}
+     * of actions have to be thread safe. The calling thread evaluates chunks too, so the batch completes
+     * even if the executor doesn't run them. On the main thread the executor is ignored.
+     *
+     * @param context    The Context
+     * @param actionType The action type to fire
+     * @param models     The models to handle
+     * @param actionTag  The tag, which can be used to distinct click source or etc.
+     * @param executor   The executor to evaluate acceptance of large batches in parallel, or null
+     * @return the aggregated result of the batch
+     */
+    @NonNull
+    public BatchResult fireBatch(
+            @NonNull Context context,
+            @NonNull String actionType,
+            @NonNull Collection<?> models,
+            @Nullable Object actionTag,
+            @Nullable Executor executor
+    ) {
+        final Object[] modelArray = models.toArray();
+        final BatchResult batch = new BatchResult(actionType, modelArray.length, executor);
+        final ActionParams batchParams = new ActionParams(
+                context, null, actionType, Collections.unmodifiableList(Arrays.asList(modelArray)), actionTag
+        );
+        fireAction(batchParams, newDispatchContext(batch, null));
+        return batch;
+    }
+
+    private void fireAdmittedBatch(
+            @NonNull final ActionParams batchParams,
+            @NonNull final DispatchContext dispatchContext
+    ) {
+        final BatchResult batch = dispatchContext.getBatch();
+        final String actionType = batchParams.actionType;
+        final Object[] modelArray = ((Collection<?>) batchParams.model).toArray();
+        final ActionPair[][] candidates = new ActionPair[modelArray.length][];
+        for (int i = 0; i < modelArray.length; i++) {
+            candidates[i] = getCandidates(actionType, modelArray[i]);
+        }
+        final boolean[][] accepted = evaluateAcceptance(modelArray, candidates, dispatchContext, batch.getExecutor());
+
+        // accepted models grouped by actions
+        final List<BatchGroup> groups = new ArrayList<>();
+        for (int i = 0; i < modelArray.length; i++) {
+            boolean acceptedByAny = false;
+            for (int j = 0; j < candidates[i].length; j++) {
+                if (!accepted[i][j]) continue;
+                acceptedByAny = true;
+                BatchGroup.find(groups, candidates[i][j]).models.add(modelArray[i]);
+            }
+            batch.addModel(modelArray[i], acceptedByAny);
+        }
+
+        // the batch is closed when all scheduled fires have returned, the dispatch itself holds one count
+        final AtomicInteger pending = new AtomicInteger(1);
+        final Runnable onFinished = new Runnable() {
+            @Override
+            public void run() {
+                if (pending.decrementAndGet() != 0) return;
+                batch.close();
+                onActionFired(new ActionArgs(batchParams, actionType, dispatchContext), batch);
+            }
+        };
+        for (BatchGroup group : groups) {
+            if (onInterceptActionFire(batchParams, group.actionType, group.action, dispatchContext)) continue;
+            if (group.action instanceof BatchAction) {
+                pending.incrementAndGet();
+                scheduleBatchFire(
+                        (BatchAction) group.action,
+                        new ActionArgs(batchParams, group.actionType, dispatchContext),
+                        group.models,
+                        onFinished
+                );
+            } else {
+                for (Object model : group.models) {
+                    final ActionParams params = new ActionParams(
+                            batchParams.appContext, null, actionType, model, batchParams.tag
+                    );
+                    pending.incrementAndGet();
+                    scheduleFire(actionType, group.action,
+                            new ActionArgs(params, group.actionType, dispatchContext), onFinished);
+                }
+            }
+        }
+        onFinished.run();
+    }
+
+    /**
+     * Fire the batch action on the current thread, or post it to the main thread if it needs one.
+     */
+    private void scheduleBatchFire(
+            @NonNull final BatchAction action,
+            @NonNull final ActionArgs args,
+            @NonNull final List<Object> models,
+            @NonNull final Runnable onFinished
+    ) {
+        final Runnable fire = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    action.onFireBatch(args, models);
+                } finally {
+                    onFinished.run();
+                }
+            }
+        };
+        if (!AUtils.isMainThread() && ActionScheduler.getActionThread(action).isMain()) {
+            mMainThreadBatcher.execute(fire);
+        } else {
+            fire.run();
+        }
+    }
+
+    @NonNull
+    private static boolean[][] evaluateAcceptance(
+            @NonNull Object[] models,
+            @NonNull ActionPair[][] candidates,
+            @NonNull DispatchContext context,
+            @Nullable Executor executor
+    ) {
+        final boolean[][] accepted = new boolean[models.length][];
+        final int chunkCount = (models.length + BATCH_CHUNK_SIZE - 1) / BATCH_CHUNK_SIZE;
+        final AcceptanceTask task = new AcceptanceTask(models, candidates, accepted, context, chunkCount);
+        // the main thread is never blocked waiting for other threads
+        if (executor != null && chunkCount > 1 && !AUtils.isMainThread()) {
+            for (int chunk = 1; chunk < chunkCount; chunk++) {
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    break;
+                }
+            }
+        }
+        // the calling thread evaluates chunks not taken by the executor,
+        // so it waits only for chunks which are being evaluated by other threads
+        task.run();
+        task.await();
+        return accepted;
+    }
+
+    /**
+     * Evaluates acceptance of models by chunks, chunks are taken by threads which run the task
+     */
+    private static class AcceptanceTask implements Runnable {
+        private final Object[] mModels;
+        private final ActionPair[][] mCandidates;
+        private final boolean[][] mAccepted;
+        private final DispatchContext mContext;
+        private final int mChunkCount;
+        private final AtomicInteger mNextChunk = new AtomicInteger();
+        private final CountDownLatch mDone;
+        private final AtomicReference<RuntimeException> mFailure = new AtomicReference<>();
+
+        AcceptanceTask(Object[] models, ActionPair[][] candidates, boolean[][] accepted,
+                       DispatchContext context, int chunkCount) {
+            mModels = models;
+            mCandidates = candidates;
+            mAccepted = accepted;
+            mContext = context;
+            mChunkCount = chunkCount;
+            mDone = new CountDownLatch(chunkCount);
+        }
+
+        @Override
+        public void run() {
+            int chunk;
+            while ((chunk = mNextChunk.getAndIncrement()) < mChunkCount) {
+                try {
+                    final int from = chunk * BATCH_CHUNK_SIZE;
+                    final int to = Math.min(from + BATCH_CHUNK_SIZE, mModels.length);
+                    for (int i = from; i < to; i++) {
+                        final boolean[] accepted = new boolean[mCandidates[i].length];
+                        for (int j = 0; j < accepted.length; j++) {
+                            accepted[j] = mContext.isModelAccepted(mCandidates[i][j].action, mModels[i]);
+                        }
+                        mAccepted[i] = accepted;
+                    }
+                } catch (RuntimeException e) {
+                    mFailure.compareAndSet(null, e);
+                } finally {
+                    mDone.countDown();
+                }
+            }
+        }
+
+        void await() {
+            try {
+                mDone.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while evaluating batch", e);
+            }
+            if (mFailure.get() != null) throw mFailure.get();
+        }
+    }
+
+    private static class BatchGroup {
+        final String actionType;
+        final Action action;
+        final List<Object> models = new ArrayList<>();
+
+        BatchGroup(String actionType, Action action) {
+            this.actionType = actionType;
+            this.action = action;
+        }
+
+        static BatchGroup find(List<BatchGroup> groups, ActionPair actionPair) {
+            for (BatchGroup group : groups) {
+                if (group.action == actionPair.action) return group;
+            }
+            final BatchGroup group = new BatchGroup(actionPair.actionType, actionPair.action);
+            groups.add(group);
+            return group;
+        }
+    }
+
+    /**
+     * Returns actions for given action type, which can accept given model by its class.
+     * Actions which declare accepted model class by {@link ModelClassAction} are skipped for models
+     * of other classes, the rest actions are always returned. Resolved once for each model class
+     * (the hierarchy of supertypes and interfaces is checked only on first resolution).
+     *
+     * @param actionType The action type
+     * @param model      The model to handle
+     * @return actions which can accept given model,
+     * {@link Action#isModelAccepted(Object)} should be checked before fire them
+     */
+    @NonNull
+    protected ActionPair[] getCandidates(@NonNull String actionType, @Nullable Object model) {
+        final Class<?> modelClass = model == null ? Void.class : model.getClass();
+        Map<Class<?>, ActionPair[]> byModelClass = mCandidates.get(actionType);
+        ActionPair[] candidates = byModelClass == null ? null : byModelClass.get(modelClass);
+        if (candidates == null) {
+            final List<ActionPair> actionPairs = getActionsForActionType(actionType);
+            final List<ActionPair> accepted = new ArrayList<>(actionPairs.size());
+            for (ActionPair actionPair : actionPairs) {
+                final Class<?> acceptedModelClass = getAcceptedModelClass(actionPair.action);
+                if (acceptedModelClass == null
+                        || (model != null && acceptedModelClass.isAssignableFrom(modelClass))) {
+                    accepted.add(actionPair);
+                }
+            }
+            candidates = accepted.toArray(new ActionPair[accepted.size()]);
+            if (byModelClass == null) {
+                byModelClass = new ConcurrentHashMap<>();
+                mCandidates.put(actionType, byModelClass);
+            }
+            byModelClass.put(modelClass, candidates);
+        }
+        return candidates;
+    }
+
+    @Nullable
+    private static Class<?> getAcceptedModelClass(@NonNull Action action) {
+        return action instanceof ModelClassAction ? ((ModelClassAction) action).acceptedModelClass() : null;
     }
 
     private List<ActionPair> getActionsForActionType(String actionType) {
-        List<ActionPair> foundActions = new ArrayList<>(1);
+        final List<ActionPair> matchedActions = mActionTypeTrie.match(actionType);
+        List<ActionPair> foundActions = new ArrayList<>(matchedActions.size());
         boolean hasActionsForActionType = false;
-        for (ActionPair actionPair : mActions) {
-            if (actionPair.actionType == null || actionPair.actionType.equals(actionType)) {
+        for (ActionPair actionPair : matchedActions) {
+            if (ActionTypeTrie.isPattern(actionPair.actionType)) {
+                // fire action registered for a pattern with the concrete action type
+                foundActions.add(new ActionPair(actionType, actionPair.action));
+            } else {
                 foundActions.add(actionPair);
                 hasActionsForActionType |= actionPair.actionType != null;
             }
@@ -533,11 +1791,12 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         if (!hasActionsForActionType && mActionFactory != null && actionType != null) {
             Action[] actions = mActionFactory.provideActions(actionType);
             if (actions != null) {
+                final List<ActionPair> providedActions = new ArrayList<>(actions.length);
                 for (Action action : actions) {
-                    ActionPair actionPair = new ActionPair(actionType, action);
-                    foundActions.add(actionPair);
+                    providedActions.add(new ActionPair(actionType, action));
                 }
-                addActionsInternal(foundActions);
+                foundActions.addAll(providedActions);
+                addActionsInternal(providedActions);
             }
         }
         return foundActions;
@@ -545,7 +1804,13 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
 
     private synchronized void addActionsInternal(List<ActionPair> actions) {
         mActions.addAll(actions);
+        mCandidates.clear();
         for (ActionPair actionPair : actions) {
+            if (actionPair.actionType == null) {
+                mActionTypeTrie.addForAny(actionPair);
+            } else {
+                mActionTypeTrie.add(actionPair.actionType, actionPair);
+            }
             if (actionPair.action instanceof BaseAction) {
                 BaseAction baseAction = ((BaseAction) actionPair.action);
                 baseAction.addActionFiredListener(this);
@@ -553,44 +1818,37 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
                 baseAction.addActionDismissListener(this);
                 baseAction.addActionFireInterceptor(this);
             }
-        }
-    }
-
-    private boolean checkDebounceTimeElapsed(final String actionType) {
-        if (mDefaultDebounceTime > 0 || mActionDebounceTime != null) {
-            if (mDebounceHelper == null) {
-                synchronized (this) {
-                    if (mDebounceHelper == null) {
-                        mDebounceHelper = new DebounceHelper();
-                    }
-                }
-            }
-            Long debounceMillis = mActionDebounceTime == null ? null : mActionDebounceTime.get(actionType);
-            if (debounceMillis == null) debounceMillis = mDefaultDebounceTime;
-            return debounceMillis <= 0 || mDebounceHelper.checkTimeAndResetIfElapsed(actionType, debounceMillis);
-        }
-        return true;
-    }
-
-    private boolean interceptAction(@NonNull ActionParams actionParams) {
-        if (mActionInterceptors != null) {
-            for (ActionInterceptor interceptor : mActionInterceptors) {
-                if (interceptor.onInterceptAction(actionParams)) return true;
+            if (actionPair.action instanceof CompositeAction) {
+                ((CompositeAction) actionPair.action).setActionGate(mActionGate);
             }
         }
-        return false;
     }
 
-    private boolean interceptActionFire(
+    /**
+     * Deliver response of a retained request to the action of given action type which accepts the model,
+     * see {@link RequestRegistry}. The view of the original fire belongs to the previous handler,
+     * so it is not passed to the receiver.
+     *
+     * @return true if there was an action to receive the response
+     */
+    boolean deliverRetainedResponse(
             @NonNull ActionParams actionParams,
-            @Nullable String actionType,
-            @NonNull Action action
+            @Nullable String fireActionType,
+            @Nullable Object response,
+            @Nullable Throwable error
     ) {
-        if (mActionFireInterceptors != null) {
-            for (ActionFireInterceptor interceptor : mActionFireInterceptors) {
-                if (interceptor.onInterceptActionFire(actionParams, actionType, action)) {
-                    return true;
-                }
+        if (isScopeCancelled()) return false;
+        final ActionParams params = new ActionParams(
+                actionParams.appContext, null, actionParams.actionType, actionParams.model, actionParams.tag
+        );
+        final DispatchContext context = newDispatchContext(null, null);
+        for (ActionPair actionPair : getActionsForActionType(params.actionType)) {
+            if (actionPair.action instanceof RequestRegistry.Receiver
+                    && equals(actionPair.actionType, fireActionType)
+                    && context.isModelAccepted(actionPair.action, params.model)) {
+                final ActionArgs args = new ActionArgs(params, fireActionType, context);
+                ((RequestRegistry.Receiver) actionPair.action).onRetainedResponse(args, response, error);
+                return true;
             }
         }
         return false;
@@ -600,8 +1858,12 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
      * Call this method to force actions to cancel.
      * Usually, you may need to call this on Activity destroy to free resources which
      * can lead to memory leak and stop pending transaction or async calls.
+     * Fires scheduled by {@link #fireActionAt(ActionParams, long)} are cancelled too.
+     * Requests retained in {@link RequestRegistry} keep running, the handler is detached from it.
      */
     public final void cancelAll() {
+        if (mRequestRegistry != null) mRequestRegistry.detachHandler(this);
+        cancelScheduledActions();
         for (ActionPair actionPair : mActions) {
             if (actionPair.action instanceof Cancelable) {
                 ((Cancelable) actionPair.action).cancel();
@@ -609,6 +1871,42 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         }
     }
 
+    /**
+     * Call for initiate actions to fire after given delay, e.g. auto dismiss or retry.
+     * Gate, interceptors and acceptance are checked when the delay elapses.
+     *
+     * @param actionParams The action params
+     * @param delayMillis  The delay in milliseconds
+     * @return the handle to cancel the fire
+     */
+    @NonNull
+    public TimerWheel.Timeout fireActionAt(@NonNull final ActionParams actionParams, long delayMillis) {
+        final TimerWheel timerWheel;
+        synchronized (this) {
+            if (mTimerWheel == null) mTimerWheel = new TimerWheel();
+            timerWheel = mTimerWheel;
+        }
+        return timerWheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+                fireAction(actionParams);
+            }
+        }, delayMillis);
+    }
+
+    /**
+     * Cancel all fires scheduled by {@link #fireActionAt(ActionParams, long)}
+     *
+     * @return count of cancelled fires
+     */
+    public int cancelScheduledActions() {
+        final TimerWheel timerWheel;
+        synchronized (this) {
+            timerWheel = mTimerWheel;
+        }
+        return timerWheel == null ? 0 : timerWheel.cancelAll();
+    }
+
     /**
      * The Builder for configure action handler
      */
@@ -619,10 +1917,22 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         private Set<OnActionFiredListener> mActionFiredListeners;
         private Set<OnActionErrorListener> mActionErrorListeners;
         private Set<OnActionDismissListener> mActionDismissListeners;
-        private Set<ActionInterceptor> mActionInterceptors;
-        private Set<ActionFireInterceptor> mActionFireInterceptors;
+        private final InterceptorPipeline mInterceptorPipeline = new InterceptorPipeline();
+        private Set<OnActionEventListener> mActionEventListeners;
+        private ActionTypeIndex<OnActionFiredListener> mTypedActionFiredListeners;
+        private ActionTypeIndex<OnActionErrorListener> mTypedActionErrorListeners;
+        private ActionTypeIndex<OnActionDismissListener> mTypedActionDismissListeners;
         private Map<String, Long> mActionDebounceTime;
         private long mDefaultDebounceTime = 0;
+        private Set<String> mDisabledActionTypes;
+        private AcceptanceCache mAcceptanceCache;
+        private ActionScheduler mActionScheduler;
+        private ObserverDispatcher mObserverDispatcher;
+        private AdmissionController mAdmissionController;
+        private DispatchQueue mDispatchQueue;
+        private boolean mStrictThreadMode;
+        private CancellationScope mCancellationScope;
+        private RequestRegistry mRequestRegistry;
 
         public Builder() {
             mActions = new ArrayList<>();
@@ -655,7 +1965,8 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
         /**
          * Add an action to the action handler
          *
-         * @param actionType The type of action
+         * @param actionType The type of action. Can be hierarchical pattern like "cart.*" or "cart.**"
+         *                   (see {@link ActionTypeTrie}), or null to handle any action type
          * @param action     The action
          * @return the builder
          */
@@ -695,6 +2006,34 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
             return this;
         }
 
+        /**
+         * Add new callback to be invoked by given executor when an action is executed successfully.
+         *
+         * @param actionFiredListener new callback to be invoked when an action is executed successfully
+         * @param executor            The executor to call the callback with
+         * @return the builder
+         * @see ActionHandler#addActionFiredListener(OnActionFiredListener, Executor)
+         */
+        public Builder addActionFiredListener(final OnActionFiredListener actionFiredListener, final Executor executor) {
+            return addActionFiredListener(new AsyncActionListener(actionFiredListener, executor));
+        }
+
+        /**
+         * Add new callback to be invoked when an action of given types is executed successfully.
+         *
+         * @param actionFiredListener new callback to be invoked when an action is executed successfully
+         * @param actionTypes         The action types to subscribe to
+         * @return the builder
+         * @see ActionHandler#addActionFiredListener(OnActionFiredListener, String...)
+         */
+        public Builder addActionFiredListener(final OnActionFiredListener actionFiredListener, final String... actionTypes) {
+            if (mTypedActionFiredListeners == null) {
+                mTypedActionFiredListeners = new ActionTypeIndex<>();
+            }
+            mTypedActionFiredListeners.add(actionFiredListener, actionTypes);
+            return this;
+        }
+
         /**
          * Add new callback to be invoked when an action is executed with error
          * Note: It is called only for BaseActions.
@@ -711,6 +2050,34 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
             return this;
         }
 
+        /**
+         * Add new callback to be invoked by given executor when an action is executed with error.
+         *
+         * @param actionErrorListener new callback to be invoked when an action is executed with error
+         * @param executor            The executor to call the callback with
+         * @return the builder
+         * @see ActionHandler#addActionErrorListener(OnActionErrorListener, Executor)
+         */
+        public Builder addActionErrorListener(final OnActionErrorListener actionErrorListener, final Executor executor) {
+            return addActionErrorListener(new AsyncActionListener(actionErrorListener, executor));
+        }
+
+        /**
+         * Add new callback to be invoked when an action of given types is executed with error.
+         *
+         * @param actionErrorListener new callback to be invoked when an action is executed with error
+         * @param actionTypes         The action types to subscribe to
+         * @return the builder
+         * @see ActionHandler#addActionErrorListener(OnActionErrorListener, String...)
+         */
+        public Builder addActionErrorListener(final OnActionErrorListener actionErrorListener, final String... actionTypes) {
+            if (mTypedActionErrorListeners == null) {
+                mTypedActionErrorListeners = new ActionTypeIndex<>();
+            }
+            mTypedActionErrorListeners.add(actionErrorListener, actionTypes);
+            return this;
+        }
+
         /**
          * Add new callback to be invoked when an action is executed but dismissed
          * Note: It is called only for BaseActions.
@@ -727,6 +2094,34 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
             return this;
         }
 
+        /**
+         * Add new callback to be invoked by given executor when an action is executed but dismissed.
+         *
+         * @param listener new callback to be invoked when an action was dismissed
+         * @param executor The executor to call the callback with
+         * @return the builder
+         * @see ActionHandler#addActionDismissListener(OnActionDismissListener, Executor)
+         */
+        public Builder addActionDismissListener(final OnActionDismissListener listener, final Executor executor) {
+            return addActionDismissListener(new AsyncActionListener(listener, executor));
+        }
+
+        /**
+         * Add new callback to be invoked when an action of given types is executed but dismissed.
+         *
+         * @param listener    new callback to be invoked when an action was dismissed
+         * @param actionTypes The action types to subscribe to
+         * @return the builder
+         * @see ActionHandler#addActionDismissListener(OnActionDismissListener, String...)
+         */
+        public Builder addActionDismissListener(final OnActionDismissListener listener, final String... actionTypes) {
+            if (mTypedActionDismissListeners == null) {
+                mTypedActionDismissListeners = new ActionTypeIndex<>();
+            }
+            mTypedActionDismissListeners.add(listener, actionTypes);
+            return this;
+        }
+
         /**
          * Set callback to be invoked after a view with an action is clicked and before action handling started.
          * Can intercept an action to prevent it to be fired
@@ -748,10 +2143,36 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
          * @return the builder
          */
         public Builder addActionInterceptor(ActionInterceptor actionInterceptor) {
-            if (mActionInterceptors == null) {
-                mActionInterceptors = new HashSet<>(1);
+            return addActionInterceptor(actionInterceptor, InterceptorPipeline.PRIORITY_DEFAULT);
+        }
+
+        /**
+         * Add callback to be invoked after a view with an action of given types is clicked
+         * and before action type handling started.
+         *
+         * @param actionInterceptor The interceptor, which can prevent actions to be fired
+         * @param actionTypes       The action types to intercept
+         * @return the builder
+         * @see ActionHandler#addActionInterceptor(ActionInterceptor, String...)
+         */
+        public Builder addActionInterceptor(ActionInterceptor actionInterceptor, String... actionTypes) {
+            return addActionInterceptor(actionInterceptor, InterceptorPipeline.PRIORITY_DEFAULT, actionTypes);
+        }
+
+        /**
+         * Add callback with given priority to be invoked after a view with an action is clicked
+         * and before action type handling started.
+         *
+         * @param actionInterceptor The interceptor, which can prevent actions to be fired
+         * @param priority          The priority of the interceptor, interceptors with higher priority are called first
+         * @param actionTypes       The action types to intercept, or nothing to intercept any action type
+         * @return the builder
+         * @see ActionHandler#addActionInterceptor(ActionInterceptor, int, String...)
+         */
+        public Builder addActionInterceptor(ActionInterceptor actionInterceptor, int priority, String... actionTypes) {
+            if (actionInterceptor != null) {
+                mInterceptorPipeline.addInterceptor(actionInterceptor, priority, null, REASON_INTERCEPTED, actionTypes);
             }
-            mActionInterceptors.add(actionInterceptor);
             return this;
         }
 
@@ -763,10 +2184,49 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
          * @return the builder
          */
         public Builder addActionFireInterceptor(ActionFireInterceptor actionFireInterceptor) {
-            if (mActionFireInterceptors == null) {
-                mActionFireInterceptors = new HashSet<>(1);
+            return addActionFireInterceptor(actionFireInterceptor, InterceptorPipeline.PRIORITY_DEFAULT);
+        }
+
+        /**
+         * Add callback to be invoked before an action of given types will be fired.
+         *
+         * @param actionFireInterceptor The interceptor, which can prevent actions to be fired
+         * @param actionTypes           The action types to intercept
+         * @return the builder
+         * @see ActionHandler#addActionFireInterceptor(ActionFireInterceptor, String...)
+         */
+        public Builder addActionFireInterceptor(ActionFireInterceptor actionFireInterceptor, String... actionTypes) {
+            return addActionFireInterceptor(actionFireInterceptor, InterceptorPipeline.PRIORITY_DEFAULT, actionTypes);
+        }
+
+        /**
+         * Add callback with given priority to be invoked before an action will be fired.
+         *
+         * @param actionFireInterceptor The interceptor, which can prevent actions to be fired
+         * @param priority              The priority of the interceptor, interceptors with higher priority are called first
+         * @param actionTypes           The action types to intercept, or nothing to intercept any action type
+         * @return the builder
+         * @see ActionHandler#addActionFireInterceptor(ActionFireInterceptor, int, String...)
+         */
+        public Builder addActionFireInterceptor(ActionFireInterceptor actionFireInterceptor, int priority, String... actionTypes) {
+            if (actionFireInterceptor != null) {
+                mInterceptorPipeline.addFireInterceptor(actionFireInterceptor, priority, null, REASON_FIRE_INTERCEPTED, actionTypes);
+            }
+            return this;
+        }
+
+        /**
+         * Add new callback to be invoked for any event of the action lifecycle:
+         * intercepted, fired, error or dismiss.
+         *
+         * @param listener new callback to be invoked for any action event
+         * @return the builder
+         */
+        public Builder addActionEventListener(final OnActionEventListener listener) {
+            if (mActionEventListeners == null) {
+                mActionEventListeners = new HashSet<>(1);
             }
-            mActionFireInterceptors.add(actionFireInterceptor);
+            mActionEventListeners.add(listener);
             return this;
         }
 
@@ -786,6 +2246,23 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
             return this;
         }
 
+        /**
+         * Add new action callback, which is invoked only for given action types.
+         * One method for adding all listeners and interceptors.
+         *
+         * @param actionCallback The action callback
+         * @param actionTypes    The action types to subscribe to
+         * @return the builder
+         */
+        public Builder addCallback(ActionCallback actionCallback, String... actionTypes) {
+            addActionInterceptor(actionCallback, actionTypes);
+            addActionFireInterceptor(actionCallback, actionTypes);
+            addActionFiredListener(actionCallback, actionTypes);
+            addActionDismissListener(actionCallback, actionTypes);
+            addActionErrorListener(actionCallback, actionTypes);
+            return this;
+        }
+
         /**
          * Set default debounce time for distinct click actions
          *
@@ -816,10 +2293,201 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
             return this;
         }
 
+        /**
+         * Limit count of fires of action types. Each action type has own limit.
+         * Actions exceeded the limit are intercepted with reason {@link #REASON_RATE_LIMIT}.
+         *
+         * @param maxActions   Max count of actions allowed per period
+         * @param periodMillis The period in milliseconds
+         * @param actionTypes  The action types to limit, or nothing to limit any action type
+         * @return the builder
+         */
+        public Builder setRateLimit(int maxActions, long periodMillis, String... actionTypes) {
+            mInterceptorPipeline.addInterceptor(
+                    new RateLimitInterceptor(maxActions, periodMillis),
+                    InterceptorPipeline.PRIORITY_RATE_LIMIT,
+                    "RateLimit",
+                    REASON_RATE_LIMIT,
+                    actionTypes
+            );
+            return this;
+        }
+
+        /**
+         * Disable given action types initially. Can be changed later by {@link ActionHandler#getActionGate()}.
+         *
+         * @param actionTypes The action types to disable
+         * @return the builder
+         */
+        public Builder disableActionTypes(String... actionTypes) {
+            if (mDisabledActionTypes == null) {
+                mDisabledActionTypes = new HashSet<>(actionTypes.length);
+            }
+            mDisabledActionTypes.addAll(Arrays.asList(actionTypes));
+            return this;
+        }
+
+        /**
+         * Set the cache to share results of {@link Action#isModelAccepted(Object)} between dispatches.
+         *
+         * @param acceptanceCache The cache
+         * @return the builder
+         * @see ActionHandler#setAcceptanceCache(AcceptanceCache)
+         */
+        public Builder setAcceptanceCache(AcceptanceCache acceptanceCache) {
+            mAcceptanceCache = acceptanceCache;
+            return this;
+        }
+
+        /**
+         * Set the scheduler to fire actions on the threads they declare.
+         *
+         * @param actionScheduler The scheduler
+         * @return the builder
+         * @see ActionHandler#setActionScheduler(ActionScheduler)
+         */
+        public Builder setActionScheduler(ActionScheduler actionScheduler) {
+            mActionScheduler = actionScheduler;
+            return this;
+        }
+
+        /**
+         * Add observer action for any action type, fired after primary actions in given mode.
+         *
+         * @param action The observer action, e.g. tracking
+         * @param mode   How the action should be fired
+         * @return the builder
+         * @see ActionHandler#addObserverAction(String, Action, ObserverDispatcher.Mode)
+         */
+        public Builder addObserverAction(Action action, ObserverDispatcher.Mode mode) {
+            return addObserverAction(null, action, mode);
+        }
+
+        /**
+         * Add observer action for given action type, fired after primary actions in given mode.
+         *
+         * @param actionType The action type to observe or null to observe any action type
+         * @param action     The observer action, e.g. tracking
+         * @param mode       How the action should be fired
+         * @return the builder
+         */
+        public Builder addObserverAction(String actionType, Action action, ObserverDispatcher.Mode mode) {
+            if (mObserverDispatcher == null) mObserverDispatcher = new ObserverDispatcher();
+            mObserverDispatcher.add(actionType, action, mode);
+            return this;
+        }
+
+        /**
+         * Set the dispatcher of observer actions, e.g. with custom capacity or background executor.
+         * Observer actions added to the builder before are lost.
+         *
+         * @param observerDispatcher The dispatcher
+         * @return the builder
+         */
+        public Builder setObserverDispatcher(ObserverDispatcher observerDispatcher) {
+            mObserverDispatcher = observerDispatcher;
+            return this;
+        }
+
+        /**
+         * Set the controller to defer or shed low priority action types under main thread load.
+         *
+         * @param admissionController The controller
+         * @return the builder
+         * @see ActionHandler#setAdmissionController(AdmissionController)
+         */
+        public Builder setAdmissionController(AdmissionController admissionController) {
+            mAdmissionController = admissionController;
+            return this;
+        }
+
+        /**
+         * Enable queued mode with given bounded queue.
+         *
+         * @param dispatchQueue The queue
+         * @return the builder
+         * @see ActionHandler#setDispatchQueue(DispatchQueue)
+         */
+        public Builder setDispatchQueue(DispatchQueue dispatchQueue) {
+            mDispatchQueue = dispatchQueue;
+            return this;
+        }
+
+        /**
+         * Enable strict thread mode.
+         *
+         * @param strictThreadMode true to log actions fired on a thread they don't declare
+         * @return the builder
+         * @see ActionHandler#setStrictThreadMode(boolean)
+         */
+        public Builder setStrictThreadMode(boolean strictThreadMode) {
+            mStrictThreadMode = strictThreadMode;
+            return this;
+        }
+
+        /**
+         * Bind the handler to the cancellation scope.
+         *
+         * @param cancellationScope The scope
+         * @return the builder
+         * @see ActionHandler#setCancellationScope(CancellationScope)
+         */
+        public Builder setCancellationScope(CancellationScope cancellationScope) {
+            mCancellationScope = cancellationScope;
+            return this;
+        }
+
+        /**
+         * Bind the handler to the lifecycle, see {@link ActionHandler#bindToLifecycle(LifecycleOwner)}.
+         *
+         * @param owner The owner of lifecycle, e.g. activity or fragment
+         * @return the builder
+         */
+        public Builder bindToLifecycle(LifecycleOwner owner) {
+            return setCancellationScope(new LifecycleCancellationScope(owner));
+        }
+
+        /**
+         * Attach the handler to the registry of requests retained across configuration changes.
+         *
+         * @param requestRegistry The registry
+         * @return the builder
+         * @see ActionHandler#setRequestRegistry(RequestRegistry)
+         */
+        public Builder setRequestRegistry(RequestRegistry requestRegistry) {
+            mRequestRegistry = requestRegistry;
+            return this;
+        }
+
         public ActionHandler build() {
             final ActionHandler actionHandler = new ActionHandler(mActions);
-            actionHandler.mDefaultDebounceTime = this.mDefaultDebounceTime;
-            actionHandler.mActionDebounceTime = this.mActionDebounceTime;
+            if (mDisabledActionTypes != null) {
+                actionHandler.mActionGate.setDisabled(mDisabledActionTypes);
+            }
+            // every handler gets its own pipeline and debounce state, so building twice does not stack stages
+            final InterceptorPipeline pipeline = mInterceptorPipeline.copy();
+            if (mDefaultDebounceTime > 0 || mActionDebounceTime != null) {
+                pipeline.addInterceptor(
+                        new DebounceInterceptor(mDefaultDebounceTime, mActionDebounceTime),
+                        InterceptorPipeline.PRIORITY_DEBOUNCE,
+                        "Debounce",
+                        REASON_DEBOUNCE
+                );
+            }
+            for (InterceptorPipeline.Stage stage : pipeline.getStages()) {
+                if (stage.interceptor instanceof DebounceInterceptor
+                        || stage.interceptor instanceof RateLimitInterceptor) {
+                    actionHandler.mBuiltInInterceptors.add((ActionInterceptor) stage.interceptor);
+                }
+            }
+            actionHandler.mInterceptorPipeline = pipeline;
+            actionHandler.mAcceptanceCache = mAcceptanceCache;
+            actionHandler.mActionScheduler = mActionScheduler;
+            actionHandler.mObserverDispatcher = mObserverDispatcher;
+            actionHandler.mAdmissionController = mAdmissionController;
+            actionHandler.mStrictThreadMode = mStrictThreadMode;
+            actionHandler.setCancellationScope(mCancellationScope);
+            actionHandler.setDispatchQueue(mDispatchQueue);
             if (mActionFactory != null) {
                 actionHandler.mActionFactory = mActionFactory;
             }
@@ -832,14 +2500,87 @@ public class ActionHandler implements ActionClickListener, OnActionFiredListener
             if (mActionDismissListeners != null) {
                 actionHandler.mOnActionDismissListeners = mActionDismissListeners;
             }
-            if (mActionInterceptors != null && mActionInterceptors.size() > 0) {
-                actionHandler.mActionInterceptors = mActionInterceptors;
-            }
-            if (mActionFireInterceptors != null && mActionFireInterceptors.size() > 0) {
-                actionHandler.mActionFireInterceptors = mActionFireInterceptors;
+            if (mActionEventListeners != null) {
+                actionHandler.mOnActionEventListeners.addAll(mActionEventListeners);
             }
+            actionHandler.mTypedActionFiredListeners = mTypedActionFiredListeners;
+            actionHandler.mTypedActionErrorListeners = mTypedActionErrorListeners;
+            actionHandler.mTypedActionDismissListeners = mTypedActionDismissListeners;
+            actionHandler.setRequestRegistry(mRequestRegistry);
             return actionHandler;
         }
     }
 
+    /**
+     * Set of action fire interceptors backed by {@link #mInterceptorPipeline}
+     */
+    private class FireInterceptorSet extends AbstractSet<ActionFireInterceptor> {
+
+        @NonNull
+        private List<ActionFireInterceptor> snapshot() {
+            final List<ActionFireInterceptor> interceptors = new ArrayList<>();
+            for (InterceptorPipeline.Stage stage : mInterceptorPipeline.getStages()) {
+                if (stage.fireInterceptor && !interceptors.contains(stage.interceptor)) {
+                    interceptors.add((ActionFireInterceptor) stage.interceptor);
+                }
+            }
+            return interceptors;
+        }
+
+        @Override
+        public boolean add(ActionFireInterceptor interceptor) {
+            if (contains(interceptor)) return false;
+            addActionFireInterceptor(interceptor);
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object interceptor) {
+            if (!contains(interceptor)) return false;
+            removeActionFireInterceptor((ActionFireInterceptor) interceptor);
+            return true;
+        }
+
+        @Override
+        public boolean contains(Object interceptor) {
+            return snapshot().contains(interceptor);
+        }
+
+        @Override
+        public void clear() {
+            removeAllActionFireInterceptors();
+        }
+
+        @Override
+        public int size() {
+            return snapshot().size();
+        }
+
+        @NonNull
+        @Override
+        public Iterator<ActionFireInterceptor> iterator() {
+            final Iterator<ActionFireInterceptor> iterator = snapshot().iterator();
+            return new Iterator<ActionFireInterceptor>() {
+                private ActionFireInterceptor mLast;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public ActionFireInterceptor next() {
+                    mLast = iterator.next();
+                    return mLast;
+                }
+
+                @Override
+                public void remove() {
+                    if (mLast == null) throw new IllegalStateException();
+                    removeActionFireInterceptor(mLast);
+                    mLast = null;
+                }
+            };
+        }
+    }
 }
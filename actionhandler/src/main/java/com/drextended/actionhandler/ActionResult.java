@@ -0,0 +1,225 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Handle of single dispatch started by {@link ActionHandler#fireActionForResult(ActionParams)}.
+ * Completed by the first fired, error, dismiss or intercepted event of an action fired for the action type
+ * in that dispatch; actions added for any action type (null type) don't complete it.
+ * If all fired actions can't notify events (are not {@link com.drextended.actionhandler.action.BaseAction}s),
+ * it is completed as fired with null result right after the dispatch.
+ * The event is matched to the dispatch by its {@link DispatchContext}, no global listener is involved.
+ * Dispatches dropped by the handler complete the result too: fires made after the cancellation scope
+ * was cancelled are intercepted with {@link ActionHandler#REASON_CANCELLED}, fires dropped from
+ * {@link DispatchQueue} and runs stopped by {@link com.drextended.actionhandler.action.Cancelable#cancel()}
+ * are dismissed with the reason of the drop. Events are still delivered to the result when the scope
+ * is cancelled, only listeners are not notified then. So the result stays pending only while
+ * a fired action hasn't notified its event yet.
+ * <p>
+ * Can be used as {@link Future}: error is thrown as {@link ExecutionException},
+ * dismiss and interception as {@link CancellationException}. Don't block the main thread
+ * waiting for actions which complete on the main thread, use {@link #setCallback(Callback)} instead.
+ */
+public class ActionResult implements Future<Object> {
+
+    public enum Status {
+        PENDING,
+        FIRED,
+        ERROR,
+        DISMISSED,
+        INTERCEPTED
+    }
+
+    /**
+     * Callback to be invoked when the dispatch completes
+     */
+    public interface Callback {
+
+        /**
+         * Called once on the thread of the completing event,
+         * or immediately if the result was completed when the callback was set.
+         *
+         * @param result The completed result
+         */
+        void onComplete(@NonNull ActionResult result);
+    }
+
+    @NonNull
+    public final ActionParams params;
+
+    private final CountDownLatch mLatch = new CountDownLatch(1);
+    private volatile Status mStatus = Status.PENDING;
+    @Nullable
+    private ActionArgs mArgs;
+    @Nullable
+    private Object mResult;
+    @Nullable
+    private Throwable mError;
+    @Nullable
+    private String mReason;
+    @Nullable
+    private Callback mCallback;
+
+    ActionResult(@NonNull ActionParams params) {
+        this.params = params;
+    }
+
+    /**
+     * Set callback to be invoked when the dispatch completes. Replaces previous callback.
+     *
+     * @param callback The callback
+     * @return this result
+     */
+    @NonNull
+    public ActionResult setCallback(@Nullable Callback callback) {
+        synchronized (this) {
+            if (mStatus == Status.PENDING) {
+                mCallback = callback;
+                return this;
+            }
+        }
+        if (callback != null) callback.onComplete(this);
+        return this;
+    }
+
+    /**
+     * @return the status of the dispatch
+     */
+    @NonNull
+    public Status getStatus() {
+        return mStatus;
+    }
+
+    /**
+     * @return the args of the action which completed the dispatch, or null if not completed
+     */
+    @Nullable
+    public synchronized ActionArgs getArgs() {
+        return mArgs;
+    }
+
+    /**
+     * @return the result of the fired action
+     */
+    @Nullable
+    public synchronized Object getResult() {
+        return mResult;
+    }
+
+    /**
+     * @return the error if completed with {@link Status#ERROR}
+     */
+    @Nullable
+    public synchronized Throwable getError() {
+        return mError;
+    }
+
+    /**
+     * @return the reason if completed with {@link Status#DISMISSED} or {@link Status#INTERCEPTED}
+     */
+    @Nullable
+    public synchronized String getReason() {
+        return mReason;
+    }
+
+    /**
+     * Complete the result, if not completed yet
+     *
+     * @return true if the result was completed by this call
+     */
+    boolean complete(
+            @NonNull Status status,
+            @Nullable ActionArgs args,
+            @Nullable Object result,
+            @Nullable Throwable error,
+            @Nullable String reason
+    ) {
+        final Callback callback;
+        synchronized (this) {
+            if (mStatus != Status.PENDING) return false;
+            mArgs = args;
+            mResult = result;
+            mError = error;
+            mReason = reason;
+            mStatus = status;
+            callback = mCallback;
+            mCallback = null;
+        }
+        mLatch.countDown();
+        if (callback != null) callback.onComplete(this);
+        return true;
+    }
+
+    /**
+     * Actions can't be cancelled through the result, use {@link com.drextended.actionhandler.action.Cancelable}
+     *
+     * @return false
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    /**
+     * @return true if the dispatch was dismissed or intercepted
+     */
+    @Override
+    public boolean isCancelled() {
+        final Status status = mStatus;
+        return status == Status.DISMISSED || status == Status.INTERCEPTED;
+    }
+
+    @Override
+    public boolean isDone() {
+        return mStatus != Status.PENDING;
+    }
+
+    @Override
+    public Object get() throws InterruptedException, ExecutionException {
+        mLatch.await();
+        return report();
+    }
+
+    @Override
+    public Object get(long timeout, @NonNull TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        if (!mLatch.await(timeout, unit)) throw new TimeoutException();
+        return report();
+    }
+
+    private synchronized Object report() throws ExecutionException {
+        switch (mStatus) {
+            case ERROR:
+                throw new ExecutionException(mError);
+            case DISMISSED:
+            case INTERCEPTED:
+                throw new CancellationException(mReason);
+            default:
+                return mResult;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Bundle;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Router of URIs (deep links, push payloads, notification taps) to action types of {@link ActionHandler}.
+ * Routes are patterns like {@code app://order/{id}/cancel}: scheme, host and path segments
+ * are matched literally, a segment in braces matches any value and is put to the payload
+ * of {@link ActionParams} by its name. Query parameters are put to the payload too.
+ * <p>
+ * Patterns are compiled into a trie of segments. Literal segments are preferred over parameters,
+ * a parameter branch is tried only if the literal one does not lead to a route. Matching costs
+ * O(number of segments) if no parameter segment shares its position with a literal one; otherwise
+ * failed literal branches are backtracked, and each node of the trie is visited at most once,
+ * so the worst case is bounded by the total count of segments of all routes.
+ * Matched action type is fired by {@link ActionHandler#fireAction(ActionParams)},
+ * so actions added to the handler or provided by its {@link com.drextended.actionhandler.action.ActionFactory} handle it.
+ */
+public class ActionRouter {
+
+    /**
+     * Key of the routed {@link Uri} in the payload of {@link ActionParams}
+     */
+    public static final String PAYLOAD_URI = "ActionRouter.uri";
+
+    @NonNull
+    private final ActionHandler mActionHandler;
+
+    private final Node mRoot = new Node();
+
+    /**
+     * @param actionHandler The handler to fire routed action types
+     */
+    public ActionRouter(@NonNull ActionHandler actionHandler) {
+        mActionHandler = actionHandler;
+    }
+
+    /**
+     * Add route for given URI pattern
+     *
+     * @param uriPattern The URI pattern, like {@code app://order/{id}/cancel}
+     * @param actionType The action type to fire for matched URIs
+     * @return this router
+     */
+    @NonNull
+    public synchronized ActionRouter addRoute(@NonNull String uriPattern, @NonNull String actionType) {
+        final List<String> segments = getSegments(Uri.parse(uriPattern));
+        final List<String> paramNames = new ArrayList<>(1);
+        Node node = mRoot;
+        for (String segment : segments) {
+            if (segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}') {
+                paramNames.add(segment.substring(1, segment.length() - 1));
+                if (node.paramChild == null) node.paramChild = new Node();
+                node = node.paramChild;
+            } else {
+                if (node.children == null) node.children = new HashMap<>(2);
+                Node child = node.children.get(segment);
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(segment, child);
+                }
+                node = child;
+            }
+        }
+        if (node.route != null) {
+            throw new IllegalArgumentException("Route " + uriPattern + " conflicts with " + node.route.pattern);
+        }
+        node.route = new Route(uriPattern, actionType, paramNames.toArray(new String[paramNames.size()]));
+        return this;
+    }
+
+    /**
+     * Returns action type routed for given URI
+     *
+     * @param uri The URI
+     * @return the action type or null if no route matches the URI
+     */
+    @Nullable
+    public String getActionType(@NonNull Uri uri) {
+        final Match match = match(getSegments(uri));
+        return match == null ? null : match.route.actionType;
+    }
+
+    /**
+     * Fire action type routed for given URI. The URI is used as a model.
+     *
+     * @param context The Context
+     * @param uri     The URI
+     * @return true if a route matches the URI and its action type was fired
+     */
+    public boolean route(@NonNull Context context, @NonNull Uri uri) {
+        return route(context, null, uri, uri, null);
+    }
+
+    /**
+     * Fire action type routed for given URI.
+     *
+     * @param context   The Context
+     * @param view      The view that was clicked, if any
+     * @param uri       The URI
+     * @param model     The model to handle
+     * @param actionTag The tag, which can be used to distinct click source or etc.
+     * @return true if a route matches the URI and its action type was fired
+     */
+    public boolean route(
+            @NonNull Context context,
+            @Nullable View view,
+            @NonNull Uri uri,
+            @Nullable Object model,
+            @Nullable Object actionTag
+    ) {
+        final List<String> segments = getSegments(uri);
+        final Match match = match(segments);
+        if (match == null) return false;
+        final ActionParams params = new ActionParams(context, view, match.route.actionType, model, actionTag);
+        final Map<Object, Object> payload = params.requirePayload();
+        payload.put(PAYLOAD_URI, uri);
+        for (String name : uri.getQueryParameterNames()) {
+            payload.put(name, uri.getQueryParameter(name));
+        }
+        for (int i = 0; i < match.route.paramNames.length; i++) {
+            payload.put(match.route.paramNames[i], segments.get(match.paramIndices[i]));
+        }
+        mActionHandler.fireAction(params);
+        return true;
+    }
+
+    /**
+     * Copy route parameters from the payload to a bundle,
+     * e.g. to put them as extras to an intent of {@link com.drextended.actionhandler.action.IntentAction}.
+     *
+     * @param params The action params of routed action
+     * @return bundle with string parameters of the route
+     */
+    @NonNull
+    public static Bundle getRouteExtras(@NonNull ActionParams params) {
+        final Bundle extras = new Bundle();
+        final Map<Object, Object> payload = params.getPayload();
+        if (payload != null) {
+            for (Map.Entry<Object, Object> entry : payload.entrySet()) {
+                if (entry.getKey() instanceof String && entry.getValue() instanceof String) {
+                    extras.putString((String) entry.getKey(), (String) entry.getValue());
+                }
+            }
+        }
+        return extras;
+    }
+
+    @Nullable
+    private synchronized Match match(@NonNull List<String> segments) {
+        final int[] paramIndices = new int[segments.size()];
+        return match(mRoot, segments, 0, paramIndices, 0);
+    }
+
+    // Literal segments are tried first, parameter is tried only if literal branch does not match
+    @Nullable
+    private static Match match(Node node, List<String> segments, int index, int[] paramIndices, int paramCount) {
+        if (index == segments.size()) {
+            return node.route == null ? null : new Match(node.route, copyOf(paramIndices, paramCount));
+        }
+        if (node.children != null) {
+            final Node child = node.children.get(segments.get(index));
+            if (child != null) {
+                final Match match = match(child, segments, index + 1, paramIndices, paramCount);
+                if (match != null) return match;
+            }
+        }
+        if (node.paramChild != null) {
+            paramIndices[paramCount] = index;
+            return match(node.paramChild, segments, index + 1, paramIndices, paramCount + 1);
+        }
+        return null;
+    }
+
+    private static int[] copyOf(int[] array, int length) {
+        final int[] copy = new int[length];
+        System.arraycopy(array, 0, copy, 0, length);
+        return copy;
+    }
+
+    @NonNull
+    private static List<String> getSegments(@NonNull Uri uri) {
+        final List<String> pathSegments = uri.getPathSegments();
+        final List<String> segments = new ArrayList<>(pathSegments.size() + 2);
+        segments.add(uri.getScheme() != null ? uri.getScheme() : "");
+        segments.add(uri.getHost() != null ? uri.getHost() : "");
+        segments.addAll(pathSegments != null ? pathSegments : Collections.<String>emptyList());
+        return segments;
+    }
+
+    private static class Node {
+        @Nullable
+        Map<String, Node> children;
+        @Nullable
+        Node paramChild;
+        @Nullable
+        Route route;
+    }
+
+    private static class Route {
+        final String pattern;
+        final String actionType;
+        final String[] paramNames;
+
+        Route(String pattern, String actionType, String[] paramNames) {
+            this.pattern = pattern;
+            this.actionType = actionType;
+            this.paramNames = paramNames;
+        }
+    }
+
+    private static class Match {
+        final Route route;
+        final int[] paramIndices;
+
+        Match(Route route, int[] paramIndices) {
+            this.route = route;
+            this.paramIndices = paramIndices;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+import android.os.Process;
+import android.util.Log;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.action.Action;
+import com.drextended.actionhandler.action.BaseAction;
+import com.drextended.actionhandler.action.ScheduledAction;
+import com.drextended.actionhandler.util.AUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fires actions on the thread they declare by {@link ScheduledAction#getActionThread()}:
+ * on the calling thread, on the main thread immediately or after the next frame,
+ * or on a background pool with high, normal or low priority. Actions which don't declare a thread are fired on the main thread immediately.
+ * <p>
+ * Actions fired for one action type on one thread are kept in order: each pair of action type and
+ * {@link ActionThread} has a serial lane, an action is fired only after {@link Action#onFireAction}
+ * of the previous one in its lane returned. So a main thread action is never delayed by a background
+ * action of the same action type.
+ * Errors thrown by background actions are notified as error events of {@link BaseAction}s.
+ * After {@link #shutdown()} actions are not fired, they are notified with {@link RejectedExecutionException}.
+ */
+public class ActionScheduler {
+
+    private static final String TAG = "ActionScheduler";
+
+    private final ThreadPoolExecutor mExecutor;
+
+    // Serial lanes by action type and thread, removed when empty
+    private final Map<LaneKey, Lane> mLanes = new HashMap<>();
+
+    private volatile boolean mShutdown;
+
+    // Order of background tasks with equal priority
+    private final AtomicLong mSequence = new AtomicLong();
+
+    /**
+     * Creates scheduler with background pool of size depending on count of processors
+     */
+    public ActionScheduler() {
+        this(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    /**
+     * @param poolSize The count of background threads
+     */
+    public ActionScheduler(int poolSize) {
+        if (poolSize <= 0) throw new IllegalArgumentException("poolSize should be positive");
+        final AtomicInteger count = new AtomicInteger();
+        mExecutor = new ThreadPoolExecutor(poolSize, poolSize, 30, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                return new Thread(runnable, TAG + "-" + count.incrementAndGet());
+            }
+        });
+        mExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the thread declared by the action
+     *
+     * @param action The action
+     * @return the thread the action should be fired on
+     */
+    @NonNull
+    public static ActionThread getActionThread(@NonNull Action action) {
+        return action instanceof ScheduledAction
+                ? ((ScheduledAction) action).getActionThread()
+                : ActionThread.MAIN_IMMEDIATE;
+    }
+
+    /**
+     * Fire the action on its thread, after actions scheduled before for the same action type.
+     * Should be called on the main thread.
+     *
+     * @param actionType The action type, which defines the lane
+     * @param action     The action to fire
+     * @param args       The args to fire the action with
+     */
+    public void schedule(@Nullable String actionType, @NonNull Action action, @NonNull ActionArgs args) {
+        schedule(actionType, action, args, null);
+    }
+
+    /**
+     * Fire the action on its thread, see {@link #schedule(String, Action, ActionArgs)}
+     *
+     * @param onFinished The callback to run on the thread of the action after it was fired, or null
+     */
+    void schedule(
+            @Nullable String actionType,
+            @NonNull Action action,
+            @NonNull ActionArgs args,
+            @Nullable Runnable onFinished
+    ) {
+        final Task task = new Task(actionType, action, args, getActionThread(action), mSequence.getAndIncrement(),
+                onFinished);
+        synchronized (mLanes) {
+            if (!mShutdown) {
+                final Lane lane = mLanes.get(task.laneKey);
+                if (lane != null) {
+                    lane.tasks.add(task);
+                    return;
+                }
+                mLanes.put(task.laneKey, new Lane());
+            }
+        }
+        if (mShutdown) {
+            task.reject();
+        } else {
+            start(task);
+        }
+    }
+
+    /**
+     * Stops background threads. Scheduled actions which are not fired yet and actions scheduled later
+     * are not fired, they are notified with {@link RejectedExecutionException}.
+     */
+    public void shutdown() {
+        final List<Task> rejected = new ArrayList<>();
+        synchronized (mLanes) {
+            mShutdown = true;
+            for (Lane lane : mLanes.values()) {
+                rejected.addAll(lane.tasks);
+            }
+            mLanes.clear();
+        }
+        for (Runnable runnable : mExecutor.shutdownNow()) {
+            rejected.add((Task) runnable);
+        }
+        for (Task task : rejected) {
+            task.reject();
+        }
+    }
+
+    /**
+     * @return true if {@link #shutdown()} was called
+     */
+    public boolean isShutdown() {
+        return mShutdown;
+    }
+
+    private void start(@NonNull final Task task) {
+        switch (task.thread) {
+            case ANY:
+                task.run();
+                break;
+            case MAIN_IMMEDIATE:
+                AUtils.runOnMainThread(task);
+                break;
+            case MAIN_AFTER_FRAME:
+                AUtils.runOnMainThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Choreographer.getInstance().postFrameCallback(new Choreographer.FrameCallback() {
+                            @Override
+                            public void doFrame(long frameTimeNanos) {
+                                // runs after traversals of this frame
+                                AUtils.postOnMainThread(task);
+                            }
+                        });
+                    }
+                });
+                break;
+            default:
+                try {
+                    mExecutor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    task.reject();
+                    onTaskFinished(task);
+                }
+                break;
+        }
+    }
+
+    private void onTaskFinished(@NonNull Task task) {
+        final Task next;
+        synchronized (mLanes) {
+            final Lane lane = mLanes.get(task.laneKey);
+            next = lane == null ? null : lane.tasks.poll();
+            if (lane != null && next == null) mLanes.remove(task.laneKey);
+        }
+        if (next != null) start(next);
+    }
+
+    private static class Lane {
+        final ArrayDeque<Task> tasks = new ArrayDeque<>(2);
+    }
+
+    private static class LaneKey {
+        @Nullable
+        final String actionType;
+        @NonNull
+        final ActionThread thread;
+
+        LaneKey(@Nullable String actionType, @NonNull ActionThread thread) {
+            this.actionType = actionType;
+            this.thread = thread;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LaneKey)) return false;
+            final LaneKey that = (LaneKey) o;
+            return thread == that.thread
+                    && (actionType == null ? that.actionType == null : actionType.equals(that.actionType));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * thread.hashCode() + (actionType == null ? 0 : actionType.hashCode());
+        }
+    }
+
+    private class Task implements Runnable, Comparable<Task> {
+        final String actionType;
+        final Action action;
+        final ActionArgs args;
+        final ActionThread thread;
+        final long sequence;
+        @Nullable
+        final Runnable onFinished;
+        final LaneKey laneKey;
+
+        Task(
+                String actionType,
+                Action action,
+                ActionArgs args,
+                ActionThread thread,
+                long sequence,
+                @Nullable Runnable onFinished
+        ) {
+            this.actionType = actionType;
+            this.action = action;
+            this.args = args;
+            this.thread = thread;
+            this.sequence = sequence;
+            this.onFinished = onFinished;
+            this.laneKey = new LaneKey(actionType, thread);
+        }
+
+        /**
+         * Notify that the action is not fired because the scheduler is shut down
+         */
+        void reject() {
+            try {
+                final RejectedExecutionException error =
+                        new RejectedExecutionException("ActionScheduler is shut down, action is not fired: " + actionType);
+                if (action instanceof BaseAction) {
+                    ((BaseAction) action).notifyOnActionError(args, error);
+                } else {
+                    Log.w(TAG, error.getMessage());
+                }
+            } finally {
+                if (onFinished != null) onFinished.run();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                fire();
+            } finally {
+                if (onFinished != null) onFinished.run();
+            }
+        }
+
+        private void fire() {
+            if (!thread.isBackground()) {
+                try {
+                    action.onFireAction(args);
+                } finally {
+                    onTaskFinished(this);
+                }
+                return;
+            }
+            Process.setThreadPriority(thread == ActionThread.BACKGROUND_LOW
+                    ? Process.THREAD_PRIORITY_LOWEST
+                    : Process.THREAD_PRIORITY_BACKGROUND);
+            try {
+                action.onFireAction(args);
+            } catch (RuntimeException e) {
+                if (action instanceof BaseAction) {
+                    ((BaseAction) action).notifyOnActionError(args, e);
+                } else {
+                    Log.e(TAG, "Action failed: " + actionType, e);
+                }
+            } finally {
+                onTaskFinished(this);
+            }
+        }
+
+        @Override
+        public int compareTo(@NonNull Task other) {
+            if (thread != other.thread) return thread.compareTo(other.thread);
+            return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+/**
+ * Declares how an action should be fired by {@link ActionScheduler}
+ */
+public enum ActionThread {
+
+    /**
+     * On the thread the action is fired on, the action does not touch views and does not block
+     */
+    ANY,
+
+    /**
+     * On the main thread, immediately (default for actions which don't declare a thread)
+     */
+    MAIN_IMMEDIATE,
+
+    /**
+     * On the main thread, after the next frame is drawn, so the visible response to the click goes first
+     */
+    MAIN_AFTER_FRAME,
+
+    /**
+     * On a background thread, before normal and low priority actions
+     */
+    BACKGROUND_HIGH,
+
+    /**
+     * On a background thread
+     */
+    BACKGROUND_NORMAL,
+
+    /**
+     * On a background thread, after other background actions, with low thread priority
+     */
+    BACKGROUND_LOW;
+
+    /**
+     * @return true if this is the main thread
+     */
+    public boolean isMain() {
+        return this == MAIN_IMMEDIATE || this == MAIN_AFTER_FRAME;
+    }
+
+    /**
+     * @return true if this is a background thread
+     */
+    public boolean isBackground() {
+        return this == BACKGROUND_HIGH || this == BACKGROUND_NORMAL || this == BACKGROUND_LOW;
+    }
+}
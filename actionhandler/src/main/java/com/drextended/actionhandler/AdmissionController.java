@@ -0,0 +1,323 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admission control for {@link ActionHandler} based on load of the main thread.
+ * While started, it observes frames by {@link Choreographer} and keeps moving average
+ * of dropped frames per frame as the load. Depending on the load and priority of the action type
+ * a fire is admitted, deferred until the load goes down, or shed (dismissed with
+ * {@link ActionHandler#REASON_LOAD_SHED}):
+ * <ul>
+ * <li>{@link #PRIORITY_HIGH} action types are always admitted</li>
+ * <li>{@link #PRIORITY_NORMAL} action types are deferred if the load is over the shed threshold</li>
+ * <li>{@link #PRIORITY_LOW} action types are deferred if the load is over the defer threshold
+ * and shed if it is over the shed threshold</li>
+ * </ul>
+ * Deferred fires are released one per frame when the load is under the defer threshold.
+ * A fire which waits longer than max defer time, or the oldest one when too many fires are deferred,
+ * is shed if its action type is low priority, and admitted anyway otherwise: only low priority
+ * action types are ever shed.
+ * Observing frames keeps requesting frames from the display, so start it only while the UI is visible.
+ * {@link #start()} and {@link #stop()} should be called on the main thread, {@link #admit(String)}
+ * and {@link #defer(String, Deferred)} can be called on any thread. Deferred fires are released on the main thread,
+ * except the oldest one released because too many fires are deferred, which is released on the thread
+ * deferring a new one.
+ */
+public class AdmissionController implements Choreographer.FrameCallback {
+
+    public static final int PRIORITY_LOW = -1;
+    public static final int PRIORITY_NORMAL = 0;
+    public static final int PRIORITY_HIGH = 1;
+
+    public enum Decision {
+        ADMIT,
+        DEFER,
+        SHED
+    }
+
+    /**
+     * Callback for a deferred fire
+     */
+    public interface Deferred {
+
+        /**
+         * Called when the deferred fire is admitted
+         */
+        void onAdmitted();
+
+        /**
+         * Called when the deferred fire of a low priority action type is shed
+         */
+        void onShed();
+    }
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final Map<String, Integer> mPriorities = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final ArrayDeque<Pending> mDeferred = new ArrayDeque<>();
+    private int mDefaultPriority = PRIORITY_NORMAL;
+    private float mDeferThreshold = 0.5f;
+    private float mShedThreshold = 2f;
+    private float mSmoothing = 0.2f;
+    private long mFrameIntervalNanos = 16666667L;
+    private long mMaxDeferMillis = 1000;
+    private int mMaxDeferred = 32;
+
+    private volatile boolean mStarted;
+    private long mLastFrameNanos;
+    private volatile float mLoad;
+
+    /**
+     * Set priority of given action types
+     *
+     * @param priority    One of {@link #PRIORITY_LOW}, {@link #PRIORITY_NORMAL}, {@link #PRIORITY_HIGH}
+     * @param actionTypes The action types
+     * @return this controller
+     */
+    public AdmissionController setPriority(int priority, @NonNull String... actionTypes) {
+        for (String actionType : actionTypes) {
+            if (actionType != null) mPriorities.put(actionType, priority);
+        }
+        return this;
+    }
+
+    /**
+     * Set priority of action types without explicit priority, {@link #PRIORITY_NORMAL} by default
+     *
+     * @param priority The default priority
+     * @return this controller
+     */
+    public AdmissionController setDefaultPriority(int priority) {
+        mDefaultPriority = priority;
+        return this;
+    }
+
+    /**
+     * Set the load thresholds, in average dropped frames per frame
+     *
+     * @param deferThreshold The load over which low priority action types are deferred, 0.5 by default
+     * @param shedThreshold  The load over which low priority action types are shed
+     *                       and normal priority ones are deferred, 2 by default
+     * @return this controller
+     */
+    public AdmissionController setThresholds(float deferThreshold, float shedThreshold) {
+        if (deferThreshold < 0 || shedThreshold < deferThreshold) {
+            throw new IllegalArgumentException("Thresholds should be 0 <= deferThreshold <= shedThreshold");
+        }
+        mDeferThreshold = deferThreshold;
+        mShedThreshold = shedThreshold;
+        return this;
+    }
+
+    /**
+     * Set the expected frame interval, 16.6 ms (60 fps) by default
+     *
+     * @param frameIntervalMillis The frame interval in milliseconds
+     * @return this controller
+     */
+    public AdmissionController setFrameInterval(float frameIntervalMillis) {
+        if (frameIntervalMillis <= 0) throw new IllegalArgumentException("frameIntervalMillis should be positive");
+        mFrameIntervalNanos = (long) (frameIntervalMillis * NANOS_PER_MILLI);
+        return this;
+    }
+
+    /**
+     * Set the weight of the last frame in the moving average of load, 0.2 by default
+     *
+     * @param smoothing The weight from 0 (exclusive) to 1
+     * @return this controller
+     */
+    public AdmissionController setSmoothing(float smoothing) {
+        if (smoothing <= 0 || smoothing > 1) throw new IllegalArgumentException("smoothing should be in (0, 1]");
+        mSmoothing = smoothing;
+        return this;
+    }
+
+    /**
+     * Set limits for deferred fires
+     *
+     * @param maxDeferMillis Max time a fire can be deferred before it is released regardless of load, 1000 ms by default
+     * @param maxDeferred    Max count of deferred fires, the oldest is released when exceeded, 32 by default
+     * @return this controller
+     */
+    public AdmissionController setDeferLimits(long maxDeferMillis, int maxDeferred) {
+        if (maxDeferMillis < 0 || maxDeferred < 0) throw new IllegalArgumentException("Limits should not be negative");
+        mMaxDeferMillis = maxDeferMillis;
+        mMaxDeferred = maxDeferred;
+        return this;
+    }
+
+    /**
+     * Start observing frames
+     */
+    public void start() {
+        if (mStarted) return;
+        mStarted = true;
+        mLastFrameNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * Stop observing frames. The load is reset and all deferred fires are admitted.
+     */
+    public void stop() {
+        if (!mStarted) return;
+        mStarted = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+        mLoad = 0;
+        final List<Pending> admitted;
+        synchronized (this) {
+            admitted = new ArrayList<>(mDeferred);
+            mDeferred.clear();
+        }
+        for (Pending pending : admitted) {
+            pending.deferred.onAdmitted();
+        }
+    }
+
+    /**
+     * @return the current load, in average dropped frames per frame
+     */
+    public float getLoad() {
+        return mLoad;
+    }
+
+    /**
+     * @return count of deferred fires
+     */
+    public synchronized int getDeferredCount() {
+        return mDeferred.size();
+    }
+
+    /**
+     * Decide if fire of the action type is admitted under current load
+     *
+     * @param actionType The action type
+     * @return the decision
+     */
+    @NonNull
+    public Decision admit(@Nullable String actionType) {
+        final int priority = getPriority(actionType);
+        if (!mStarted || priority >= PRIORITY_HIGH) return Decision.ADMIT;
+        final float load = mLoad;
+        if (load >= mShedThreshold) {
+            return priority <= PRIORITY_LOW ? Decision.SHED : Decision.DEFER;
+        }
+        if (load >= mDeferThreshold && priority <= PRIORITY_LOW) {
+            return Decision.DEFER;
+        }
+        return Decision.ADMIT;
+    }
+
+    /**
+     * Defer a fire until the load goes down
+     *
+     * @param actionType The action type of the fire, its priority decides if the fire can be shed
+     * @param deferred   The callback of deferred fire
+     */
+    public void defer(@Nullable String actionType, @NonNull Deferred deferred) {
+        final Pending pending = new Pending(deferred, SystemClock.uptimeMillis() + mMaxDeferMillis,
+                getPriority(actionType) <= PRIORITY_LOW);
+        final Pending released;
+        synchronized (this) {
+            if (mDeferred.size() >= mMaxDeferred) {
+                final Pending oldest = mDeferred.poll();
+                if (oldest == null) {
+                    released = pending;
+                } else {
+                    released = oldest;
+                    mDeferred.add(pending);
+                }
+            } else {
+                released = null;
+                mDeferred.add(pending);
+            }
+        }
+        if (released != null) released.release();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mStarted) return;
+        if (mLastFrameNanos != 0) {
+            final long interval = frameTimeNanos - mLastFrameNanos;
+            final float dropped = Math.max(0, (float) interval / mFrameIntervalNanos - 1);
+            mLoad += mSmoothing * (dropped - mLoad);
+        }
+        mLastFrameNanos = frameTimeNanos;
+
+        final long now = SystemClock.uptimeMillis();
+        final List<Pending> expired = new ArrayList<>();
+        Deferred admitted = null;
+        synchronized (this) {
+            while (!mDeferred.isEmpty() && mDeferred.peek().deadline <= now) {
+                expired.add(mDeferred.poll());
+            }
+            if (mLoad < mDeferThreshold && !mDeferred.isEmpty()) {
+                admitted = mDeferred.poll().deferred;
+            }
+        }
+        for (Pending pending : expired) {
+            pending.release();
+        }
+        if (admitted != null) admitted.onAdmitted();
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private int getPriority(@Nullable String actionType) {
+        final Integer priority = actionType == null ? null : mPriorities.get(actionType);
+        return priority == null ? mDefaultPriority : priority;
+    }
+
+    private static class Pending {
+        final Deferred deferred;
+        final long deadline;
+        final boolean sheddable;
+
+        Pending(Deferred deferred, long deadline, boolean sheddable) {
+            this.deferred = deferred;
+            this.deadline = deadline;
+            this.sheddable = sheddable;
+        }
+
+        /**
+         * Release the fire without waiting for the load to go down
+         */
+        void release() {
+            if (sheddable) {
+                deferred.onShed();
+            } else {
+                deferred.onAdmitted();
+            }
+        }
+    }
+}
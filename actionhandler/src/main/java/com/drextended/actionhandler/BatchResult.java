@@ -0,0 +1,199 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Aggregated result of {@link ActionHandler#fireBatch(android.content.Context, String, java.util.Collection, Object)}.
+ * Fired, error, dismiss and intercept events of actions fired by the batch are collected here instead of
+ * being delivered one by one; listeners are notified once with this result when the batch is fired.
+ * The batch is closed when all actions it fired have returned from their fire methods, on whatever thread
+ * they were scheduled to; events of actions which complete asynchronously after that are delivered as usual.
+ */
+public class BatchResult {
+
+    @NonNull
+    public final String actionType;
+
+    /**
+     * Count of models in the batch
+     */
+    public final int modelCount;
+
+    private final List<Object> mAcceptedModels = new ArrayList<>();
+    private final List<Object> mRejectedModels = new ArrayList<>();
+    private final List<Object> mResults = new ArrayList<>();
+    private final List<Throwable> mErrors = new ArrayList<>();
+    private int mFiredCount;
+    private int mErrorCount;
+    private int mDismissedCount;
+    private int mInterceptedCount;
+    @Nullable
+    private String mInterceptReason;
+    private boolean mClosed;
+    @Nullable
+    private final Executor mExecutor;
+
+    BatchResult(@NonNull String actionType, int modelCount, @Nullable Executor executor) {
+        this.actionType = actionType;
+        this.modelCount = modelCount;
+        mExecutor = executor;
+    }
+
+    /**
+     * @return models accepted by at least one action
+     */
+    @NonNull
+    public synchronized List<Object> getAcceptedModels() {
+        return Collections.unmodifiableList(new ArrayList<>(mAcceptedModels));
+    }
+
+    /**
+     * @return models not accepted by any action
+     */
+    @NonNull
+    public synchronized List<Object> getRejectedModels() {
+        return Collections.unmodifiableList(new ArrayList<>(mRejectedModels));
+    }
+
+    /**
+     * @return not null results of fired actions
+     */
+    @NonNull
+    public synchronized List<Object> getResults() {
+        return Collections.unmodifiableList(new ArrayList<>(mResults));
+    }
+
+    /**
+     * @return errors of actions executed with error
+     */
+    @NonNull
+    public synchronized List<Throwable> getErrors() {
+        return Collections.unmodifiableList(new ArrayList<>(mErrors));
+    }
+
+    /**
+     * @return count of fired events
+     */
+    public synchronized int getFiredCount() {
+        return mFiredCount;
+    }
+
+    /**
+     * @return count of error events, including errors notified without a throwable
+     */
+    public synchronized int getErrorCount() {
+        return mErrorCount;
+    }
+
+    /**
+     * @return count of dismiss events
+     */
+    public synchronized int getDismissedCount() {
+        return mDismissedCount;
+    }
+
+    /**
+     * @return count of actions intercepted by fire interceptors
+     */
+    public synchronized int getInterceptedCount() {
+        return mInterceptedCount;
+    }
+
+    /**
+     * @return true if the whole batch was intercepted or disabled
+     */
+    public synchronized boolean isIntercepted() {
+        return mInterceptReason != null;
+    }
+
+    /**
+     * @return the reason of interception of the batch, if it was intercepted
+     */
+    @Nullable
+    public synchronized String getInterceptReason() {
+        return mInterceptReason;
+    }
+
+    /**
+     * @return the executor to evaluate acceptance of models in parallel, or null
+     */
+    @Nullable
+    Executor getExecutor() {
+        return mExecutor;
+    }
+
+    synchronized void addModel(@Nullable Object model, boolean accepted) {
+        (accepted ? mAcceptedModels : mRejectedModels).add(model);
+    }
+
+    synchronized void setInterceptReason(@Nullable String reason) {
+        mInterceptReason = reason != null ? reason : "";
+    }
+
+    synchronized boolean onFired(@Nullable Object result) {
+        if (mClosed) return false;
+        mFiredCount++;
+        if (result != null) mResults.add(result);
+        return true;
+    }
+
+    synchronized boolean onError(@Nullable Throwable throwable) {
+        if (mClosed) return false;
+        mErrorCount++;
+        if (throwable != null) mErrors.add(throwable);
+        return true;
+    }
+
+    synchronized boolean onDismiss() {
+        if (mClosed) return false;
+        mDismissedCount++;
+        return true;
+    }
+
+    synchronized boolean onIntercepted() {
+        if (mClosed) return false;
+        mInterceptedCount++;
+        return true;
+    }
+
+    synchronized void close() {
+        mClosed = true;
+    }
+
+    @Override
+    @NonNull
+    public synchronized String toString() {
+        return "BatchResult{" +
+                "actionType='" + actionType + '\'' +
+                ", modelCount=" + modelCount +
+                ", accepted=" + mAcceptedModels.size() +
+                ", fired=" + mFiredCount +
+                ", errors=" + mErrorCount +
+                ", dismissed=" + mDismissedCount +
+                ", intercepted=" + mInterceptedCount +
+                ", interceptReason=" + mInterceptReason +
+                '}';
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.action.Cancelable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Node of cancellation tree. In-flight work (requests, handlers, child scopes) is registered
+ * in a scope and cancelled at once when the scope is cancelled, e.g. when a screen is destroyed,
+ * see {@link LifecycleCancellationScope}. Cancelling a scope cancels its child scopes;
+ * work registered after the scope was cancelled is cancelled immediately.
+ * Work which completed normally should be unregistered, so the scope does not hold it.
+ */
+public class CancellationScope implements Cancelable {
+
+    @Nullable
+    private final CancellationScope mParent;
+
+    private final Set<Cancelable> mRegistered = new LinkedHashSet<>();
+    private boolean mCancelled;
+
+    public CancellationScope() {
+        this(null);
+    }
+
+    protected CancellationScope(@Nullable CancellationScope parent) {
+        mParent = parent;
+        if (parent != null && !parent.register(this)) mCancelled = true;
+    }
+
+    /**
+     * Create child scope which is cancelled with this scope, but can be cancelled separately
+     *
+     * @return the child scope
+     */
+    @NonNull
+    public CancellationScope createChild() {
+        return new CancellationScope(this);
+    }
+
+    /**
+     * Register work to cancel with this scope
+     *
+     * @param cancelable The work to cancel
+     * @return true if registered, false if the scope is cancelled already (then the work is cancelled now)
+     */
+    public boolean register(@NonNull Cancelable cancelable) {
+        synchronized (this) {
+            if (!mCancelled) {
+                mRegistered.add(cancelable);
+                return true;
+            }
+        }
+        cancelable.cancel();
+        return false;
+    }
+
+    /**
+     * Unregister work, e.g. when it completed
+     *
+     * @param cancelable The work
+     */
+    public synchronized void unregister(@Nullable Cancelable cancelable) {
+        mRegistered.remove(cancelable);
+    }
+
+    /**
+     * @return true if this scope was cancelled
+     */
+    public synchronized boolean isCancelled() {
+        return mCancelled;
+    }
+
+    /**
+     * Cancel this scope, its child scopes and all registered work. Called once, next calls do nothing.
+     */
+    @Override
+    public void cancel() {
+        final List<Cancelable> registered;
+        synchronized (this) {
+            if (mCancelled) return;
+            mCancelled = true;
+            registered = new ArrayList<>(mRegistered);
+            mRegistered.clear();
+        }
+        if (mParent != null) mParent.unregister(this);
+        for (Cancelable cancelable : registered) {
+            cancelable.cancel();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.action.Action;
+import com.drextended.actionhandler.action.CompositeAction;
+import com.drextended.actionhandler.util.AcceptanceCache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State of single dispatch of an action type, shared by all {@link ActionArgs} created while handling it
+ * (including actions fired by {@link CompositeAction}).
+ * Memoizes {@link Action#isModelAccepted(Object)} results, so each action is asked about a model
+ * at most once per dispatch. The memo is thread safe, so acceptance of a batch can be evaluated in parallel,
+ * the rest of the state is supposed to be used on the thread of dispatch.
+ */
+public class DispatchContext {
+
+    @Nullable
+    private final AcceptanceCache mAcceptanceCache;
+
+    // Collector of events if this is a dispatch of a batch
+    @Nullable
+    private final BatchResult mBatch;
+
+    // Handle to complete if the dispatch was started for result
+    @Nullable
+    private final ActionResult mResult;
+
+    // Scope to register in-flight work of the dispatch in
+    @Nullable
+    private final CancellationScope mCancellationScope;
+
+    // Registry to retain requests of the dispatch in
+    @Nullable
+    private final RequestRegistry mRequestRegistry;
+
+    // Results of isModelAccepted for (action, model) pairs checked in this dispatch
+    @Nullable
+    private Map<AcceptanceCache.Key, Boolean> mAccepted;
+
+    public DispatchContext() {
+        this(null);
+    }
+
+    /**
+     * @param acceptanceCache The cache to share acceptance results between dispatches, if any
+     */
+    public DispatchContext(@Nullable AcceptanceCache acceptanceCache) {
+        this(acceptanceCache, null, null, null, null);
+    }
+
+    DispatchContext(
+            @Nullable AcceptanceCache acceptanceCache,
+            @Nullable BatchResult batch,
+            @Nullable ActionResult result,
+            @Nullable CancellationScope cancellationScope,
+            @Nullable RequestRegistry requestRegistry
+    ) {
+        mAcceptanceCache = acceptanceCache;
+        mBatch = batch;
+        mResult = result;
+        mCancellationScope = cancellationScope;
+        mRequestRegistry = requestRegistry;
+    }
+
+    /**
+     * @return the result of the batch if this is a dispatch of a batch, null otherwise
+     */
+    @Nullable
+    public BatchResult getBatch() {
+        return mBatch;
+    }
+
+    /**
+     * Returns the scope of the handler which fired this dispatch. Actions should register
+     * their in-flight work (e.g. requests) in it and unregister when the work completes.
+     *
+     * @return the cancellation scope, or null if the handler has no scope
+     */
+    @Nullable
+    public CancellationScope getCancellationScope() {
+        return mCancellationScope;
+    }
+
+    /**
+     * Returns context of the same dispatch with other cancellation scope,
+     * e.g. to cancel work of nested actions fired in one run of a container action separately.
+     *
+     * @param cancellationScope The scope for the new context
+     * @return the context sharing the result, the batch and the registry of this one
+     */
+    @NonNull
+    public DispatchContext withCancellationScope(@Nullable CancellationScope cancellationScope) {
+        return new DispatchContext(mAcceptanceCache, mBatch, mResult, cancellationScope, mRequestRegistry);
+    }
+
+    /**
+     * Returns the registry of the handler which fired this dispatch. Requests registered in it
+     * survive configuration changes and are not cancelled with the cancellation scope.
+     *
+     * @return the request registry, or null if the handler has no registry
+     */
+    @Nullable
+    public RequestRegistry getRequestRegistry() {
+        return mRequestRegistry;
+    }
+
+    /**
+     * @return the handle of the dispatch if it was started for result, null otherwise
+     */
+    @Nullable
+    ActionResult getResult() {
+        return mResult;
+    }
+
+    /**
+     * Check if the action can handle given model. Result is evaluated once per dispatch.
+     *
+     * @param action The action to check
+     * @param model  The model to check if it can be handled.
+     * @return true if the action can handle this model, false otherwise.
+     */
+    public boolean isModelAccepted(@NonNull Action action, @Nullable Object model) {
+        final AcceptanceCache.Key key = new AcceptanceCache.Key(action, model);
+        Boolean accepted;
+        synchronized (this) {
+            accepted = mAccepted == null ? null : mAccepted.get(key);
+        }
+        if (accepted == null) {
+            accepted = mAcceptanceCache == null ? null : mAcceptanceCache.get(action, model);
+            if (accepted == null) {
+                // evaluated out of the lock, so checks of other models run in parallel
+                accepted = action instanceof CompositeAction
+                        ? ((CompositeAction) action).isModelAccepted(model, this)
+                        : action.isModelAccepted(model);
+                if (mAcceptanceCache != null) mAcceptanceCache.put(action, model, accepted);
+            }
+            synchronized (this) {
+                if (mAccepted == null) mAccepted = new HashMap<>(4);
+                mAccepted.put(key, accepted);
+            }
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.util.HandlerScheduler;
+import com.drextended.actionhandler.util.LooperScheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded queue of fires for {@link ActionHandler} in queued mode, see {@link ActionHandler#setDispatchQueue(DispatchQueue)}.
+ * Fires are stored in a ring buffer and drained by single consumer on the main thread,
+ * not more than given count per second. When the queue is full the {@link OverflowPolicy} decides
+ * which fire is dropped; dropped fires are dismissed with {@link ActionHandler#REASON_QUEUE_OVERFLOW}.
+ */
+public class DispatchQueue {
+
+    public enum OverflowPolicy {
+        /**
+         * Drop the new fire
+         */
+        DROP_NEWEST,
+        /**
+         * Drop the oldest queued fire
+         */
+        DROP_OLDEST,
+        /**
+         * Replace queued fire of the same action type in place (even if the queue is not full),
+         * drop the oldest queued fire if there is no such one
+         */
+        LATEST_PER_TYPE,
+        /**
+         * Wait until there is free space. On the main thread the oldest queued fire is dispatched
+         * immediately instead, as the consumer runs on the main thread too.
+         */
+        BLOCK
+    }
+
+    /**
+     * Consumer of the queue, implemented by {@link ActionHandler}
+     */
+    interface Consumer {
+
+        void onDispatch(@NonNull ActionParams params, @NonNull DispatchContext context);
+
+        void onDropped(@NonNull ActionParams params, @NonNull DispatchContext context, @NonNull String reason);
+    }
+
+    private final int mCapacity;
+    private final OverflowPolicy mPolicy;
+    private final long mIntervalMillis;
+    private final ActionParams[] mParams;
+    private final DispatchContext[] mContexts;
+    private final LooperScheduler mScheduler;
+
+    // Slot of queued fire by action type, for LATEST_PER_TYPE policy
+    private final Map<String, Integer> mSlots = new HashMap<>();
+
+    private int mHead;
+    private int mSize;
+    private long mDroppedCount;
+    private long mLastDrainMillis;
+    private boolean mDrainScheduled;
+
+    @Nullable
+    private Consumer mConsumer;
+
+    private final Runnable mDrain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    /**
+     * @param capacity          Max count of queued fires
+     * @param policy            The policy of overflow
+     * @param maxFiresPerSecond Max count of fires dispatched per second, or 0 to dispatch without limit
+     */
+    public DispatchQueue(int capacity, @NonNull OverflowPolicy policy, int maxFiresPerSecond) {
+        this(capacity, policy, maxFiresPerSecond, new HandlerScheduler(Looper.getMainLooper()));
+    }
+
+    /**
+     * @param capacity          Max count of queued fires
+     * @param policy            The policy of overflow
+     * @param maxFiresPerSecond Max count of fires dispatched per second, or 0 to dispatch without limit
+     * @param scheduler         The clock and the looper of the consumer
+     */
+    DispatchQueue(int capacity, @NonNull OverflowPolicy policy, int maxFiresPerSecond, @NonNull LooperScheduler scheduler) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity should be positive");
+        if (maxFiresPerSecond < 0) throw new IllegalArgumentException("maxFiresPerSecond should not be negative");
+        mCapacity = capacity;
+        mPolicy = policy;
+        mIntervalMillis = maxFiresPerSecond == 0 ? 0 : Math.max(1, 1000 / maxFiresPerSecond);
+        mParams = new ActionParams[capacity];
+        mContexts = new DispatchContext[capacity];
+        mScheduler = scheduler;
+    }
+
+    /**
+     * @return max count of queued fires
+     */
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    /**
+     * @return count of queued fires
+     */
+    public synchronized int getDepth() {
+        return mSize;
+    }
+
+    /**
+     * @return count of fires dropped because the queue was full
+     */
+    public synchronized long getDroppedCount() {
+        return mDroppedCount;
+    }
+
+    /**
+     * Drop all queued fires, they are dismissed with {@link ActionHandler#REASON_QUEUE_CLEARED}
+     */
+    public void clear() {
+        final ActionParams[] params;
+        final DispatchContext[] contexts;
+        final Consumer consumer;
+        synchronized (this) {
+            params = new ActionParams[mSize];
+            contexts = new DispatchContext[mSize];
+            for (int i = 0; i < params.length; i++) {
+                final int slot = (mHead + i) % mCapacity;
+                params[i] = mParams[slot];
+                contexts[i] = mContexts[slot];
+                mParams[slot] = null;
+                mContexts[slot] = null;
+            }
+            mSize = 0;
+            mSlots.clear();
+            notifyAll();
+            consumer = mConsumer;
+        }
+        if (consumer == null) return;
+        for (int i = 0; i < params.length; i++) {
+            consumer.onDropped(params[i], contexts[i], ActionHandler.REASON_QUEUE_CLEARED);
+        }
+    }
+
+    synchronized void setConsumer(@Nullable Consumer consumer) {
+        mConsumer = consumer;
+    }
+
+    /**
+     * Queue the fire, dropping a fire if the queue is full
+     */
+    void offer(@NonNull ActionParams params, @NonNull DispatchContext context) {
+        ActionParams droppedParams = null;
+        DispatchContext droppedContext = null;
+        ActionParams headParams = null;
+        DispatchContext headContext = null;
+        final Consumer consumer;
+        synchronized (this) {
+            final Integer slot = mPolicy == OverflowPolicy.LATEST_PER_TYPE ? mSlots.get(params.actionType) : null;
+            if (slot != null) {
+                droppedParams = mParams[slot];
+                droppedContext = mContexts[slot];
+                mParams[slot] = params;
+                mContexts[slot] = context;
+                mDroppedCount++;
+            } else {
+                if (mSize == mCapacity) {
+                    if (mPolicy == OverflowPolicy.DROP_NEWEST) {
+                        droppedParams = params;
+                        droppedContext = context;
+                        mDroppedCount++;
+                    } else if (mPolicy == OverflowPolicy.BLOCK && !mScheduler.isLooperThread()) {
+                        awaitSpace();
+                    } else if (mPolicy == OverflowPolicy.BLOCK) {
+                        // the consumer can't run while the main thread waits, so dispatch the oldest fire now
+                        headParams = mParams[mHead];
+                        headContext = mContexts[mHead];
+                        poll();
+                    } else {
+                        droppedParams = mParams[mHead];
+                        droppedContext = mContexts[mHead];
+                        poll();
+                        mDroppedCount++;
+                    }
+                }
+                if (droppedParams != params) add(params, context);
+            }
+            scheduleDrain();
+            consumer = mConsumer;
+        }
+        if (consumer == null) return;
+        if (headParams != null) consumer.onDispatch(headParams, headContext);
+        if (droppedParams != null) consumer.onDropped(droppedParams, droppedContext, ActionHandler.REASON_QUEUE_OVERFLOW);
+    }
+
+    private void add(@NonNull ActionParams params, @NonNull DispatchContext context) {
+        final int slot = (mHead + mSize) % mCapacity;
+        mParams[slot] = params;
+        mContexts[slot] = context;
+        mSize++;
+        if (mPolicy == OverflowPolicy.LATEST_PER_TYPE) mSlots.put(params.actionType, slot);
+    }
+
+    private void poll() {
+        final ActionParams params = mParams[mHead];
+        if (mPolicy == OverflowPolicy.LATEST_PER_TYPE && params != null) {
+            final Integer slot = mSlots.get(params.actionType);
+            if (slot != null && slot == mHead) mSlots.remove(params.actionType);
+        }
+        mParams[mHead] = null;
+        mContexts[mHead] = null;
+        mHead = (mHead + 1) % mCapacity;
+        mSize--;
+        notifyAll();
+    }
+
+    private void awaitSpace() {
+        boolean interrupted = false;
+        while (mSize == mCapacity) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void scheduleDrain() {
+        if (mDrainScheduled || mSize == 0) return;
+        mDrainScheduled = true;
+        final long now = mScheduler.uptimeMillis();
+        mScheduler.postAtTime(mDrain, Math.max(now, mLastDrainMillis + mIntervalMillis));
+    }
+
+    private void drain() {
+        while (true) {
+            final ActionParams params;
+            final DispatchContext context;
+            final Consumer consumer;
+            synchronized (this) {
+                if (mSize == 0) {
+                    mDrainScheduled = false;
+                    return;
+                }
+                params = mParams[mHead];
+                context = mContexts[mHead];
+                poll();
+                consumer = mConsumer;
+                mLastDrainMillis = mScheduler.uptimeMillis();
+            }
+            if (consumer != null) consumer.onDispatch(params, context);
+            if (mIntervalMillis > 0) {
+                synchronized (this) {
+                    mDrainScheduled = false;
+                    scheduleDrain();
+                }
+                return;
+            }
+            // without rate limit everything queued by now is dispatched by this message
+        }
+    }
+}
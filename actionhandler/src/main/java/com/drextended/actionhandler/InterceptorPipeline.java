@@ -0,0 +1,422 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.action.Action;
+import com.drextended.actionhandler.listener.ActionFireInterceptor;
+import com.drextended.actionhandler.listener.ActionInterceptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ordered chain of {@link ActionInterceptor}s and {@link ActionFireInterceptor}s used by {@link ActionHandler}.
+ * Each interceptor is registered as a stage with explicit priority: stages with higher priority are called first,
+ * stages with the same priority are called in order of registration.
+ * For every action type stages are compiled once into flat arrays, which are reused until the pipeline is changed.
+ * Interception stops at the first stage which vetoes an action.
+ */
+public class InterceptorPipeline {
+
+    /**
+     * Priority of the debounce stage. Set higher priority to call an interceptor before debounce check.
+     */
+    public static final int PRIORITY_DEBOUNCE = 1000;
+
+    /**
+     * Priority of the rate limit stage.
+     */
+    public static final int PRIORITY_RATE_LIMIT = 900;
+
+    /**
+     * Default priority of interceptors
+     */
+    public static final int PRIORITY_DEFAULT = 0;
+
+    private static final Stage[] EMPTY = new Stage[0];
+
+    private static final Comparator<Stage> STAGE_ORDER = new Comparator<Stage>() {
+        @Override
+        public int compare(Stage first, Stage second) {
+            if (first.priority != second.priority) return first.priority > second.priority ? -1 : 1;
+            return first.sequence < second.sequence ? -1 : (first.sequence == second.sequence ? 0 : 1);
+        }
+    };
+
+    // All registered stages sorted by priority. Replaced on every change.
+    private volatile Stage[] mStages = EMPTY;
+
+    // Compiled stages for action types. Cleared on every change.
+    private final Map<String, Compiled> mCompiled = new ConcurrentHashMap<>();
+
+    private long mSequence;
+
+    private volatile boolean mTimingEnabled;
+
+    /**
+     * Add interceptor to be called for given action types (or for any action type if no types are given)
+     *
+     * @param interceptor The interceptor
+     * @param priority    The priority of the stage, stages with higher priority are called first
+     * @param name        The name of the stage, used in stats
+     * @param reason      The reason of interception if this stage vetoes an action
+     * @param actionTypes The action types to intercept, or empty to intercept any action type
+     */
+    public void addInterceptor(
+            @NonNull ActionInterceptor interceptor,
+            int priority,
+            @Nullable String name,
+            @Nullable String reason,
+            @Nullable String... actionTypes
+    ) {
+        addStage(interceptor, false, priority, name, reason, actionTypes);
+    }
+
+    /**
+     * Add fire interceptor to be called for given action types (or for any action type if no types are given)
+     *
+     * @param interceptor The interceptor
+     * @param priority    The priority of the stage, stages with higher priority are called first
+     * @param name        The name of the stage, used in stats
+     * @param reason      The reason of interception if this stage vetoes an action
+     * @param actionTypes The action types to intercept (matched by the type of action to fire),
+     *                    or empty to intercept any action type
+     */
+    public void addFireInterceptor(
+            @NonNull ActionFireInterceptor interceptor,
+            int priority,
+            @Nullable String name,
+            @Nullable String reason,
+            @Nullable String... actionTypes
+    ) {
+        addStage(interceptor, true, priority, name, reason, actionTypes);
+    }
+
+    private synchronized void addStage(
+            @NonNull Object interceptor,
+            boolean fireInterceptor,
+            int priority,
+            @Nullable String name,
+            @Nullable String reason,
+            @Nullable String[] actionTypes
+    ) {
+        Set<String> types = null;
+        if (actionTypes != null && actionTypes.length > 0) {
+            types = new HashSet<>(Arrays.asList(actionTypes));
+            types.remove(null);
+        }
+        final Stage stage = new Stage(
+                interceptor,
+                fireInterceptor,
+                priority,
+                name != null ? name : interceptor.getClass().getSimpleName(),
+                reason,
+                types,
+                mSequence++
+        );
+        final Stage[] stages = Arrays.copyOf(mStages, mStages.length + 1);
+        stages[stages.length - 1] = stage;
+        Arrays.sort(stages, STAGE_ORDER);
+        publish(stages);
+    }
+
+    /**
+     * Remove all stages of given interceptor
+     *
+     * @param interceptor The interceptor to remove
+     */
+    public void removeInterceptor(@Nullable ActionInterceptor interceptor) {
+        removeStages(interceptor, false);
+    }
+
+    /**
+     * Remove all stages of given fire interceptor
+     *
+     * @param interceptor The interceptor to remove
+     */
+    public void removeFireInterceptor(@Nullable ActionFireInterceptor interceptor) {
+        removeStages(interceptor, true);
+    }
+
+    /**
+     * Remove all stages of {@link ActionInterceptor}s
+     */
+    public void clearInterceptors() {
+        removeStages(null, false);
+    }
+
+    /**
+     * Remove all stages of {@link ActionFireInterceptor}s
+     */
+    public void clearFireInterceptors() {
+        removeStages(null, true);
+    }
+
+    // Removes stages of given interceptor, or all stages of given kind if interceptor is null
+    private synchronized void removeStages(@Nullable Object interceptor, boolean fireInterceptor) {
+        final List<Stage> stages = new ArrayList<>(mStages.length);
+        for (Stage stage : mStages) {
+            if (stage.fireInterceptor != fireInterceptor
+                    || (interceptor != null && stage.interceptor != interceptor)) {
+                stages.add(stage);
+            }
+        }
+        if (stages.size() != mStages.length) publish(stages.toArray(new Stage[stages.size()]));
+    }
+
+    private void publish(@NonNull Stage[] stages) {
+        mStages = stages;
+        mCompiled.clear();
+    }
+
+    /**
+     * @return true if there is no any stage
+     */
+    public boolean isEmpty() {
+        return mStages.length == 0;
+    }
+
+    /**
+     * Enable measuring time spent by each stage. Disabled by default.
+     *
+     * @param timingEnabled true for measure time spent by stages
+     */
+    public void setTimingEnabled(boolean timingEnabled) {
+        mTimingEnabled = timingEnabled;
+    }
+
+    /**
+     * Call {@link ActionInterceptor}s for given action params in order of their priority
+     *
+     * @param params The action params
+     * @return the stage which intercepted the action, or null if action was not intercepted
+     */
+    @Nullable
+    public Stage intercept(@NonNull ActionParams params) {
+        final Stage[] stages = compile(params.actionType).interceptors;
+        final boolean timingEnabled = mTimingEnabled;
+        for (Stage stage : stages) {
+            final long start = timingEnabled ? System.nanoTime() : 0;
+            final boolean intercepted = ((ActionInterceptor) stage.interceptor).onInterceptAction(params);
+            stage.record(intercepted, timingEnabled ? System.nanoTime() - start : 0);
+            if (intercepted) return stage;
+        }
+        return null;
+    }
+
+    /**
+     * Call {@link ActionFireInterceptor}s for given action in order of their priority
+     *
+     * @param params     The action params
+     * @param actionType The action type, which is prepared to fire.
+     * @param action     The action, which is prepared to fire.
+     * @return the stage which intercepted the action, or null if action was not intercepted
+     */
+    @Nullable
+    public Stage interceptFire(@NonNull ActionParams params, @Nullable String actionType, @NonNull Action action) {
+        final Stage[] stages = compile(actionType != null ? actionType : params.actionType).fireInterceptors;
+        final boolean timingEnabled = mTimingEnabled;
+        for (Stage stage : stages) {
+            final long start = timingEnabled ? System.nanoTime() : 0;
+            final boolean intercepted = ((ActionFireInterceptor) stage.interceptor)
+                    .onInterceptActionFire(params, actionType, action);
+            stage.record(intercepted, timingEnabled ? System.nanoTime() - start : 0);
+            if (intercepted) return stage;
+        }
+        return null;
+    }
+
+    @NonNull
+    private Compiled compile(@NonNull String actionType) {
+        Compiled compiled = mCompiled.get(actionType);
+        if (compiled == null) {
+            final Stage[] stages = mStages;
+            final List<Stage> interceptors = new ArrayList<>(stages.length);
+            final List<Stage> fireInterceptors = new ArrayList<>(stages.length);
+            for (Stage stage : stages) {
+                if (stage.actionTypes != null && !stage.actionTypes.contains(actionType)) continue;
+                if (stage.fireInterceptor) {
+                    fireInterceptors.add(stage);
+                } else {
+                    interceptors.add(stage);
+                }
+            }
+            compiled = new Compiled(
+                    interceptors.toArray(new Stage[interceptors.size()]),
+                    fireInterceptors.toArray(new Stage[fireInterceptors.size()])
+            );
+            mCompiled.put(actionType, compiled);
+            // drop the result if the pipeline was changed while compiling
+            if (stages != mStages) mCompiled.remove(actionType);
+        }
+        return compiled;
+    }
+
+    /**
+     * Copy this pipeline. The copy has the same stages in the same order, but its own statistics,
+     * and changes of either pipeline are not visible in the other one.
+     *
+     * @return the new pipeline
+     */
+    @NonNull
+    public synchronized InterceptorPipeline copy() {
+        final Stage[] stages = new Stage[mStages.length];
+        for (int i = 0; i < stages.length; i++) {
+            final Stage stage = mStages[i];
+            stages[i] = new Stage(stage.interceptor, stage.fireInterceptor, stage.priority, stage.name,
+                    stage.reason, stage.actionTypes, stage.sequence);
+        }
+        final InterceptorPipeline copy = new InterceptorPipeline();
+        copy.mStages = stages;
+        copy.mSequence = mSequence;
+        copy.mTimingEnabled = mTimingEnabled;
+        return copy;
+    }
+
+    /**
+     * Returns all stages in order of their calls. Can be used to inspect time spent by each stage
+     * (if enabled by {@link #setTimingEnabled(boolean)}) for ordering stages by cost.
+     *
+     * @return list of all stages
+     */
+    @NonNull
+    public List<Stage> getStages() {
+        return Collections.unmodifiableList(Arrays.asList(mStages));
+    }
+
+    /**
+     * Reset statistics of all stages
+     */
+    public void resetStats() {
+        for (Stage stage : mStages) {
+            stage.resetStats();
+        }
+    }
+
+    private static class Compiled {
+        final Stage[] interceptors;
+        final Stage[] fireInterceptors;
+
+        Compiled(Stage[] interceptors, Stage[] fireInterceptors) {
+            this.interceptors = interceptors;
+            this.fireInterceptors = fireInterceptors;
+        }
+    }
+
+    /**
+     * A stage of the pipeline: interceptor with its priority and statistics
+     */
+    public static class Stage {
+        @NonNull
+        public final Object interceptor;
+        /**
+         * true for {@link ActionFireInterceptor} stage, false for {@link ActionInterceptor} stage
+         */
+        public final boolean fireInterceptor;
+        public final int priority;
+        @NonNull
+        public final String name;
+        @Nullable
+        public final String reason;
+        /**
+         * Action types to intercept, null for any action type
+         */
+        @Nullable
+        public final Set<String> actionTypes;
+        private final long sequence;
+
+        private final AtomicLong mInvocations = new AtomicLong();
+        private final AtomicLong mInterceptions = new AtomicLong();
+        private final AtomicLong mTotalNanos = new AtomicLong();
+
+        Stage(@NonNull Object interceptor, boolean fireInterceptor, int priority, @NonNull String name,
+              @Nullable String reason, @Nullable Set<String> actionTypes, long sequence) {
+            this.interceptor = interceptor;
+            this.fireInterceptor = fireInterceptor;
+            this.priority = priority;
+            this.name = name;
+            this.reason = reason;
+            this.actionTypes = actionTypes;
+            this.sequence = sequence;
+        }
+
+        void record(boolean intercepted, long nanos) {
+            mInvocations.incrementAndGet();
+            if (intercepted) mInterceptions.incrementAndGet();
+            if (nanos > 0) mTotalNanos.addAndGet(nanos);
+        }
+
+        void resetStats() {
+            mInvocations.set(0);
+            mInterceptions.set(0);
+            mTotalNanos.set(0);
+        }
+
+        /**
+         * @return count of calls of this stage
+         */
+        public long getInvocations() {
+            return mInvocations.get();
+        }
+
+        /**
+         * @return count of actions intercepted by this stage
+         */
+        public long getInterceptions() {
+            return mInterceptions.get();
+        }
+
+        /**
+         * @return total time in nanoseconds spent by this stage, if timing is enabled
+         */
+        public long getTotalNanos() {
+            return mTotalNanos.get();
+        }
+
+        /**
+         * @return average time in nanoseconds of single call of this stage, if timing is enabled
+         */
+        public long getAverageNanos() {
+            final long invocations = mInvocations.get();
+            return invocations == 0 ? 0 : mTotalNanos.get() / invocations;
+        }
+
+        @Override
+        @NonNull
+        public String toString() {
+            return "Stage{" +
+                    "name='" + name + '\'' +
+                    ", priority=" + priority +
+                    ", actionTypes=" + actionTypes +
+                    ", invocations=" + getInvocations() +
+                    ", interceptions=" + getInterceptions() +
+                    ", averageNanos=" + getAverageNanos() +
+                    '}';
+        }
+    }
+}
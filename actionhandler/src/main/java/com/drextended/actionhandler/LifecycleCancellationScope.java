@@ -0,0 +1,66 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.OnLifecycleEvent;
+
+/**
+ * Cancellation scope which is cancelled when the lifecycle reaches given event,
+ * {@link Lifecycle.Event#ON_DESTROY} by default. Requires androidx lifecycle on the classpath,
+ * which is brought by appcompat. Should be created on the main thread.
+ */
+public class LifecycleCancellationScope extends CancellationScope implements LifecycleObserver {
+
+    @NonNull
+    private final Lifecycle.Event mCancelEvent;
+
+    @NonNull
+    private final Lifecycle mLifecycle;
+
+    /**
+     * @param owner The owner of lifecycle, e.g. activity or fragment
+     */
+    public LifecycleCancellationScope(@NonNull LifecycleOwner owner) {
+        this(owner, Lifecycle.Event.ON_DESTROY);
+    }
+
+    /**
+     * @param owner       The owner of lifecycle, e.g. activity or fragment
+     * @param cancelEvent The event to cancel the scope on
+     */
+    public LifecycleCancellationScope(@NonNull LifecycleOwner owner, @NonNull Lifecycle.Event cancelEvent) {
+        mCancelEvent = cancelEvent;
+        mLifecycle = owner.getLifecycle();
+        if (mLifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            cancel();
+        } else {
+            mLifecycle.addObserver(this);
+        }
+    }
+
+    @OnLifecycleEvent(Lifecycle.Event.ON_ANY)
+    void onLifecycleEvent(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        if (event == mCancelEvent || event == Lifecycle.Event.ON_DESTROY) {
+            mLifecycle.removeObserver(this);
+            cancel();
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.action.Action;
+import com.drextended.actionhandler.util.AUtils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Side channel for observer actions like tracking or decorative animations, which should not delay
+ * the visible response to a click. Observer actions are fired after primary actions of the dispatch,
+ * either on the main thread when it is idle ({@link Mode#IDLE}, by {@link MessageQueue.IdleHandler})
+ * or in batches on a background thread ({@link Mode#BACKGROUND}).
+ * <p>
+ * Each queue is bounded: pending fires of the same observer for the same action type and model
+ * are merged (only the latest is kept), and if the queue is full the oldest fire is dropped.
+ * Model acceptance of observers is checked when they are fired, not when they are queued.
+ * Events of observer actions are not delivered to listeners of {@link ActionHandler}.
+ */
+public class ObserverDispatcher {
+
+    public enum Mode {
+        IDLE,
+        BACKGROUND
+    }
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final String TAG = "ObserverDispatcher";
+
+    // Max time to fire observers in one idle callback
+    private static final long IDLE_SLICE_MILLIS = 4;
+
+    private static final Runnable NO_OP = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final int mCapacity;
+    private final List<Registration> mRegistrations = new CopyOnWriteArrayList<>();
+    private final Queue mIdleQueue = new Queue();
+    private final Queue mBackgroundQueue = new Queue();
+    private final AtomicLong mDroppedCount = new AtomicLong();
+    private final AtomicLong mMergedCount = new AtomicLong();
+
+    @Nullable
+    private Executor mBackgroundExecutor;
+
+    public ObserverDispatcher() {
+        this(DEFAULT_CAPACITY, null);
+    }
+
+    /**
+     * @param capacity           Max count of pending fires in each queue
+     * @param backgroundExecutor The executor for {@link Mode#BACKGROUND} observers.
+     *                           If null a single low priority thread is created on first use.
+     */
+    public ObserverDispatcher(int capacity, @Nullable Executor backgroundExecutor) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity should be positive");
+        mCapacity = capacity;
+        mBackgroundExecutor = backgroundExecutor;
+    }
+
+    /**
+     * Add observer action
+     *
+     * @param actionType The action type to observe or null to observe any action type
+     * @param action     The observer action
+     * @param mode       How the action should be fired
+     */
+    public void add(@Nullable String actionType, @NonNull Action action, @NonNull Mode mode) {
+        mRegistrations.add(new Registration(actionType, action, mode));
+    }
+
+    /**
+     * Remove observer action for all action types. Pending fires of it are still fired.
+     *
+     * @param action The observer action
+     * @return true if the action was added
+     */
+    public boolean remove(@Nullable Action action) {
+        boolean removed = false;
+        for (Registration registration : mRegistrations) {
+            if (registration.action == action) removed |= mRegistrations.remove(registration);
+        }
+        return removed;
+    }
+
+    /**
+     * @return true if there are no observer actions
+     */
+    public boolean isEmpty() {
+        return mRegistrations.isEmpty();
+    }
+
+    /**
+     * Queue fires of observers of the action type
+     *
+     * @param params The params of the dispatch
+     */
+    public void dispatch(@NonNull ActionParams params) {
+        for (Registration registration : mRegistrations) {
+            if (registration.actionType != null && !registration.actionType.equals(params.actionType)) continue;
+            if (registration.mode == Mode.IDLE) {
+                if (mIdleQueue.offer(registration, params)) scheduleIdle();
+            } else {
+                if (mBackgroundQueue.offer(registration, params)) scheduleBackground();
+            }
+        }
+    }
+
+    /**
+     * Drop all pending fires
+     */
+    public void clear() {
+        mIdleQueue.clear();
+        mBackgroundQueue.clear();
+    }
+
+    /**
+     * @return count of fires dropped because a queue was full
+     */
+    public long getDroppedCount() {
+        return mDroppedCount.get();
+    }
+
+    /**
+     * @return count of fires merged with pending fire of the same observer, action type and model
+     */
+    public long getMergedCount() {
+        return mMergedCount.get();
+    }
+
+    private void scheduleIdle() {
+        AUtils.runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+                    @Override
+                    public boolean queueIdle() {
+                        final long deadline = SystemClock.uptimeMillis() + IDLE_SLICE_MILLIS;
+                        Pending pending;
+                        while ((pending = mIdleQueue.poll(SystemClock.uptimeMillis() < deadline)) != null) {
+                            fire(pending);
+                        }
+                        // keep the handler while there are pending fires
+                        final boolean keep = mIdleQueue.keepScheduled();
+                        // the handler is called again only when the queue becomes idle again,
+                        // so wake it up by an empty message if the slice ran out
+                        if (keep) mMainHandler.post(NO_OP);
+                        return keep;
+                    }
+                });
+            }
+        });
+    }
+
+    private void scheduleBackground() {
+        getBackgroundExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                Pending pending;
+                while ((pending = mBackgroundQueue.poll(true)) != null) {
+                    fire(pending);
+                }
+            }
+        });
+    }
+
+    private void fire(@NonNull Pending pending) {
+        final Action action = pending.registration.action;
+        try {
+            if (action.isModelAccepted(pending.params.model)) {
+                action.onFireAction(new ActionArgs(pending.params, pending.registration.actionType));
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Observer action failed: " + pending.params.actionType, e);
+        }
+    }
+
+    @NonNull
+    private synchronized Executor getBackgroundExecutor() {
+        if (mBackgroundExecutor == null) {
+            mBackgroundExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull final Runnable runnable) {
+                    return new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            runnable.run();
+                        }
+                    }, TAG);
+                }
+            });
+        }
+        return mBackgroundExecutor;
+    }
+
+    private static class Registration {
+        final String actionType;
+        final Action action;
+        final Mode mode;
+
+        Registration(String actionType, Action action, Mode mode) {
+            this.actionType = actionType;
+            this.action = action;
+            this.mode = mode;
+        }
+    }
+
+    private static class Pending {
+        final Registration registration;
+        final ActionParams params;
+
+        Pending(Registration registration, ActionParams params) {
+            this.registration = registration;
+            this.params = params;
+        }
+    }
+
+    private static class Key {
+        final Registration registration;
+        final String actionType;
+        final Object model;
+
+        Key(Registration registration, ActionParams params) {
+            this.registration = registration;
+            this.actionType = params.actionType;
+            this.model = params.model;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            final Key that = (Key) o;
+            return registration == that.registration
+                    && Objects.equals(actionType, that.actionType)
+                    && Objects.equals(model, that.model);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * System.identityHashCode(registration) + Objects.hashCode(actionType))
+                    + Objects.hashCode(model);
+        }
+    }
+
+    /**
+     * Bounded queue of pending fires in order of dispatch, merging fires with equal key
+     */
+    private class Queue {
+        private final LinkedHashMap<Key, Pending> mPending = new LinkedHashMap<>();
+        private boolean mScheduled;
+
+        /**
+         * @return true if the queue should be drained
+         */
+        synchronized boolean offer(Registration registration, ActionParams params) {
+            final Key key = new Key(registration, params);
+            if (mPending.remove(key) != null) {
+                mMergedCount.incrementAndGet();
+            } else if (mPending.size() >= mCapacity) {
+                final Iterator<Map.Entry<Key, Pending>> iterator = mPending.entrySet().iterator();
+                iterator.next();
+                iterator.remove();
+                mDroppedCount.incrementAndGet();
+            }
+            mPending.put(key, new Pending(registration, params));
+            if (mScheduled) return false;
+            mScheduled = true;
+            return true;
+        }
+
+        /**
+         * @param canContinue false if the drain should stop now
+         * @return next pending fire, or null if the queue is empty or drain should stop
+         */
+        @Nullable
+        synchronized Pending poll(boolean canContinue) {
+            if (!canContinue || mPending.isEmpty()) {
+                if (mPending.isEmpty()) mScheduled = false;
+                return null;
+            }
+            final Iterator<Pending> iterator = mPending.values().iterator();
+            final Pending pending = iterator.next();
+            iterator.remove();
+            return pending;
+        }
+
+        synchronized boolean keepScheduled() {
+            return mScheduled;
+        }
+
+        synchronized void clear() {
+            mPending.clear();
+        }
+    }
+}
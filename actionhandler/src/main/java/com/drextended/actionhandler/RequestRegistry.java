@@ -0,0 +1,314 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.action.Cancelable;
+import com.drextended.actionhandler.util.AUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of requests which should survive configuration changes.
+ * Requests are registered by a key (see {@link com.drextended.actionhandler.action.RxRequestAction#getRequestKey(ActionArgs)})
+ * and keep running when the handler which fired them is cancelled.
+ * The registry should be retained across configuration changes (e.g. held by a ViewModel
+ * or by {@code onRetainCustomNonConfigurationInstance()}) and set to each new {@link ActionHandler}
+ * by {@link ActionHandler#setRequestRegistry(RequestRegistry)}.
+ * <p>
+ * A response is delivered to the action which fired the request while its handler is attached.
+ * Otherwise it is delivered to the action of the same action type of the currently attached handler,
+ * or, if no handler is attached, kept in a bounded replay cache until a handler is attached
+ * or the same request is fired again.
+ * Call {@link #cancel()} when the screen is finished for good to cancel all retained requests.
+ */
+public class RequestRegistry implements Cancelable {
+
+    public static final int DEFAULT_REPLAY_SIZE = 16;
+
+    /**
+     * Receiver of responses of retained requests, implemented by actions which make them
+     */
+    public interface Receiver {
+
+        /**
+         * Called on the main thread with response of the retained request.
+         *
+         * @param args     The action args of the fire which receives the response
+         * @param response The response, if the request succeeded
+         * @param error    The error, if the request failed
+         */
+        void onRetainedResponse(@NonNull ActionArgs args, @Nullable Object response, @Nullable Throwable error);
+    }
+
+    private final int mReplaySize;
+
+    // Requests in flight by keys
+    private final Map<String, Entry> mInFlight = new HashMap<>();
+
+    // Completed requests which are not delivered yet, the oldest first
+    private final LinkedHashMap<String, Entry> mReplay = new LinkedHashMap<>();
+
+    // The handler to deliver responses for requests whose action was detached
+    @Nullable
+    private ActionHandler mHandler;
+
+    public RequestRegistry() {
+        this(DEFAULT_REPLAY_SIZE);
+    }
+
+    /**
+     * @param replaySize Max count of undelivered responses to keep, the oldest are dropped
+     */
+    public RequestRegistry(int replaySize) {
+        if (replaySize < 0) throw new IllegalArgumentException("replaySize should not be negative");
+        mReplaySize = replaySize;
+    }
+
+    /**
+     * Join the request with given key if it is known: if it is in flight, its response will be delivered
+     * to the receiver with given args; if it has been completed while detached, the response is delivered now.
+     *
+     * @param key      The key of the request
+     * @param args     The args of the current fire
+     * @param receiver The action to receive the response
+     * @return true if the request was joined and should not be made again, false otherwise
+     */
+    public boolean join(@NonNull String key, @NonNull ActionArgs args, @NonNull Receiver receiver) {
+        final Entry completed;
+        synchronized (this) {
+            final Entry inFlight = mInFlight.get(key);
+            if (inFlight != null) {
+                inFlight.args = args;
+                inFlight.receiver = receiver;
+                return true;
+            }
+            completed = mReplay.remove(key);
+        }
+        if (completed == null) return false;
+        deliver(receiver, args, completed.response, completed.error);
+        return true;
+    }
+
+    /**
+     * Register request which has been made. Should be completed by {@link #complete(String, Object, Throwable)}.
+     * If other request with the same key is in flight, it is cancelled.
+     *
+     * @param key      The key of the request
+     * @param args     The args of the fire which made the request
+     * @param receiver The action to receive the response
+     * @param request  The handle to cancel the request
+     */
+    public void register(
+            @NonNull String key,
+            @NonNull ActionArgs args,
+            @NonNull Receiver receiver,
+            @NonNull Cancelable request
+    ) {
+        final Entry previous;
+        synchronized (this) {
+            mReplay.remove(key);
+            previous = mInFlight.put(key, new Entry(args, receiver, request));
+        }
+        if (previous != null) previous.request.cancel();
+    }
+
+    /**
+     * Complete the request with given key. Must be called once when the request terminated.
+     *
+     * @param key      The key of the request
+     * @param response The response, if the request succeeded
+     * @param error    The error, if the request failed
+     */
+    public void complete(@NonNull String key, @Nullable Object response, @Nullable Throwable error) {
+        final Entry entry;
+        final Receiver receiver;
+        final ActionArgs args;
+        final ActionHandler handler;
+        synchronized (this) {
+            entry = mInFlight.remove(key);
+            if (entry == null) return;
+            entry.response = response;
+            entry.error = error;
+            receiver = entry.receiver;
+            args = entry.args;
+            handler = mHandler;
+            if (receiver == null && handler == null) {
+                addToReplay(key, entry);
+                return;
+            }
+        }
+        if (receiver != null && args != null) {
+            deliver(receiver, args, response, error);
+        } else if (handler != null) {
+            deliver(handler, key, entry);
+        }
+    }
+
+    /**
+     * Cancel the request with given key and drop its response if it is completed
+     *
+     * @param key The key of the request
+     */
+    public void cancel(@NonNull String key) {
+        final Entry entry;
+        synchronized (this) {
+            mReplay.remove(key);
+            entry = mInFlight.remove(key);
+        }
+        if (entry != null) entry.request.cancel();
+    }
+
+    /**
+     * Cancel all requests and drop all responses which are not delivered
+     */
+    @Override
+    public void cancel() {
+        final List<Entry> entries;
+        synchronized (this) {
+            entries = new ArrayList<>(mInFlight.values());
+            mInFlight.clear();
+            mReplay.clear();
+        }
+        for (Entry entry : entries) {
+            entry.request.cancel();
+        }
+    }
+
+    /**
+     * @param key The key of the request
+     * @return true if the request with given key is in flight
+     */
+    public synchronized boolean isInFlight(@NonNull String key) {
+        return mInFlight.containsKey(key);
+    }
+
+    /**
+     * Attach the handler: responses of requests whose actions were detached are delivered through it,
+     * responses completed while no handler was attached are posted to it.
+     * Other attached handler is detached.
+     */
+    void attachHandler(@NonNull final ActionHandler handler) {
+        final Map<String, Entry> replay;
+        synchronized (this) {
+            if (mHandler == handler) return;
+            if (mHandler != null) detachActions();
+            mHandler = handler;
+            replay = new LinkedHashMap<>(mReplay);
+        }
+        if (replay.isEmpty()) return;
+        // posted, so listeners added to the handler right after attaching receive the responses
+        AUtils.postOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                for (Map.Entry<String, Entry> item : replay.entrySet()) {
+                    deliver(handler, item.getKey(), item.getValue());
+                }
+            }
+        });
+    }
+
+    /**
+     * Detach the handler and actions fired by it, their requests keep running.
+     */
+    synchronized void detachHandler(@NonNull ActionHandler handler) {
+        if (mHandler != handler) return;
+        mHandler = null;
+        detachActions();
+    }
+
+    private void detachActions() {
+        for (Entry entry : mInFlight.values()) {
+            entry.args = null;
+            entry.receiver = null;
+        }
+    }
+
+    private void addToReplay(@NonNull String key, @NonNull Entry entry) {
+        if (mReplaySize == 0) return;
+        mReplay.put(key, entry);
+        final Iterator<Entry> iterator = mReplay.values().iterator();
+        while (mReplay.size() > mReplaySize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private void deliver(
+            @NonNull final Receiver receiver,
+            @NonNull final ActionArgs args,
+            @Nullable final Object response,
+            @Nullable final Throwable error
+    ) {
+        AUtils.runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                receiver.onRetainedResponse(args, response, error);
+            }
+        });
+    }
+
+    private void deliver(@NonNull final ActionHandler handler, @NonNull final String key, @NonNull final Entry entry) {
+        AUtils.runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                final boolean delivered = handler.deliverRetainedResponse(
+                        entry.params, entry.fireActionType, entry.response, entry.error);
+                synchronized (RequestRegistry.this) {
+                    if (delivered) {
+                        if (mReplay.get(key) == entry) mReplay.remove(key);
+                    } else if (!mInFlight.containsKey(key) && !mReplay.containsKey(key)) {
+                        addToReplay(key, entry);
+                    }
+                }
+            }
+        });
+    }
+
+    private static class Entry {
+        @NonNull
+        final ActionParams params;
+        @Nullable
+        final String fireActionType;
+        @NonNull
+        final Cancelable request;
+        @Nullable
+        ActionArgs args;
+        @Nullable
+        Receiver receiver;
+        @Nullable
+        Object response;
+        @Nullable
+        Throwable error;
+
+        Entry(@NonNull ActionArgs args, @NonNull Receiver receiver, @NonNull Cancelable request) {
+            this.params = args.params;
+            this.fireActionType = args.fireActionType;
+            this.args = args;
+            this.receiver = receiver;
+            this.request = request;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import androidx.annotation.Nullable;
 import com.drextended.actionhandler.ActionArgs;
 import com.drextended.actionhandler.ActionParams;
 import com.drextended.actionhandler.listener.ActionFireInterceptor;
+import com.drextended.actionhandler.listener.ContextualActionFireInterceptor;
 import com.drextended.actionhandler.listener.OnActionDismissListener;
 import com.drextended.actionhandler.listener.OnActionErrorListener;
 import com.drextended.actionhandler.listener.OnActionFiredListener;
@@ -217,6 +218,32 @@ public abstract class BaseAction implements Action {
         }
     }
 
+    /**
+     * Check fire interceptors before firing nested action in the dispatch of given args.
+     * {@link ContextualActionFireInterceptor}s receive the dispatch context, so interception
+     * completes the result of the dispatch.
+     *
+     * @param args       The action args of this action
+     * @param actionType The action type of nested action
+     * @param action     The nested action
+     * @return true if the nested action was intercepted
+     */
+    protected boolean interceptActionFire(
+            @NonNull ActionArgs args,
+            @NonNull String actionType,
+            @NonNull Action action
+    ) {
+        if (mActionFireInterceptors != null) {
+            for (ActionFireInterceptor interceptor : mActionFireInterceptors) {
+                final boolean intercepted = interceptor instanceof ContextualActionFireInterceptor
+                        ? ((ContextualActionFireInterceptor) interceptor).onInterceptActionFire(args.params, actionType, action, args.context)
+                        : interceptor.onInterceptActionFire(args.params, actionType, action);
+                if (intercepted) return true;
+            }
+        }
+        return false;
+    }
+
     protected boolean interceptActionFire(
             @NonNull ActionParams actionParams,
             @NonNull String actionType,
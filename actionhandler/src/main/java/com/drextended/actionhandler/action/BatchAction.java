@@ -0,0 +1,40 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.action;
+
+import androidx.annotation.NonNull;
+
+import com.drextended.actionhandler.ActionArgs;
+
+import java.util.List;
+
+/**
+ * Action which can handle many models at once, when fired by
+ * {@link com.drextended.actionhandler.ActionHandler#fireBatch(android.content.Context, String, java.util.Collection, Object)}.
+ * Otherwise {@link #onFireAction(ActionArgs)} is called for each accepted model.
+ */
+public interface BatchAction extends Action {
+
+    /**
+     * Executes the action for all accepted models of a batch.
+     *
+     * @param args   The action params of the batch (its model is the collection of all models of the batch)
+     *               and type of the action which was actually executed.
+     * @param models The models of the batch accepted by this action
+     */
+    void onFireBatch(@NonNull ActionArgs args, @NonNull List<Object> models);
+}
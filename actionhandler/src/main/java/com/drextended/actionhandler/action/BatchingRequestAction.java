@@ -0,0 +1,361 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler.action;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.ActionArgs;
+import com.drextended.actionhandler.ActionHandler;
+import com.drextended.actionhandler.CancellationScope;
+import com.drextended.actionhandler.util.AUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Base action for requests which the backend can serve for many models at once, e.g. statuses or like counts
+ * of list items. Requests fired with the same action type are collected during a short window and made
+ * by one call of {@link BatchFunction}. The window is closed after given time since its first request
+ * or when it has max count of models. Requests for equal models in one window share one entry of the batch.
+ * The response of the batch is split back: each caller receives
+ * {@link #onResponseSuccess(ActionArgs, Object)} or {@link #onResponseError(ActionArgs, Throwable)}
+ * with its own args on the main thread. Callers whose cancellation scope is cancelled are dismissed
+ * with {@link ActionHandler#REASON_CANCELLED} instead.
+ *
+ * @param <RM> The type of network response for single model
+ * @param <M>  The type of model which can be handled
+ */
+public abstract class BatchingRequestAction<RM, M> extends RequestAction<RM, M> implements Cancelable {
+
+    /**
+     * Function which makes one backend call for a batch of requests
+     *
+     * @param <RM> The type of network response for single model
+     */
+    public interface BatchFunction<RM> {
+
+        /**
+         * Make one request for all given requests. The callback should be called once, on any thread.
+         *
+         * @param requests The args of requests in the batch, one per distinct model
+         * @param callback The callback to deliver responses
+         * @return the handle to cancel the request, or null if it can't be cancelled
+         */
+        @Nullable
+        Cancelable request(@NonNull List<ActionArgs> requests, @NonNull BatchCallback<RM> callback);
+    }
+
+    /**
+     * Callback for responses of a batch
+     *
+     * @param <RM> The type of network response for single model
+     */
+    public interface BatchCallback<RM> {
+
+        /**
+         * Called when the batch request succeeded.
+         * Requests without a response (if the list is shorter than the batch) receive an error.
+         *
+         * @param responses The responses in the same order as requests of the batch
+         */
+        void onSuccess(@NonNull List<? extends RM> responses);
+
+        /**
+         * Called when the batch request failed, all requests of the batch receive the error
+         *
+         * @param e The Error
+         */
+        void onError(@NonNull Throwable e);
+    }
+
+    @NonNull
+    protected final BatchFunction<RM> mBatchFunction;
+
+    protected final long mWindowMillis;
+
+    protected final int mMaxBatchSize;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    // Open windows by action types
+    private final Map<String, Window> mWindows = new HashMap<>();
+
+    // Batches in progress
+    private final Set<Batch> mBatches = Collections.newSetFromMap(new ConcurrentHashMap<Batch, Boolean>());
+
+    /**
+     * @param batchFunction The function to make one request for a batch
+     * @param windowMillis  Time in milliseconds to collect requests after the first one
+     * @param maxBatchSize  Max count of distinct models in a batch, the batch is made at once when reached
+     */
+    public BatchingRequestAction(@NonNull BatchFunction<RM> batchFunction, long windowMillis, int maxBatchSize) {
+        this(false, false, batchFunction, windowMillis, maxBatchSize);
+    }
+
+    /**
+     * @param showProgressEnabled Set true to show progress dialog while request
+     * @param showDialogEnabled   Set true to show dialog before action fired
+     * @param batchFunction       The function to make one request for a batch
+     * @param windowMillis        Time in milliseconds to collect requests after the first one
+     * @param maxBatchSize        Max count of distinct models in a batch, the batch is made at once when reached
+     */
+    public BatchingRequestAction(
+            boolean showProgressEnabled,
+            boolean showDialogEnabled,
+            @NonNull BatchFunction<RM> batchFunction,
+            long windowMillis,
+            int maxBatchSize
+    ) {
+        super(showProgressEnabled, showDialogEnabled);
+        if (windowMillis < 0) throw new IllegalArgumentException("windowMillis should not be negative");
+        if (maxBatchSize <= 0) throw new IllegalArgumentException("maxBatchSize should be positive");
+        mBatchFunction = batchFunction;
+        mWindowMillis = windowMillis;
+        mMaxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    protected void onMakeRequest(@NonNull ActionArgs args) {
+        final Window full;
+        synchronized (mWindows) {
+            Window window = mWindows.get(args.fireActionType);
+            if (window == null) {
+                window = new Window(args.fireActionType);
+                mWindows.put(args.fireActionType, window);
+                if (mMaxBatchSize > 1) mHandler.postDelayed(window, mWindowMillis);
+            }
+            window.add(args);
+            if (window.size() < mMaxBatchSize) return;
+            mWindows.remove(args.fireActionType);
+            mHandler.removeCallbacks(window);
+            full = window;
+        }
+        execute(full);
+    }
+
+    /**
+     * Make requests collected so far at once, without waiting for their windows to close
+     */
+    public void flush() {
+        final List<Window> windows;
+        synchronized (mWindows) {
+            windows = new ArrayList<>(mWindows.values());
+            mWindows.clear();
+        }
+        for (Window window : windows) {
+            mHandler.removeCallbacks(window);
+            execute(window);
+        }
+    }
+
+    /**
+     * Drops requests which are collected but not made yet and cancels batches in progress,
+     * their callers are dismissed with {@link ActionHandler#REASON_CANCELLED}.
+     * For actions collected by {@link ActionHandler} this method can be called by {@link ActionHandler#cancelAll()}
+     */
+    @Override
+    public void cancel() {
+        final List<List<ActionArgs>> callers = new ArrayList<>();
+        synchronized (mWindows) {
+            for (Window window : mWindows.values()) {
+                mHandler.removeCallbacks(window);
+                callers.addAll(window.callers.values());
+            }
+            mWindows.clear();
+        }
+        for (Batch batch : mBatches) {
+            if (batch.abort()) callers.addAll(batch.callers);
+        }
+        if (callers.isEmpty()) return;
+        AUtils.runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                for (List<ActionArgs> list : callers) {
+                    for (ActionArgs args : list) {
+                        notifyOnActionDismiss(args, ActionHandler.REASON_CANCELLED);
+                    }
+                }
+            }
+        });
+    }
+
+    private void execute(@NonNull Window window) {
+        final Batch batch = new Batch(window);
+        mBatches.add(batch);
+        try {
+            final Cancelable request = mBatchFunction.request(window.getRequests(), batch);
+            batch.setRequest(request);
+        } catch (RuntimeException e) {
+            batch.onError(e);
+        }
+    }
+
+    private static boolean isCancelled(@NonNull ActionArgs args) {
+        final CancellationScope scope = args.context.getCancellationScope();
+        return scope != null && scope.isCancelled();
+    }
+
+    /**
+     * Requests of one action type collected until the window is closed
+     */
+    private class Window implements Runnable {
+        final String fireActionType;
+
+        // Callers by models, in order of first request
+        final Map<Object, List<ActionArgs>> callers = new LinkedHashMap<>();
+
+        Window(String fireActionType) {
+            this.fireActionType = fireActionType;
+        }
+
+        void add(@NonNull ActionArgs args) {
+            List<ActionArgs> list = callers.get(args.params.model);
+            if (list == null) {
+                list = new ArrayList<>(1);
+                callers.put(args.params.model, list);
+            }
+            list.add(args);
+        }
+
+        int size() {
+            return callers.size();
+        }
+
+        @NonNull
+        List<ActionArgs> getRequests() {
+            final List<ActionArgs> requests = new ArrayList<>(callers.size());
+            for (List<ActionArgs> list : callers.values()) {
+                requests.add(list.get(0));
+            }
+            return requests;
+        }
+
+        @Override
+        public void run() {
+            synchronized (mWindows) {
+                if (mWindows.get(fireActionType) != this) return;
+                mWindows.remove(fireActionType);
+            }
+            execute(this);
+        }
+    }
+
+    /**
+     * Batch request in progress
+     */
+    private class Batch implements BatchCallback<RM>, Cancelable {
+        final List<List<ActionArgs>> callers;
+        final AtomicBoolean completed = new AtomicBoolean();
+        volatile boolean cancelled;
+        volatile Cancelable request;
+
+        Batch(@NonNull Window window) {
+            callers = new ArrayList<>(window.callers.values());
+        }
+
+        void setRequest(@Nullable Cancelable request) {
+            this.request = request;
+            if (request != null && cancelled) request.cancel();
+        }
+
+        @Override
+        public void onSuccess(@NonNull final List<? extends RM> responses) {
+            if (!complete()) return;
+            AUtils.runOnMainThread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < callers.size(); i++) {
+                        if (i < responses.size()) {
+                            deliverSuccess(callers.get(i), responses.get(i));
+                        } else {
+                            deliverError(callers.get(i), new IllegalStateException(
+                                    "No response for request " + i + " of batch of " + callers.size()));
+                        }
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onError(@NonNull final Throwable e) {
+            if (!complete()) return;
+            AUtils.runOnMainThread(new Runnable() {
+                @Override
+                public void run() {
+                    for (List<ActionArgs> list : callers) {
+                        deliverError(list, e);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void cancel() {
+            abort();
+        }
+
+        /**
+         * @return true if the batch was in progress and is cancelled by this call
+         */
+        boolean abort() {
+            if (!completed.compareAndSet(false, true)) return false;
+            cancelled = true;
+            mBatches.remove(this);
+            final Cancelable request = this.request;
+            if (request != null) request.cancel();
+            return true;
+        }
+
+        private boolean complete() {
+            if (!completed.compareAndSet(false, true)) return false;
+            mBatches.remove(this);
+            return true;
+        }
+
+        private void deliverSuccess(@NonNull List<ActionArgs> list, @Nullable RM response) {
+            for (ActionArgs args : list) {
+                if (isCancelled(args)) {
+                    notifyOnActionDismiss(args, ActionHandler.REASON_CANCELLED);
+                } else {
+                    onResponseSuccess(args, response);
+                }
+            }
+        }
+
+        private void deliverError(@NonNull List<ActionArgs> list, @NonNull Throwable e) {
+            for (ActionArgs args : list) {
+                if (isCancelled(args)) {
+                    notifyOnActionDismiss(args, ActionHandler.REASON_CANCELLED);
+                } else {
+                    onResponseError(args, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.action;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.ActionArgs;
+import com.drextended.actionhandler.util.AUtils;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Action which fires its stages one after another, e.g. confirm dialog, then request, then navigation.
+ * Each stage is fired when the previous one notifies fired event,
+ * the result of the previous stage is passed to the next one as {@link ActionArgs#input}.
+ * The chain notifies fired event with the result of the last stage, or error or dismiss event
+ * of the stage which failed or was dismissed. Events of stages are not passed to listeners of the chain.
+ * <p>
+ * Stages declared as {@link Stage#background(Action)} may be fired and may deliver their result
+ * on a background thread, so the flow between two background stages does not go through the main thread.
+ * Other stages are always fired on the main thread. Listeners of the chain are notified on the main thread.
+ * <p>
+ * A stage which is not a {@link BaseAction} has no events to wait for: the next stage is fired
+ * as soon as it returns, with null input. Stages which don't accept the model are skipped,
+ * their input is passed to the next stage. {@link #cancel()} stops the chains in progress
+ * at their current stage, the stage actions stay usable by other chains.
+ */
+public class ChainAction extends ContainerAction<ContainerAction.Run> {
+
+    @NonNull
+    protected final Stage[] mStages;
+
+    @Nullable
+    protected final Executor mBackgroundExecutor;
+
+    /**
+     * Creates chain of actions fired on the main thread
+     *
+     * @param actions The stages of the chain
+     */
+    public ChainAction(@NonNull Action... actions) {
+        this(null, toStages(actions));
+    }
+
+    /**
+     * @param backgroundExecutor The executor to fire background stages by, if previous stage was
+     *                           on the main thread. If null such stages are fired on the main thread,
+     *                           that is fine for asynchronous stages like {@link RxRequestAction}.
+     * @param stages             The stages of the chain
+     */
+    public ChainAction(@Nullable Executor backgroundExecutor, @NonNull Stage... stages) {
+        if (stages.length == 0) throw new IllegalArgumentException("Chain should have at least one stage");
+        mStages = stages;
+        mBackgroundExecutor = backgroundExecutor;
+        for (Stage stage : stages) {
+            mObserver.observe(stage.action);
+        }
+    }
+
+    @Override
+    public boolean isModelAccepted(Object model) {
+        return mStages[0].action.isModelAccepted(model);
+    }
+
+    @Override
+    public void onFireAction(@NonNull ActionArgs args) {
+        final Run run = new Run(args, mStages.length);
+        start(run);
+        fireStage(run, 0, args.input);
+    }
+
+    private void fireStage(@NonNull final Run run, final int index, @Nullable final Object input) {
+        if (run.finished) return;
+        if (index == mStages.length) {
+            finish(run, input, null, null);
+            return;
+        }
+        final Stage stage = mStages[index];
+        if (!stage.action.isModelAccepted(run.args.params.model)) {
+            fireStage(run, index + 1, input);
+            return;
+        }
+        final boolean mainThread = AUtils.isMainThread();
+        final Runnable fire = new Runnable() {
+            @Override
+            public void run() {
+                fireStageNow(run, index, input);
+            }
+        };
+        if (!stage.background && !mainThread) {
+            AUtils.postOnMainThread(fire);
+        } else if (stage.background && mainThread && mBackgroundExecutor != null) {
+            mBackgroundExecutor.execute(fire);
+        } else {
+            fire.run();
+        }
+    }
+
+    private void fireStageNow(@NonNull Run run, int index, @Nullable Object input) {
+        final boolean deliverOnMainThread = index + 1 == mStages.length || !mStages[index + 1].background;
+        final ActionArgs stageArgs = new ActionArgs(
+                run.args.params, run.args.fireActionType, run.context, input, deliverOnMainThread);
+        fireChild(run, index, mStages[index].action, stageArgs, null);
+    }
+
+    @Override
+    void onChildCompleted(
+            @NonNull Run run,
+            int index,
+            @Nullable Object result,
+            @Nullable Throwable error,
+            @Nullable String dismissReason
+    ) {
+        if (error != null || dismissReason != null) {
+            finish(run, null, error, dismissReason);
+        } else {
+            fireStage(run, index + 1, result);
+        }
+    }
+
+    @NonNull
+    @Override
+    String getChildName(int index) {
+        return "Stage " + index;
+    }
+
+    @NonNull
+    private static Stage[] toStages(@NonNull Action[] actions) {
+        final Stage[] stages = new Stage[actions.length];
+        for (int i = 0; i < actions.length; i++) {
+            stages[i] = Stage.main(actions[i]);
+        }
+        return stages;
+    }
+
+    /**
+     * Stage of the chain: an action and the thread it should be fired on
+     */
+    public static class Stage {
+
+        @NonNull
+        public final Action action;
+
+        /**
+         * True if the action may be fired and may notify its result on a background thread
+         */
+        public final boolean background;
+
+        protected Stage(@NonNull Action action, boolean background) {
+            this.action = action;
+            this.background = background;
+        }
+
+        /**
+         * Stage which should be fired on the main thread, e.g. dialog or navigation
+         *
+         * @param action The action
+         * @return the stage
+         */
+        public static Stage main(@NonNull Action action) {
+            return new Stage(action, false);
+        }
+
+        /**
+         * Stage which may be fired on a background thread and may notify its result on it,
+         * e.g. {@link RxRequestAction} without progress dialog or an action doing blocking work.
+         *
+         * @param action The action
+         * @return the stage
+         */
+        public static Stage background(@NonNull Action action) {
+            return new Stage(action, true);
+        }
+    }
+}
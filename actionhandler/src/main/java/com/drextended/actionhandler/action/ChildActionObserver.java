@@ -0,0 +1,185 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.action;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.ActionArgs;
+import com.drextended.actionhandler.CancellationScope;
+import com.drextended.actionhandler.DispatchContext;
+import com.drextended.actionhandler.listener.OnActionDismissListener;
+import com.drextended.actionhandler.listener.OnActionErrorListener;
+import com.drextended.actionhandler.listener.OnActionFiredListener;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Fires child actions of a container action (chain, parallel, graph) and routes their completion
+ * back to the container. Completion events are correlated by identity of {@link ActionArgs}
+ * the child was fired with, so one child can be shared by several containers and fired concurrently.
+ * Actions which are not {@link BaseAction}s can't notify listeners and are completed
+ * with null result right after {@link Action#onFireAction(ActionArgs)} returns.
+ * <p>
+ * Children of one run of a container are fired with the context of {@link #createRunContext(ActionArgs)},
+ * so the work they register in its scope (e.g. requests of {@link RxRequestAction}) can be cancelled
+ * for the run only, without cancelling the child actions which may be shared.
+ */
+class ChildActionObserver implements OnActionFiredListener, OnActionErrorListener, OnActionDismissListener {
+
+    /**
+     * Callback for completion of a child action. Called on the thread the child notifies on.
+     */
+    interface Callback {
+
+        void onChildFired(@NonNull ActionArgs args, @Nullable Object result);
+
+        void onChildError(@NonNull ActionArgs args, @Nullable Throwable throwable);
+
+        void onChildDismiss(@NonNull ActionArgs args, @Nullable String reason);
+    }
+
+    // Children fired and not completed yet
+    private final Map<ActionArgs, Callback> mPending = new IdentityHashMap<>();
+
+    /**
+     * Creates context for children of one run of a container, with own cancellation scope
+     * which is a child of the scope of the dispatch, if any.
+     *
+     * @param args The args the container was fired with
+     * @return the context for children of the run
+     */
+    @NonNull
+    static DispatchContext createRunContext(@NonNull ActionArgs args) {
+        final CancellationScope parent = args.context.getCancellationScope();
+        return args.context.withCancellationScope(parent != null ? parent.createChild() : new CancellationScope());
+    }
+
+    /**
+     * Cancel work registered by children of the run and stop the scope of the run
+     *
+     * @param context The context created by {@link #createRunContext(ActionArgs)}
+     */
+    static void cancelRun(@NonNull DispatchContext context) {
+        final CancellationScope scope = context.getCancellationScope();
+        if (scope != null) scope.cancel();
+    }
+
+    /**
+     * Subscribe to completion events of the child. Should be called once for each child,
+     * before the child is fired for the first time.
+     *
+     * @param child The child action
+     */
+    void observe(@NonNull Action child) {
+        if (child instanceof BaseAction) {
+            final BaseAction action = (BaseAction) child;
+            action.addActionFiredListener(this);
+            action.addActionErrorListener(this);
+            action.addActionDismissListener(this);
+        }
+    }
+
+    /**
+     * Fire the child action on the current thread
+     *
+     * @param child    The child action
+     * @param args     The args to fire the child with. Should be new instance for each fire.
+     * @param callback The callback to notify when the child completes
+     */
+    void fire(@NonNull Action child, @NonNull ActionArgs args, @NonNull Callback callback) {
+        final boolean notifies = child instanceof BaseAction;
+        if (notifies) {
+            synchronized (mPending) {
+                mPending.put(args, callback);
+            }
+        }
+        try {
+            child.onFireAction(args);
+        } catch (RuntimeException e) {
+            if (!notifies || forget(args)) callback.onChildError(args, e);
+            return;
+        }
+        if (!notifies) callback.onChildFired(args, null);
+    }
+
+    /**
+     * Fire the child action by given executor, or on the current thread if executor is null.
+     *
+     * @param executor The executor to fire the child by
+     * @param child    The child action
+     * @param args     The args to fire the child with. Should be new instance for each fire.
+     * @param callback The callback to notify when the child completes
+     */
+    void fire(
+            @Nullable Executor executor,
+            @NonNull final Action child,
+            @NonNull final ActionArgs args,
+            @NonNull final Callback callback
+    ) {
+        if (executor == null) {
+            fire(child, args, callback);
+            return;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                fire(child, args, callback);
+            }
+        });
+    }
+
+    /**
+     * Stop waiting for completion of the child fired with given args, e.g. if it was cancelled.
+     *
+     * @param args The args the child was fired with
+     * @return true if the child was not completed yet
+     */
+    boolean forget(@Nullable ActionArgs args) {
+        if (args == null) return false;
+        synchronized (mPending) {
+            return mPending.remove(args) != null;
+        }
+    }
+
+    @Override
+    public void onActionFired(@NonNull ActionArgs args, @Nullable Object result) {
+        final Callback callback = take(args);
+        if (callback != null) callback.onChildFired(args, result);
+    }
+
+    @Override
+    public void onActionError(@NonNull ActionArgs args, @Nullable Throwable throwable) {
+        final Callback callback = take(args);
+        if (callback != null) callback.onChildError(args, throwable);
+    }
+
+    @Override
+    public void onActionDismiss(@NonNull ActionArgs args, @Nullable String reason) {
+        final Callback callback = take(args);
+        if (callback != null) callback.onChildDismiss(args, reason);
+    }
+
+    @Nullable
+    private Callback take(@NonNull ActionArgs args) {
+        synchronized (mPending) {
+            return mPending.remove(args);
+        }
+    }
+}
@@ -42,11 +42,15 @@ import androidx.core.content.ContextCompat;
 import androidx.core.graphics.drawable.DrawableCompat;
 
 import com.drextended.actionhandler.ActionArgs;
+import com.drextended.actionhandler.ActionGate;
+import com.drextended.actionhandler.DispatchContext;
 import com.drextended.actionhandler.R;
 import com.drextended.actionhandler.listener.ActionFireInterceptor;
 import com.drextended.actionhandler.listener.OnActionDismissListener;
 import com.drextended.actionhandler.listener.OnActionErrorListener;
 import com.drextended.actionhandler.listener.OnActionFiredListener;
+import com.drextended.actionhandler.util.AcceptCondition;
+import com.drextended.actionhandler.util.AcceptConditions;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
@@ -63,13 +67,17 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @param <M> model type
  */
 @SuppressWarnings("SameParameterValue")
-public class CompositeAction<M> extends BaseAction {
+public class CompositeAction<M> extends BaseAction implements Cancelable {
 
     /**
      * Actions for show in a menu (dialog or popup window) and fire if is accepted
      */
     protected final ActionItem[] mActions;
 
+    // Context of the dispatch which prepares the menu now, see prepareMenuListItems(Object)
+    @Nullable
+    private DispatchContext mMenuContext;
+
     /**
      * Provider of menu title. Used if menu shows as a dialog
      */
@@ -86,6 +94,13 @@ public class CompositeAction<M> extends BaseAction {
     // True for show non accepted actions in menu as disabled, false to hide them.
     protected boolean mShowNonAcceptedActions;
 
+    // Kill switch of action types. Set by ActionHandler this action was added to.
+    @Nullable
+    protected ActionGate mActionGate;
+
+    // True for show items with disabled action types in menu as disabled, false to hide them.
+    protected boolean mShowGatedActions;
+
     /**
      * Specific type of action which can contain a few other actions, show them as menu items,
      * and fire an action, if corresponding item clicked.
@@ -204,6 +219,54 @@ public class CompositeAction<M> extends BaseAction {
         mShowNonAcceptedActions = showNonAcceptedActions;
     }
 
+    /**
+     * Set the gate to check if action types of items are enabled.
+     * Called by {@link com.drextended.actionhandler.ActionHandler} this action is added to,
+     * propagated to nested composite actions.
+     *
+     * @param actionGate The action gate
+     */
+    public void setActionGate(@Nullable ActionGate actionGate) {
+        mActionGate = actionGate;
+        for (ActionItem item : mActions) {
+            if (item.action instanceof CompositeAction) {
+                ((CompositeAction) item.action).setActionGate(actionGate);
+            }
+        }
+    }
+
+    /**
+     * Flag for settings how items with disabled action types (see {@link ActionGate}) should be showed in the menu.
+     *
+     * @param showGatedActions true for show items with disabled action types as disabled, false to hide them.
+     */
+    public void setShowGatedActions(boolean showGatedActions) {
+        mShowGatedActions = showGatedActions;
+    }
+
+    /**
+     * Check if action type of given item is enabled by {@link ActionGate}
+     *
+     * @param item The action item to check
+     * @return true if action type of the item is enabled
+     */
+    protected boolean isItemEnabled(@NonNull ActionItem item) {
+        final ActionGate actionGate = mActionGate;
+        return actionGate == null || actionGate.isEnabled(item.actionType);
+    }
+
+    /**
+     * Check if given item can be fired: its action type is enabled and its action accepts given model
+     *
+     * @param item    The action item to check
+     * @param model   The model to check if it can be handled.
+     * @param context The context of current dispatch, which memoizes acceptance checks
+     * @return true if given item can be fired
+     */
+    protected boolean isItemAvailable(@NonNull ActionItem item, @Nullable Object model, @NonNull DispatchContext context) {
+        return isItemEnabled(item) && item.isModelAccepted(model, context);
+    }
+
     /**
      * Check if there is at least one action which can handle given model
      *
@@ -212,8 +275,20 @@ public class CompositeAction<M> extends BaseAction {
      */
     @Override
     public boolean isModelAccepted(Object model) {
+        return isModelAccepted(model, new DispatchContext());
+    }
+
+    /**
+     * Check if there is at least one action which can handle given model and whose action type
+     * is enabled by {@link ActionGate}. Results of checking actions are memoized by given dispatch context.
+     *
+     * @param model   The model to check if it can be handled.
+     * @param context The context of current dispatch
+     * @return true if there is at least one enabled action which can handle given model, false otherwise.
+     */
+    public boolean isModelAccepted(@Nullable Object model, @NonNull DispatchContext context) {
         for (ActionItem action : mActions) {
-            if (action.action.isModelAccepted(model)) return true;
+            if (isItemAvailable(action, model, context)) return true;
         }
         return false;
     }
@@ -221,13 +296,14 @@ public class CompositeAction<M> extends BaseAction {
     /**
      * Count actions which can handle given model
      *
-     * @param model The model to check if it can be handled.
+     * @param model   The model to check if it can be handled.
+     * @param context The context of current dispatch
      * @return Count for actions which can handle given model
      */
-    private int getAcceptedActionCount(@Nullable Object model) {
+    private int getAcceptedActionCount(@Nullable Object model, @NonNull DispatchContext context) {
         int count = 0;
         for (ActionItem action : mActions) {
-            if (action.action.isModelAccepted(model)) count++;
+            if (isItemAvailable(action, model, context)) count++;
         }
         return count;
     }
@@ -235,21 +311,22 @@ public class CompositeAction<M> extends BaseAction {
     /**
      * Returns first action which can handle given model
      *
-     * @param model The model to check if it can be handled.
+     * @param model   The model to check if it can be handled.
+     * @param context The context of current dispatch
      * @return first action which can handle given model
      */
     @Nullable
-    private ActionItem getFirstAcceptedActionItem(@Nullable Object model) {
+    private ActionItem getFirstAcceptedActionItem(@Nullable Object model, @NonNull DispatchContext context) {
         for (ActionItem action : mActions) {
-            if (action.action.isModelAccepted(model)) return action;
+            if (isItemAvailable(action, model, context)) return action;
         }
         return null;
     }
 
     @Override
     public void onFireAction(@NonNull ActionArgs args) {
-        if (!mDisplayDialogForSingleAction && getAcceptedActionCount(args.params.model) == 1) {
-            final ActionItem actionItem = getFirstAcceptedActionItem(args.params.model);
+        if (!mDisplayDialogForSingleAction && getAcceptedActionCount(args.params.model, args.context) == 1) {
+            final ActionItem actionItem = getFirstAcceptedActionItem(args.params.model, args.context);
             if (actionItem != null) {
                 fireActionItem(args, actionItem);
             }
@@ -258,10 +335,21 @@ public class CompositeAction<M> extends BaseAction {
         }
     }
 
+    /**
+     * Cancel all nested actions which are {@link Cancelable}, so cancellation of this action
+     * (e.g. by {@link com.drextended.actionhandler.ActionHandler#cancelAll()}) reaches them too.
+     */
+    @Override
+    public void cancel() {
+        for (ActionItem item : mActions) {
+            if (item.action instanceof Cancelable) ((Cancelable) item.action).cancel();
+        }
+    }
+
     private void fireActionItem(@NonNull ActionArgs args, @NonNull ActionItem actionItem) {
-        if (!interceptActionFire(args.params, actionItem.actionType, actionItem.action)) {
+        if (!interceptActionFire(args, actionItem.actionType, actionItem.action)) {
             notifyOnActionFired(args);
-            actionItem.action.onFireAction(new ActionArgs(args.params, actionItem.actionType));
+            actionItem.action.onFireAction(new ActionArgs(args.params, actionItem.actionType, args.context));
         }
     }
 
@@ -274,7 +362,13 @@ public class CompositeAction<M> extends BaseAction {
     protected void showMenu(@NonNull final ActionArgs args) {
 
         // prepare menu items
-        final List<ActionItem> menuItems = prepareMenuListItems(args.params.model);
+        final List<ActionItem> menuItems;
+        mMenuContext = args.context;
+        try {
+            menuItems = prepareMenuListItems(args.params.model);
+        } finally {
+            mMenuContext = null;
+        }
 
         if (mShowAsPopupMenuEnabled) {
             final View view = args.params.tryGetView();
@@ -291,13 +385,13 @@ public class CompositeAction<M> extends BaseAction {
             String title = mTitleProvider.getTitle(args.params.appContext, (M) args.params.model);
             AlertDialog.Builder builder = buildAlertDialog(args, menuItems, title);
             final AlertDialog dialog = builder.create();
-            if (mShowNonAcceptedActions) {
+            if (mShowNonAcceptedActions || mShowGatedActions) {
                 final AdapterView.OnItemClickListener clickListener = dialog.getListView().getOnItemClickListener();
                 if (clickListener != null) {
                     dialog.getListView().setOnItemClickListener(new AdapterView.OnItemClickListener() {
                         @Override
                         public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
-                            if (menuItems.get(position).action.isModelAccepted(args.params.model)) {
+                            if (isItemAvailable(menuItems.get(position), args.params.model, args.context)) {
                                 clickListener.onItemClick(parent, view, position, id);
                             }
                         }
@@ -312,18 +406,34 @@ public class CompositeAction<M> extends BaseAction {
     }
 
     /**
-     * Prepare menu items to show in a menu
+     * Prepare menu items to show in a menu. Called by {@link #showMenu(ActionArgs)},
+     * by default delegates to {@link #prepareMenuListItems(Object, DispatchContext)}
+     * with the context of the dispatch which shows the menu.
      *
      * @param model The model which should be handled by the action.
      * @return list of menu items
      */
     @NonNull
     protected List<ActionItem> prepareMenuListItems(@Nullable Object model) {
-        if (mShowNonAcceptedActions) return Arrays.asList(mActions);
+        final DispatchContext context = mMenuContext;
+        return prepareMenuListItems(model, context != null ? context : new DispatchContext());
+    }
+
+    /**
+     * Prepare menu items to show in a menu
+     *
+     * @param model   The model which should be handled by the action.
+     * @param context The context of current dispatch, which memoizes acceptance checks
+     * @return list of menu items
+     */
+    @NonNull
+    protected List<ActionItem> prepareMenuListItems(@Nullable Object model, @NonNull DispatchContext context) {
+        if (mShowNonAcceptedActions && mShowGatedActions) return Arrays.asList(mActions);
         int count = mActions.length;
         final List<ActionItem> menuItems = new ArrayList<>(count);
         for (final ActionItem item : mActions) {
-            if (item.action.isModelAccepted(model)) {
+            if ((mShowGatedActions || isItemEnabled(item))
+                    && (mShowNonAcceptedActions || item.isModelAccepted(model, context))) {
                 menuItems.add(item);
             }
         }
@@ -348,8 +458,8 @@ public class CompositeAction<M> extends BaseAction {
             final ActionItem item = menuItems.get(index);
             //noinspection unchecked
             menu.add(0, index, 0, item.titleProvider.getTitle(context, args.params.model));
-            if (mShowNonAcceptedActions) {
-                menu.getItem(index).setEnabled(item.action.isModelAccepted(args.params.model));
+            if (mShowNonAcceptedActions || mShowGatedActions) {
+                menu.getItem(index).setEnabled(isItemAvailable(item, args.params.model, args.context));
             }
         }
         final AtomicBoolean activated = new AtomicBoolean(false);
@@ -393,16 +503,18 @@ public class CompositeAction<M> extends BaseAction {
 
         final Object model = args.params.model;
         MenuItemsAdapter adapter = new MenuItemsAdapter(
+                this,
+                args.context,
                 getMenuItemLayoutResId(),
                 menuItems,
                 model,
-                mShowNonAcceptedActions
+                mShowNonAcceptedActions || mShowGatedActions
         );
         builder.setAdapter(adapter, new DialogInterface.OnClickListener() {
             @Override
             public void onClick(DialogInterface dialog, int which) {
                 final ActionItem actionItem = menuItems.get(which);
-                if (actionItem.action.isModelAccepted(model)) {
+                if (isItemAvailable(actionItem, model, args.context)) {
                     fireActionItem(args, actionItem);
                 }
             }
@@ -575,6 +687,11 @@ public class CompositeAction<M> extends BaseAction {
          * Action associated with this item.
          */
         public final Action action;
+        /**
+         * Additional condition to show this item for a model, checked before the action's one.
+         */
+        @Nullable
+        public final AcceptCondition acceptCondition;
 
         /**
          * @param actionType         The action type associated with this item.
@@ -623,10 +740,47 @@ public class CompositeAction<M> extends BaseAction {
          * @param titleProvider The provider for corresponding menu item's title
          */
         public ActionItem(String actionType, Action action, IconProvider<M> iconProvider, TitleProvider<M> titleProvider) {
+            this(actionType, action, iconProvider, titleProvider, null);
+        }
+
+        /**
+         * @param actionType         The action type associated with this item.
+         * @param action             The action associated with this item.
+         * @param menuItemTitleResId The resource id for the title associated with this item.
+         * @param acceptCondition    Additional condition to show this item for a model.
+         *                           Condition built by {@link AcceptConditions} is compiled.
+         */
+        public ActionItem(String actionType, Action action, @StringRes int menuItemTitleResId, @Nullable AcceptCondition acceptCondition) {
+            this(actionType, action, null, new SimpleTitleProvider<M>(menuItemTitleResId), acceptCondition);
+        }
+
+        /**
+         * @param actionType      The action type associated with this item.
+         * @param action          The action associated with this item.
+         * @param iconProvider    The provider for icon associated with this item.
+         * @param titleProvider   The provider for corresponding menu item's title
+         * @param acceptCondition Additional condition to show this item for a model.
+         *                        Condition built by {@link AcceptConditions} is compiled.
+         */
+        public ActionItem(String actionType, Action action, IconProvider<M> iconProvider, TitleProvider<M> titleProvider,
+                          @Nullable AcceptCondition acceptCondition) {
             this.iconProvider = iconProvider;
             this.actionType = actionType;
             this.action = action;
             this.titleProvider = titleProvider;
+            this.acceptCondition = AcceptConditions.compile(acceptCondition);
+        }
+
+        /**
+         * Check if this item can handle given model: both accept condition and the action accept it
+         *
+         * @param model   The model to check if it can be handled.
+         * @param context The context of current dispatch, which memoizes acceptance checks of the action
+         * @return true if this item can handle given model
+         */
+        public boolean isModelAccepted(@Nullable Object model, @NonNull DispatchContext context) {
+            return (acceptCondition == null || acceptCondition.isModelAccepted(model))
+                    && context.isModelAccepted(action, model);
         }
     }
 
@@ -732,13 +886,17 @@ public class CompositeAction<M> extends BaseAction {
     }
 
     private static class MenuItemsAdapter extends BaseAdapter {
+        private final CompositeAction<?> mAction;
+        private final DispatchContext mContext;
         private final int mItemLayoutResId;
         private final List<ActionItem> mItems;
         private final Object mModel;
         private final boolean mShowNonAcceptedActions;
         private final boolean mHasIcons;
 
-        public MenuItemsAdapter(@LayoutRes int itemLayoutResId, List<ActionItem> menuItems, Object model, boolean showNonAcceptedActions) {
+        public MenuItemsAdapter(CompositeAction<?> action, DispatchContext context, @LayoutRes int itemLayoutResId, List<ActionItem> menuItems, Object model, boolean showNonAcceptedActions) {
+            mAction = action;
+            mContext = context;
             mItemLayoutResId = itemLayoutResId;
             mItems = menuItems;
             mModel = model;
@@ -769,7 +927,7 @@ public class CompositeAction<M> extends BaseAction {
 
             boolean modelAccepted = true;
             if (mShowNonAcceptedActions) {
-                modelAccepted = item.action.isModelAccepted(mModel);
+                modelAccepted = mAction.isItemAvailable(item, mModel, mContext);
                 viewHolder.itemView.setEnabled(modelAccepted);
             }
             //noinspection unchecked
@@ -0,0 +1,209 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler.action;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.ActionArgs;
+import com.drextended.actionhandler.ActionHandler;
+import com.drextended.actionhandler.DispatchContext;
+import com.drextended.actionhandler.util.AUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Base of actions which fire child actions for each of their own fires (chain, parallel, graph).
+ * Keeps runs in progress, fires children of a run through {@link ChildActionObserver}
+ * and notifies the outcome of a run on the main thread.
+ *
+ * @param <R> type of the run
+ */
+abstract class ContainerAction<R extends ContainerAction.Run> extends BaseAction implements Cancelable {
+
+    private static final Executor MAIN_THREAD = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            AUtils.runOnMainThread(command);
+        }
+    };
+
+    final ChildActionObserver mObserver = new ChildActionObserver();
+
+    private final Set<R> mRuns = Collections.newSetFromMap(new ConcurrentHashMap<R, Boolean>());
+
+    /**
+     * Called when a child of the run completes, unless the run is finished already
+     *
+     * @param run           The run
+     * @param index         The index of the child
+     * @param result        The result of the child, if it was fired
+     * @param error         The error of the child, if it failed
+     * @param dismissReason The reason, if the child was dismissed
+     */
+    abstract void onChildCompleted(
+            @NonNull R run,
+            int index,
+            @Nullable Object result,
+            @Nullable Throwable error,
+            @Nullable String dismissReason
+    );
+
+    /**
+     * @param index The index of the child
+     * @return the name of the child for messages of default errors and dismiss reasons
+     */
+    @NonNull
+    abstract String getChildName(int index);
+
+    /**
+     * Stops all runs in progress: children they wait for are no longer observed, the work
+     * registered in the cancellation scopes of the runs is cancelled and the runs are dismissed
+     * with {@link ActionHandler#REASON_CANCELLED}.
+     */
+    @Override
+    public void cancel() {
+        final List<R> runs = new ArrayList<>(mRuns);
+        mRuns.clear();
+        for (R run : runs) {
+            finish(run, null, null, ActionHandler.REASON_CANCELLED);
+        }
+    }
+
+    void start(@NonNull R run) {
+        mRuns.add(run);
+    }
+
+    /**
+     * @return the executor to fire the child by: dialogs are shown on the main thread, others by given executor
+     */
+    @Nullable
+    static Executor getChildExecutor(@NonNull Action child, @Nullable Executor executor) {
+        return child instanceof DialogAction ? MAIN_THREAD : executor;
+    }
+
+    /**
+     * Fire the child for the run by given executor, or on the current thread if it is null.
+     * Does nothing if the run is finished.
+     */
+    void fireChild(
+            @NonNull final R run,
+            final int index,
+            @NonNull Action child,
+            @NonNull ActionArgs childArgs,
+            @Nullable Executor executor
+    ) {
+        synchronized (run) {
+            if (run.finished) return;
+            run.childArgs[index] = childArgs;
+        }
+        mObserver.fire(executor, child, childArgs, new ChildActionObserver.Callback() {
+            @Override
+            public void onChildFired(@NonNull ActionArgs args, @Nullable Object result) {
+                if (settle(run, index)) onChildCompleted(run, index, result, null, null);
+            }
+
+            @Override
+            public void onChildError(@NonNull ActionArgs args, @Nullable Throwable throwable) {
+                if (!settle(run, index)) return;
+                onChildCompleted(run, index, null,
+                        throwable == null ? new IllegalStateException(getChildName(index) + " failed") : throwable, null);
+            }
+
+            @Override
+            public void onChildDismiss(@NonNull ActionArgs args, @Nullable String reason) {
+                if (!settle(run, index)) return;
+                onChildCompleted(run, index, null, null, reason == null ? getChildName(index) + " dismissed" : reason);
+            }
+        });
+    }
+
+    private static boolean settle(@NonNull Run run, int index) {
+        synchronized (run) {
+            if (run.finished) return false;
+            run.childArgs[index] = null;
+            return true;
+        }
+    }
+
+    /**
+     * Stop the run and notify its outcome on the main thread, if it was not stopped yet
+     */
+    void finish(
+            @NonNull final R run,
+            @Nullable final Object result,
+            @Nullable final Throwable error,
+            @Nullable final String dismissReason
+    ) {
+        if (!stop(run)) return;
+        AUtils.runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                if (error != null) {
+                    notifyOnActionError(run.args, error);
+                } else if (dismissReason != null) {
+                    notifyOnActionDismiss(run.args, dismissReason);
+                } else {
+                    notifyOnActionFired(run.args, result);
+                }
+            }
+        });
+    }
+
+    /**
+     * Mark the run finished, forget its running children and cancel the scope of the run
+     *
+     * @return false if the run was already finished
+     */
+    boolean stop(@NonNull R run) {
+        synchronized (run) {
+            if (run.finished) return false;
+            run.finished = true;
+            for (int i = 0; i < run.childArgs.length; i++) {
+                mObserver.forget(run.childArgs[i]);
+                run.childArgs[i] = null;
+            }
+        }
+        mRuns.remove(run);
+        ChildActionObserver.cancelRun(run.context);
+        return true;
+    }
+
+    /**
+     * One fire of the container. Guarded by itself.
+     */
+    static class Run {
+        final ActionArgs args;
+        // Context children of the run are fired with, see ChildActionObserver#createRunContext
+        final DispatchContext context;
+        // Args of running children by index, to stop observing them if the run is stopped
+        final ActionArgs[] childArgs;
+        volatile boolean finished;
+
+        Run(@NonNull ActionArgs args, int childCount) {
+            this.args = args;
+            this.context = ChildActionObserver.createRunContext(args);
+            this.childArgs = new ActionArgs[childCount];
+        }
+    }
+}
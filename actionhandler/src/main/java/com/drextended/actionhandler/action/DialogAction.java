@@ -22,6 +22,7 @@ import android.content.DialogInterface;
 import android.view.View;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 
 import com.drextended.actionhandler.ActionArgs;
@@ -126,10 +127,12 @@ public abstract class DialogAction<M> extends BaseAction {
 
     /**
      * Executes the action. Called if positive button on a dialog was clicked.
+     * By default notifies fired event, so a dialog can be used as confirmation stage of {@link ChainAction}.
      *
      * @param args The action params, which appointed to the view and actually actionType
      */
     protected void onDialogActionFire(@NonNull final ActionArgs args) {
+        notifyOnActionFired(args, args.input);
     }
 
     /**
@@ -149,7 +152,7 @@ public abstract class DialogAction<M> extends BaseAction {
      *
      * @param <M>
      */
-    private static class DialogActionWrapper<M> extends DialogAction<M> {
+    private static class DialogActionWrapper<M> extends DialogAction<M> implements ModelClassAction, Cancelable {
         private final Action mAction;
         private final String mDialogMessage;
 
@@ -173,6 +176,12 @@ public abstract class DialogAction<M> extends BaseAction {
         @Override
         protected void onDialogActionFire(@NonNull ActionArgs args) {
             if (mAction != null) mAction.onFireAction(args);
+            if (!(mAction instanceof BaseAction)) notifyOnActionFired(args);
+        }
+
+        @Override
+        public void cancel() {
+            if (mAction instanceof Cancelable) ((Cancelable) mAction).cancel();
         }
 
         @Override
@@ -180,6 +189,12 @@ public abstract class DialogAction<M> extends BaseAction {
             return mAction != null && mAction.isModelAccepted(model);
         }
 
+        @Nullable
+        @Override
+        public Class<?> acceptedModelClass() {
+            return mAction instanceof ModelClassAction ? ((ModelClassAction) mAction).acceptedModelClass() : null;
+        }
+
         @Override
         public void addActionFiredListener(OnActionFiredListener listener) {
             super.addActionFiredListener(listener);
@@ -0,0 +1,313 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.action;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.ActionArgs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Action which fires a dependency graph of actions. Each node wraps an action and declares
+ * the earlier nodes whose results it requires. A node is fired as soon as all its required nodes
+ * notify fired event, so independent nodes run concurrently.
+ * The node receives results of required nodes as {@link ActionArgs#input},
+ * a {@code Map<String, Object>} by node name. Nodes without requirements receive input of this action.
+ * <p>
+ * If a node fails or is dismissed, all nodes which depend on it directly or transitively are cancelled,
+ * independent nodes are completed, and then this action notifies error (or dismiss) of the first failed node.
+ * Otherwise this action notifies fired event with results of all nodes, a {@code Map<String, Object>} by node name.
+ * <p>
+ * {@link DialogAction}s (and so {@link RequestAction}s) are fired on the main thread,
+ * other nodes are fired by the executor if it is set. A node which is not a {@link BaseAction}
+ * unblocks its dependents as soon as it returns, its result is null. Nodes which don't accept
+ * the model are skipped, with null result. Listeners are notified on the main thread.
+ * <p>
+ * {@link #cancel()} abandons the graph runs in progress: waiting nodes are never fired and the requests
+ * running nodes made for the run are cancelled, while node actions remain available to other graphs.
+ */
+public class GraphAction extends ContainerAction<GraphAction.Run> {
+
+    private static final int STATE_WAITING = 0;
+    private static final int STATE_RUNNING = 1;
+    private static final int STATE_DONE = 2;
+    private static final int STATE_FAILED = 3;
+    private static final int STATE_CANCELLED = 4;
+
+    @NonNull
+    protected final Node[] mNodes;
+
+    @Nullable
+    protected final Executor mExecutor;
+
+    // Indices of nodes which require the node, by index of the node
+    private final int[][] mDependents;
+
+    // Indices of nodes required by the node, by index of the node
+    private final int[][] mRequirements;
+
+    protected GraphAction(@NonNull List<Node> nodes, @Nullable Executor executor) {
+        mNodes = nodes.toArray(new Node[nodes.size()]);
+        mExecutor = executor;
+        final Map<String, Integer> indices = new HashMap<>();
+        final List<List<Integer>> dependents = new ArrayList<>();
+        mRequirements = new int[mNodes.length][];
+        for (int i = 0; i < mNodes.length; i++) {
+            final Node node = mNodes[i];
+            mRequirements[i] = new int[node.requires.length];
+            for (int r = 0; r < node.requires.length; r++) {
+                final int required = indices.get(node.requires[r]);
+                mRequirements[i][r] = required;
+                dependents.get(required).add(i);
+            }
+            indices.put(node.name, i);
+            dependents.add(new ArrayList<Integer>());
+            mObserver.observe(node.action);
+        }
+        mDependents = new int[mNodes.length][];
+        for (int i = 0; i < mNodes.length; i++) {
+            final List<Integer> list = dependents.get(i);
+            mDependents[i] = new int[list.size()];
+            for (int d = 0; d < list.size(); d++) {
+                mDependents[i][d] = list.get(d);
+            }
+        }
+    }
+
+    @Override
+    public boolean isModelAccepted(Object model) {
+        for (Node node : mNodes) {
+            if (node.requires.length == 0 && node.action.isModelAccepted(model)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void onFireAction(@NonNull ActionArgs args) {
+        final Run run = new Run(args, mNodes.length);
+        start(run);
+        final List<Integer> ready = new ArrayList<>();
+        synchronized (run) {
+            for (int i = 0; i < mNodes.length; i++) {
+                if (run.waitingFor[i] == 0) {
+                    run.states[i] = STATE_RUNNING;
+                    ready.add(i);
+                }
+            }
+        }
+        fireNodes(run, ready);
+        if (mNodes.length == 0) finish(run);
+    }
+
+    private void fireNodes(@NonNull Run run, @NonNull List<Integer> indices) {
+        for (Integer index : indices) {
+            fireNode(run, index);
+        }
+    }
+
+    private void fireNode(@NonNull Run run, int index) {
+        final Node node = mNodes[index];
+        if (!node.action.isModelAccepted(run.args.params.model)) {
+            onChildCompleted(run, index, null, null, null);
+            return;
+        }
+        final ActionArgs nodeArgs;
+        synchronized (run) {
+            if (run.finished) return;
+            nodeArgs = new ActionArgs(run.args.params, run.args.fireActionType, run.context,
+                    getInput(run, index), false);
+        }
+        fireChild(run, index, node.action, nodeArgs, getChildExecutor(node.action, mExecutor));
+    }
+
+    @Nullable
+    private Object getInput(@NonNull Run run, int index) {
+        final int[] requirements = mRequirements[index];
+        if (requirements.length == 0) return run.args.input;
+        final Map<String, Object> input = new LinkedHashMap<>();
+        for (int required : requirements) {
+            input.put(mNodes[required].name, run.results[required]);
+        }
+        return Collections.unmodifiableMap(input);
+    }
+
+    @Override
+    void onChildCompleted(
+            @NonNull Run run,
+            int index,
+            @Nullable Object result,
+            @Nullable Throwable error,
+            @Nullable String dismissReason
+    ) {
+        final List<Integer> ready = new ArrayList<>();
+        final boolean completed;
+        synchronized (run) {
+            if (run.finished) return;
+            run.settled++;
+            if (error == null && dismissReason == null) {
+                run.states[index] = STATE_DONE;
+                run.results[index] = result;
+                for (int dependent : mDependents[index]) {
+                    if (--run.waitingFor[dependent] == 0 && run.states[dependent] == STATE_WAITING) {
+                        run.states[dependent] = STATE_RUNNING;
+                        ready.add(dependent);
+                    }
+                }
+            } else {
+                run.states[index] = STATE_FAILED;
+                if (run.error == null && run.dismissReason == null) {
+                    run.error = error;
+                    run.dismissReason = dismissReason;
+                }
+                cancelDependents(run, index);
+            }
+            completed = run.settled == mNodes.length;
+        }
+        fireNodes(run, ready);
+        if (completed) finish(run);
+    }
+
+    private void cancelDependents(@NonNull Run run, int index) {
+        for (int dependent : mDependents[index]) {
+            if (run.states[dependent] == STATE_WAITING) {
+                run.states[dependent] = STATE_CANCELLED;
+                run.settled++;
+                cancelDependents(run, dependent);
+            }
+        }
+    }
+
+    private void finish(@NonNull Run run) {
+        final Object result;
+        synchronized (run) {
+            if (run.error != null || run.dismissReason != null) {
+                result = null;
+            } else {
+                final Map<String, Object> results = new LinkedHashMap<>();
+                for (int i = 0; i < mNodes.length; i++) {
+                    results.put(mNodes[i].name, run.results[i]);
+                }
+                result = Collections.unmodifiableMap(results);
+            }
+        }
+        finish(run, result, run.error, run.dismissReason);
+    }
+
+    @NonNull
+    @Override
+    String getChildName(int index) {
+        return "Node " + mNodes[index].name;
+    }
+
+    /**
+     * Node of the graph: a named action and names of nodes it requires
+     */
+    public static class Node {
+
+        @NonNull
+        public final String name;
+
+        @NonNull
+        public final Action action;
+
+        @NonNull
+        public final String[] requires;
+
+        protected Node(@NonNull String name, @NonNull Action action, @NonNull String[] requires) {
+            this.name = name;
+            this.action = action;
+            this.requires = requires;
+        }
+    }
+
+    class Run extends ContainerAction.Run {
+        final int[] states;
+        final int[] waitingFor;
+        final Object[] results;
+        int settled;
+        Throwable error;
+        String dismissReason;
+
+        Run(ActionArgs args, int size) {
+            super(args, size);
+            this.states = new int[size];
+            this.results = new Object[size];
+            this.waitingFor = new int[size];
+            for (int i = 0; i < size; i++) {
+                waitingFor[i] = mRequirements[i].length;
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link GraphAction}. Nodes can require only nodes added before them,
+     * so the graph has no cycles.
+     */
+    public static class Builder {
+        private final List<Node> mNodes = new ArrayList<>();
+        private final Set<String> mNames = new HashSet<>();
+        private Executor mExecutor;
+
+        /**
+         * Set executor to fire nodes which are not {@link DialogAction}s by.
+         * If not set all nodes are fired on the main thread.
+         *
+         * @param executor The executor
+         * @return the builder
+         */
+        public Builder setExecutor(@Nullable Executor executor) {
+            mExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Add node to the graph
+         *
+         * @param name     The unique name of the node
+         * @param action   The action of the node
+         * @param requires The names of earlier added nodes whose results the node requires
+         * @return the builder
+         */
+        public Builder addNode(@NonNull String name, @NonNull Action action, @NonNull String... requires) {
+            if (mNames.contains(name)) {
+                throw new IllegalArgumentException("Node " + name + " was already added");
+            }
+            for (String required : requires) {
+                if (!mNames.contains(required)) {
+                    throw new IllegalArgumentException("Node " + name + " requires unknown node " + required);
+                }
+            }
+            mNames.add(name);
+            mNodes.add(new Node(name, action, requires));
+            return this;
+        }
+
+        public GraphAction build() {
+            return new GraphAction(mNodes, mExecutor);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import androidx.localbroadcastmanager.content.LocalBroadcastManager;
 
 import com.drextended.actionhandler.ActionArgs;
 import com.drextended.actionhandler.util.AcceptCondition;
+import com.drextended.actionhandler.util.AcceptConditions;
 
 /**
  * Base action to fire some intent
@@ -203,7 +204,8 @@ public abstract class IntentAction<M> extends BaseAction {
      * @param intentType      Type of intent:
      *                        {@link IntentType#START_ACTIVITY}, {@link IntentType#START_SERVICE}
      *                        {@link IntentType#SEND_BROADCAST}, {@link IntentType#SEND_LOCAL_BROADCAST}
-     * @param acceptCondition Condition to check whether model is accepted
+     * @param acceptCondition Condition to check whether model is accepted.
+     *                        Condition built by {@link AcceptConditions} is compiled.
      * @return The simple intent action
      */
     public static IntentAction from(Intent intent, IntentType intentType, AcceptCondition acceptCondition) {
@@ -224,7 +226,7 @@ public abstract class IntentAction<M> extends BaseAction {
     /**
      * Simple intent action
      */
-    public static class SimpleIntentAction extends IntentAction {
+    public static class SimpleIntentAction extends IntentAction implements ModelClassAction {
         protected final Intent mIntent;
         protected final AcceptCondition mAcceptCondition;
 
@@ -233,12 +235,13 @@ public abstract class IntentAction<M> extends BaseAction {
          * @param intentType      Type of intent:
          *                        {@link IntentType#START_ACTIVITY}, {@link IntentType#START_SERVICE}
          *                        {@link IntentType#SEND_BROADCAST}, {@link IntentType#SEND_LOCAL_BROADCAST}
-         * @param acceptCondition Condition to check whether model is accepted
+         * @param acceptCondition Condition to check whether model is accepted.
+         *                        Condition built by {@link AcceptConditions} is compiled.
          */
         public SimpleIntentAction(Intent intent, IntentType intentType, @Nullable AcceptCondition acceptCondition) {
             super(intentType != null ? intentType : IntentType.START_ACTIVITY);
             mIntent = intent;
-            mAcceptCondition = acceptCondition;
+            mAcceptCondition = AcceptConditions.compile(acceptCondition);
         }
 
         @Override
@@ -246,6 +249,12 @@ public abstract class IntentAction<M> extends BaseAction {
             return mAcceptCondition == null || mAcceptCondition.isModelAccepted(model);
         }
 
+        @Nullable
+        @Override
+        public Class<?> acceptedModelClass() {
+            return AcceptConditions.getModelClass(mAcceptCondition);
+        }
+
         @Nullable
         @Override
         public Intent getIntent(@NonNull ActionArgs args) {
@@ -0,0 +1,39 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.action;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Action which declares the class of models it can handle.
+ * {@link com.drextended.actionhandler.ActionHandler} indexes such actions by model class
+ * and does not call {@link #isModelAccepted(Object)} for models of other classes at all.
+ * {@link #isModelAccepted(Object)} is still called for models of accepted class,
+ * so it can contain additional checks.
+ */
+public interface ModelClassAction extends Action {
+
+    /**
+     * Returns the class of models this action can handle.
+     * Models of this class, its subclasses and implementations are accepted.
+     *
+     * @return the class of accepted models, or null if the action does not declare it
+     * (then it is checked by {@link #isModelAccepted(Object)} for any model)
+     */
+    @Nullable
+    Class<?> acceptedModelClass();
+}
@@ -0,0 +1,259 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.action;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.ActionArgs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Action which fires its children concurrently and notifies one fired event with joined {@link Result}.
+ * Not more than max parallelism children are in progress at once, others are fired when running ones complete.
+ * <p>
+ * {@link DialogAction}s (and so {@link RequestAction}s, which are asynchronous already) are fired
+ * on the main thread, other children are fired by the executor if it is set. A child which is not
+ * a {@link BaseAction} can't report its outcome, so its slot of the result is filled with null
+ * once it has been fired. Children which don't accept the model are skipped.
+ * Listeners are notified on the main thread.
+ * <p>
+ * In {@link ErrorMode#FAIL_FAST} mode the first error (or dismiss) of a child is notified as error
+ * (or dismiss) of this action, the work running children started for this fan-out is cancelled
+ * and pending ones are not fired. In {@link ErrorMode#COLLECT_ALL} mode all children are fired
+ * and errors are collected in the result. {@link #cancel()} aborts fan-outs in progress the same way
+ * as the fail-fast mode does, leaving the child actions themselves untouched.
+ */
+public class ParallelAction extends ContainerAction<ParallelAction.Run> {
+
+    public enum ErrorMode {
+        FAIL_FAST,
+        COLLECT_ALL
+    }
+
+    @NonNull
+    protected final Action[] mActions;
+
+    @Nullable
+    protected final Executor mExecutor;
+
+    protected final int mMaxParallelism;
+
+    @NonNull
+    protected final ErrorMode mErrorMode;
+
+    /**
+     * Creates action which fires all children at once on the main thread and collects all errors
+     *
+     * @param actions The child actions
+     */
+    public ParallelAction(@NonNull Action... actions) {
+        this(null, Integer.MAX_VALUE, ErrorMode.COLLECT_ALL, actions);
+    }
+
+    /**
+     * @param executor       The executor to fire children which are not {@link DialogAction}s by.
+     *                       If null all children are fired on the main thread.
+     * @param maxParallelism Max count of children in progress at once
+     * @param errorMode      How errors of children are handled
+     * @param actions        The child actions
+     */
+    public ParallelAction(
+            @Nullable Executor executor,
+            int maxParallelism,
+            @NonNull ErrorMode errorMode,
+            @NonNull Action... actions
+    ) {
+        if (maxParallelism <= 0) throw new IllegalArgumentException("maxParallelism should be positive");
+        mActions = actions;
+        mExecutor = executor;
+        mMaxParallelism = maxParallelism;
+        mErrorMode = errorMode;
+        for (Action action : actions) {
+            mObserver.observe(action);
+        }
+    }
+
+    @Override
+    public boolean isModelAccepted(Object model) {
+        for (Action action : mActions) {
+            if (action.isModelAccepted(model)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void onFireAction(@NonNull ActionArgs args) {
+        final Run run = new Run(args, mActions.length);
+        start(run);
+        fireNext(run);
+    }
+
+    private void fireNext(@NonNull Run run) {
+        final Object model = run.args.params.model;
+        final List<Integer> toFire = new ArrayList<>();
+        boolean completed;
+        synchronized (run) {
+            while (!run.finished && run.next < mActions.length && run.running < mMaxParallelism) {
+                final int index = run.next++;
+                if (mActions[index].isModelAccepted(model)) {
+                    run.running++;
+                    toFire.add(index);
+                } else {
+                    run.result.complete(index, null, null, null, true);
+                    run.completed++;
+                }
+            }
+            completed = run.completed == mActions.length;
+        }
+        for (Integer index : toFire) {
+            final Action action = mActions[index];
+            final ActionArgs childArgs = new ActionArgs(
+                    run.args.params, run.args.fireActionType, run.context, run.args.input, false);
+            fireChild(run, index, action, childArgs, getChildExecutor(action, mExecutor));
+        }
+        if (completed) finish(run, run.result, null, null);
+    }
+
+    @Override
+    void onChildCompleted(
+            @NonNull Run run,
+            int index,
+            @Nullable Object result,
+            @Nullable Throwable error,
+            @Nullable String dismissReason
+    ) {
+        synchronized (run) {
+            if (run.finished) return;
+            run.running--;
+            run.completed++;
+            run.result.complete(index, result, error, dismissReason, false);
+        }
+        if (mErrorMode == ErrorMode.FAIL_FAST && (error != null || dismissReason != null)) {
+            finish(run, null, error, dismissReason);
+        } else {
+            fireNext(run);
+        }
+    }
+
+    @NonNull
+    @Override
+    String getChildName(int index) {
+        return "Child action " + index;
+    }
+
+    /**
+     * Joined result of children, indexed in order the children were passed to the constructor
+     */
+    public static class Result {
+        private final Object[] mResults;
+        private final Throwable[] mErrors;
+        private final String[] mDismissReasons;
+        private final boolean[] mSkipped;
+
+        Result(int size) {
+            mResults = new Object[size];
+            mErrors = new Throwable[size];
+            mDismissReasons = new String[size];
+            mSkipped = new boolean[size];
+        }
+
+        void complete(int index, Object result, Throwable error, String dismissReason, boolean skipped) {
+            mResults[index] = result;
+            mErrors[index] = error;
+            mDismissReasons[index] = dismissReason;
+            mSkipped[index] = skipped;
+        }
+
+        /**
+         * @return count of children
+         */
+        public int size() {
+            return mResults.length;
+        }
+
+        /**
+         * @param index The index of child
+         * @return the result the child notified fired event with
+         */
+        @Nullable
+        public Object getResult(int index) {
+            return mResults[index];
+        }
+
+        /**
+         * @param index The index of child
+         * @return the error of child or null if it was fired successfully
+         */
+        @Nullable
+        public Throwable getError(int index) {
+            return mErrors[index];
+        }
+
+        /**
+         * @param index The index of child
+         * @return the reason the child was dismissed with or null if it was not dismissed
+         */
+        @Nullable
+        public String getDismissReason(int index) {
+            return mDismissReasons[index];
+        }
+
+        /**
+         * @param index The index of child
+         * @return true if the child was not fired because it doesn't accept the model
+         */
+        public boolean isSkipped(int index) {
+            return mSkipped[index];
+        }
+
+        /**
+         * @param index The index of child
+         * @return true if the child was fired successfully or skipped
+         */
+        public boolean isSuccessful(int index) {
+            return mErrors[index] == null && mDismissReasons[index] == null;
+        }
+
+        /**
+         * @return errors of all failed children
+         */
+        @NonNull
+        public List<Throwable> getErrors() {
+            final List<Throwable> errors = new ArrayList<>();
+            for (Throwable error : mErrors) {
+                if (error != null) errors.add(error);
+            }
+            return errors;
+        }
+    }
+
+    static class Run extends ContainerAction.Run {
+        final Result result;
+        int next;
+        int running;
+        int completed;
+
+        Run(ActionArgs args, int size) {
+            super(args, size);
+            this.result = new Result(size);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler.action;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.ActionArgs;
+import com.drextended.actionhandler.listener.ActionPrefetcher;
+
+/**
+ * Action which can start its work speculatively on touch down, before the click completes.
+ * The following fire with the same action type and model should attach to the prefetched work.
+ * Used by {@link ActionPrefetcher}, only idempotent work (e.g. loading of data) should be prefetched.
+ */
+public interface PrefetchableAction extends Action {
+
+    /**
+     * Start the work of the action for given args speculatively.
+     *
+     * @param args The action params, which appointed to the view and actually actionType
+     * @return the handle to cancel the work if it is not claimed by a fire, or null if nothing was prefetched
+     */
+    @Nullable
+    Cancelable prefetch(@NonNull ActionArgs args);
+}
@@ -21,6 +21,9 @@ import androidx.annotation.Nullable;
 
 import com.drextended.actionhandler.ActionArgs;
 import com.drextended.actionhandler.ActionHandler;
+import com.drextended.actionhandler.CancellationScope;
+import com.drextended.actionhandler.RequestRegistry;
+import com.drextended.actionhandler.util.PrefetchStats;
 
 import io.reactivex.Maybe;
 import io.reactivex.MaybeSource;
@@ -28,6 +31,7 @@ import io.reactivex.MaybeTransformer;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.observables.ConnectableObservable;
 import io.reactivex.observers.DisposableMaybeObserver;
 import io.reactivex.schedulers.Schedulers;
 
@@ -38,10 +42,15 @@ import io.reactivex.schedulers.Schedulers;
  * @param <M>  The type of model which can be handled
  */
 @SuppressWarnings("SameParameterValue")
-public abstract class RxRequestAction<RM, M> extends RequestAction<RM, M> implements Cancelable {
+public abstract class RxRequestAction<RM, M> extends RequestAction<RM, M> implements Cancelable, RequestRegistry.Receiver, PrefetchableAction {
 
     protected CompositeDisposable mDisposable;
     protected boolean mUnsubscribeOnNewRequest = true;
+    protected boolean mPrefetchEnabled;
+    @NonNull
+    private PrefetchStats mPrefetchStats = new PrefetchStats();
+    @Nullable
+    private Prefetch mPrefetch;
 
     public RxRequestAction() {
     }
@@ -57,40 +66,150 @@ public abstract class RxRequestAction<RM, M> extends RequestAction<RM, M> implem
 
     @Override
     protected void onMakeRequest(@NonNull final ActionArgs args) {
-        final Maybe<RM> observableRequest = getRequest(args);
+        final RequestRegistry registry = args.context.getRequestRegistry();
+        final String requestKey = registry == null ? null : getRequestKey(args);
+        if (requestKey != null && registry.join(requestKey, args, this)) return;
+        final Maybe<RM> observableRequest = prepareRequest(args);
         if (observableRequest == null) {
             if (mShowProgressEnabled) hideProgressDialog();
             return;
         }
+        if (requestKey != null) {
+            makeRetainedRequest(registry, requestKey, args, observableRequest);
+            return;
+        }
         if (mUnsubscribeOnNewRequest) {
             dispose(mDisposable);
         }
         if (mDisposable == null || mDisposable.isDisposed()) {
             mDisposable = new CompositeDisposable();
         }
+        final RequestObserver observer = new RequestObserver(args);
+        final CancellationScope scope = args.context.getCancellationScope();
+        if (scope != null && !scope.register(observer)) {
+            if (mShowProgressEnabled) hideProgressDialog();
+            return;
+        }
         mDisposable.add(observableRequest
-                .compose(applySchedulers())
-                .subscribeWith(new DisposableMaybeObserver<RM>() {
-                    private volatile boolean hasResponse = false;
-
+                .doOnDispose(new io.reactivex.functions.Action() {
                     @Override
-                    public void onSuccess(RM response) {
-                        hasResponse = true;
-                        onResponseSuccess(args, response);
+                    public void run() {
+                        observer.unregister();
                     }
+                })
+                .subscribeWith(observer));
+    }
 
-                    @Override
-                    public void onError(Throwable e) {
-                        onResponseError(args, e);
-                    }
+    private void makeRetainedRequest(
+            @NonNull final RequestRegistry registry,
+            @NonNull final String requestKey,
+            @NonNull ActionArgs args,
+            @NonNull Maybe<RM> observableRequest
+    ) {
+        final RetainedRequestObserver observer = new RetainedRequestObserver(registry, requestKey);
+        registry.register(requestKey, args, this, observer);
+        observableRequest.subscribe(observer);
+    }
 
-                    @Override
-                    public void onComplete() {
-                        if (!hasResponse) {
-                            onResponseSuccess(args, null);
-                        }
-                    }
-                }));
+    /**
+     * Returns the request prefetched for given args or a new one, with schedulers applied
+     */
+    @Nullable
+    private Maybe<RM> prepareRequest(@NonNull ActionArgs args) {
+        final Prefetch prefetch = mPrefetch;
+        if (prefetch != null
+                && ActionHandler.equals(prefetch.fireActionType, args.fireActionType)
+                && ActionHandler.equals(prefetch.model, args.params.model)) {
+            mPrefetch = null;
+            mPrefetchStats.onHit();
+            // the claiming subscriber owns the connection now, so disposing it cancels the network call
+            return prefetch.request.doOnDispose(new io.reactivex.functions.Action() {
+                @Override
+                public void run() {
+                    prefetch.connection.dispose();
+                }
+            });
+        }
+        final Maybe<RM> request = getRequest(args);
+        return request == null ? null : request.compose(applySchedulers(args));
+    }
+
+    /**
+     * Enable speculative prefetch of the request on touch down, see {@link #prefetch(ActionArgs)}.
+     * Should be enabled only for idempotent requests, e.g. loading of data.
+     *
+     * @param prefetchEnabled Set true to allow prefetch of the request
+     */
+    public void setPrefetchEnabled(boolean prefetchEnabled) {
+        mPrefetchEnabled = prefetchEnabled;
+    }
+
+    /**
+     * Set counters to report hits and waste of prefetches of this action to, e.g. shared by a few actions
+     *
+     * @param prefetchStats The counters
+     */
+    public void setPrefetchStats(@NonNull PrefetchStats prefetchStats) {
+        mPrefetchStats = prefetchStats;
+    }
+
+    /**
+     * @return counters of hits and waste of prefetches of this action
+     */
+    @NonNull
+    public PrefetchStats getPrefetchStats() {
+        return mPrefetchStats;
+    }
+
+    /**
+     * Start the request speculatively, e.g. on touch down. The response is cached and the following fire
+     * with the same action type and model receives it instead of making a new request.
+     * Does nothing if prefetch is not enabled by {@link #setPrefetchEnabled(boolean)}
+     * or the dialog before the request is enabled.
+     *
+     * @param args The action params, which appointed to the view and actually actionType
+     * @return the handle to cancel the request if it is not claimed by a fire, or null if nothing was prefetched
+     */
+    @Nullable
+    @Override
+    public Cancelable prefetch(@NonNull ActionArgs args) {
+        if (!mPrefetchEnabled || mShowDialogEnabled) return null;
+        final Maybe<RM> request = getRequest(args);
+        if (request == null) return null;
+        if (mPrefetch != null) mPrefetch.cancel();
+        final ConnectableObservable<RM> replay = request
+                .compose(applySchedulers(args))
+                .toObservable()
+                .replay(1);
+        mPrefetchStats.onStarted();
+        final Prefetch prefetch = new Prefetch(args, replay.firstElement(), replay.connect());
+        mPrefetch = prefetch;
+        return prefetch;
+    }
+
+    /**
+     * Returns the key to retain the request fired with given args in {@link RequestRegistry} of the handler,
+     * so the request survives configuration changes and its response is delivered to this action
+     * of the recreated handler. Fires with the same key while the request is in flight join it.
+     * The key should be unique in the registry, e.g. the action type and id of the model.
+     * By default requests are not retained.
+     *
+     * @param args The action params, which appointed to the view and actually actionType
+     * @return the key of the request or null to not retain it
+     */
+    @Nullable
+    protected String getRequestKey(@NonNull ActionArgs args) {
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void onRetainedResponse(@NonNull ActionArgs args, @Nullable Object response, @Nullable Throwable error) {
+        if (error != null) {
+            onResponseError(args, error);
+        } else {
+            onResponseSuccess(args, (RM) response);
+        }
     }
 
     /**
@@ -111,6 +230,26 @@ public abstract class RxRequestAction<RM, M> extends RequestAction<RM, M> implem
         };
     }
 
+    /**
+     * Returns transformer for apply schedulers for the request fired with given args.
+     * If the action is a stage of {@link ChainAction} followed by background stage
+     * and progress is not shown, the response is not moved to the main thread.
+     * Otherwise {@link #applySchedulers()} is used.
+     *
+     * @param args The action params, which appointed to the view and actually actionType
+     * @return transformer for apply schedulers
+     */
+    @NonNull
+    protected MaybeTransformer<RM, RM> applySchedulers(@NonNull ActionArgs args) {
+        if (args.deliverOnMainThread || mShowProgressEnabled) return applySchedulers();
+        return new MaybeTransformer<RM, RM>() {
+            @Override
+            public MaybeSource<RM> apply(Maybe<RM> upstream) {
+                return upstream.subscribeOn(Schedulers.io());
+            }
+        };
+    }
+
     /**
      * Helper method to dispose the call
      *
@@ -128,6 +267,111 @@ public abstract class RxRequestAction<RM, M> extends RequestAction<RM, M> implem
     @Override
     public void cancel() {
         dispose(mDisposable);
+        if (mPrefetch != null) mPrefetch.cancel();
+    }
+
+    /**
+     * Request started speculatively, waiting for a fire to claim it
+     */
+    private class Prefetch implements Cancelable {
+        final String fireActionType;
+        final Object model;
+        final Maybe<RM> request;
+        final Disposable connection;
+
+        Prefetch(ActionArgs args, Maybe<RM> request, Disposable connection) {
+            this.fireActionType = args.fireActionType;
+            this.model = args.params.model;
+            this.request = request;
+            this.connection = connection;
+        }
+
+        /**
+         * Cancel the request if it was not claimed yet
+         */
+        @Override
+        public void cancel() {
+            if (mPrefetch != this) return;
+            mPrefetch = null;
+            connection.dispose();
+            mPrefetchStats.onWasted();
+        }
+    }
+
+    /**
+     * Observer of single request, registered in the cancellation scope of the dispatch while in flight
+     */
+    private class RequestObserver extends DisposableMaybeObserver<RM> implements Cancelable {
+        private final ActionArgs mArgs;
+        private volatile boolean hasResponse = false;
+
+        RequestObserver(ActionArgs args) {
+            mArgs = args;
+        }
+
+        @Override
+        public void onSuccess(RM response) {
+            hasResponse = true;
+            unregister();
+            onResponseSuccess(mArgs, response);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            unregister();
+            onResponseError(mArgs, e);
+        }
+
+        @Override
+        public void onComplete() {
+            unregister();
+            if (!hasResponse) {
+                onResponseSuccess(mArgs, null);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            dispose();
+        }
+
+        void unregister() {
+            final CancellationScope scope = mArgs.context.getCancellationScope();
+            if (scope != null) scope.unregister(this);
+        }
+    }
+
+    /**
+     * Observer of retained request, completes it in the registry
+     */
+    private class RetainedRequestObserver extends DisposableMaybeObserver<RM> implements Cancelable {
+        private final RequestRegistry mRegistry;
+        private final String mRequestKey;
+
+        RetainedRequestObserver(RequestRegistry registry, String requestKey) {
+            mRegistry = registry;
+            mRequestKey = requestKey;
+        }
+
+        @Override
+        public void onSuccess(RM response) {
+            mRegistry.complete(mRequestKey, response, null);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            mRegistry.complete(mRequestKey, null, e);
+        }
+
+        @Override
+        public void onComplete() {
+            mRegistry.complete(mRequestKey, null, null);
+        }
+
+        @Override
+        public void cancel() {
+            dispose();
+        }
     }
 
     /**
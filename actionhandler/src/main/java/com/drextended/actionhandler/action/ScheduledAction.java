@@ -0,0 +1,36 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.action;
+
+import androidx.annotation.NonNull;
+
+import com.drextended.actionhandler.ActionScheduler;
+import com.drextended.actionhandler.ActionThread;
+
+/**
+ * Action which declares the thread it should be fired on.
+ * Used by {@link ActionScheduler}, actions which don't implement it are fired
+ * on the main thread immediately.
+ */
+public interface ScheduledAction extends Action {
+
+    /**
+     * @return the thread this action should be fired on
+     */
+    @NonNull
+    ActionThread getActionThread();
+}
@@ -0,0 +1,48 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler.listener;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.action.Cancelable;
+
+/**
+ * Interface definition for a callback to be invoked when a view with an action is touched down,
+ * so work of the action can be started speculatively before the click completes.
+ */
+public interface ActionPrefetcher {
+    /**
+     * Called when a view with an action is touched down.
+     *
+     * @param view       The view that was touched.
+     * @param actionType The action type, which appointed to the view
+     * @param model      The model, which  appointed to the view and should be handled
+     * @param actionTag  The tag, which can be used to distinct click source or etc.
+     * @return the handle to cancel the prefetch if the touch does not turn into a click, or null if nothing was prefetched
+     */
+    @Nullable
+    Cancelable onActionPrefetch(
+            @NonNull final View view,
+            @NonNull final String actionType,
+            @Nullable final Object model,
+            @Nullable final Object actionTag
+    );
+}
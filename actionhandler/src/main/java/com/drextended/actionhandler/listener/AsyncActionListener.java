@@ -0,0 +1,225 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.listener;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.ActionArgs;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Listener wrapper which delivers fired, error and dismiss events to the wrapped listener
+ * using given executor instead of the thread which notifies it (usually main thread).
+ * Notifying thread only puts an event to the bounded queue, events are delivered one by one
+ * in the order they were queued. If the queue is full an event is dropped according to {@link OverflowPolicy}.
+ */
+public class AsyncActionListener implements OnActionFiredListener, OnActionErrorListener, OnActionDismissListener {
+
+    private static final String TAG = "AsyncActionListener";
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    public enum OverflowPolicy {
+        /**
+         * Drop the event which is being queued
+         */
+        DROP_NEWEST,
+        /**
+         * Drop the oldest queued event to make a room for a new one
+         */
+        DROP_OLDEST
+    }
+
+    @NonNull
+    private final Object mListener;
+    @NonNull
+    private final Executor mExecutor;
+    @NonNull
+    private final OverflowPolicy mOverflowPolicy;
+    private final Queue<Event> mQueue;
+    private final AtomicBoolean mDrainScheduled = new AtomicBoolean(false);
+    private final AtomicLong mDroppedCount = new AtomicLong();
+    private final AtomicLong mDeliveredCount = new AtomicLong();
+
+    private final Runnable mDrainTask = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    /**
+     * @param listener The listener to wrap. Should implement at least one of
+     *                 {@link OnActionFiredListener}, {@link OnActionErrorListener}
+     *                 or {@link OnActionDismissListener}
+     * @param executor The executor to deliver events with
+     */
+    public AsyncActionListener(@NonNull Object listener, @NonNull Executor executor) {
+        this(listener, executor, DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * @param listener       The listener to wrap. Should implement at least one of
+     *                       {@link OnActionFiredListener}, {@link OnActionErrorListener}
+     *                       or {@link OnActionDismissListener}
+     * @param executor       The executor to deliver events with
+     * @param capacity       The max count of events waiting for delivery
+     * @param overflowPolicy The policy to apply if the queue is full
+     */
+    public AsyncActionListener(
+            @NonNull Object listener,
+            @NonNull Executor executor,
+            int capacity,
+            @NonNull OverflowPolicy overflowPolicy
+    ) {
+        if (!(listener instanceof OnActionFiredListener
+                || listener instanceof OnActionErrorListener
+                || listener instanceof OnActionDismissListener)) {
+            throw new IllegalArgumentException("Listener should implement at least one of action listener interfaces");
+        }
+        mListener = listener;
+        mExecutor = executor;
+        mOverflowPolicy = overflowPolicy;
+        mQueue = new ArrayBlockingQueue<>(capacity > 0 ? capacity : DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @return the wrapped listener
+     */
+    @NonNull
+    public Object getListener() {
+        return mListener;
+    }
+
+    /**
+     * @return count of events which were dropped because of queue overflow
+     */
+    public long getDroppedCount() {
+        return mDroppedCount.get();
+    }
+
+    /**
+     * @return count of events which were delivered to the wrapped listener
+     */
+    public long getDeliveredCount() {
+        return mDeliveredCount.get();
+    }
+
+    /**
+     * @return count of events waiting for delivery
+     */
+    public int getQueueSize() {
+        return mQueue.size();
+    }
+
+    @Override
+    public void onActionFired(@NonNull ActionArgs args, @Nullable Object result) {
+        if (mListener instanceof OnActionFiredListener) {
+            enqueue(new Event(Event.FIRED, args, result));
+        }
+    }
+
+    @Override
+    public void onActionError(@NonNull ActionArgs args, @Nullable Throwable throwable) {
+        if (mListener instanceof OnActionErrorListener) {
+            enqueue(new Event(Event.ERROR, args, throwable));
+        }
+    }
+
+    @Override
+    public void onActionDismiss(@NonNull ActionArgs args, @Nullable String reason) {
+        if (mListener instanceof OnActionDismissListener) {
+            enqueue(new Event(Event.DISMISS, args, reason));
+        }
+    }
+
+    private void enqueue(@NonNull Event event) {
+        while (!mQueue.offer(event)) {
+            if (mOverflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                mDroppedCount.incrementAndGet();
+                return;
+            }
+            if (mQueue.poll() != null) mDroppedCount.incrementAndGet();
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (mDrainScheduled.compareAndSet(false, true)) {
+            try {
+                mExecutor.execute(mDrainTask);
+            } catch (RejectedExecutionException e) {
+                mDrainScheduled.set(false);
+                Log.w(TAG, "Executor rejected events delivery", e);
+            }
+        }
+    }
+
+    private void drain() {
+        Event event;
+        while ((event = mQueue.poll()) != null) {
+            try {
+                deliver(event);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Listener failed to handle action event", e);
+            }
+        }
+        mDrainScheduled.set(false);
+        // an event could be queued after the last poll but before the flag was reset
+        if (!mQueue.isEmpty()) scheduleDrain();
+    }
+
+    private void deliver(@NonNull Event event) {
+        switch (event.kind) {
+            case Event.FIRED:
+                ((OnActionFiredListener) mListener).onActionFired(event.args, event.value);
+                break;
+            case Event.ERROR:
+                ((OnActionErrorListener) mListener).onActionError(event.args, (Throwable) event.value);
+                break;
+            case Event.DISMISS:
+                ((OnActionDismissListener) mListener).onActionDismiss(event.args, (String) event.value);
+                break;
+        }
+        mDeliveredCount.incrementAndGet();
+    }
+
+    private static class Event {
+        static final int FIRED = 0;
+        static final int ERROR = 1;
+        static final int DISMISS = 2;
+
+        final int kind;
+        final ActionArgs args;
+        final Object value;
+
+        Event(int kind, ActionArgs args, Object value) {
+            this.kind = kind;
+            this.args = args;
+            this.value = value;
+        }
+    }
+}
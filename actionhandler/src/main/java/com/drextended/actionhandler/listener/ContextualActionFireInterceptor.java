@@ -0,0 +1,51 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler.listener;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.ActionParams;
+import com.drextended.actionhandler.DispatchContext;
+import com.drextended.actionhandler.action.Action;
+
+/**
+ * {@link ActionFireInterceptor} which receives the context of the dispatch the action is fired in,
+ * so events of interception complete the {@link com.drextended.actionhandler.ActionResult}
+ * or {@link com.drextended.actionhandler.BatchResult} of that dispatch.
+ * Actions which fire nested actions (e.g. {@link com.drextended.actionhandler.action.CompositeAction})
+ * call this method instead of {@link #onInterceptActionFire(ActionParams, String, Action)}.
+ */
+public interface ContextualActionFireInterceptor extends ActionFireInterceptor {
+    /**
+     * Called right before specific action will be fired in given dispatch.
+     * If return true then this action will not be fired.
+     *
+     * @param actionParams The action params, which appointed to the view
+     * @param actionType   The action type, which is prepared to fire.
+     * @param action       The action, which is prepared to fire.
+     * @param context      The context of the dispatch
+     * @return true for intercept the action, false to handle the action in normal way.
+     */
+    boolean onInterceptActionFire(
+            @NonNull ActionParams actionParams,
+            @Nullable String actionType,
+            @NonNull Action action,
+            @NonNull DispatchContext context
+    );
+}
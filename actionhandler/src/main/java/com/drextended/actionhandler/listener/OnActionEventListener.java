@@ -0,0 +1,36 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.listener;
+
+import androidx.annotation.NonNull;
+
+import com.drextended.actionhandler.ActionEvent;
+
+/**
+ * Interface definition for a callback to be invoked for any event of the action lifecycle:
+ * interception, successful execution, error or dismiss.
+ */
+public interface OnActionEventListener {
+
+    /**
+     * Called when an action was intercepted, fired, executed with error or dismissed.
+     * May be called from any thread which notifies ActionHandler.
+     *
+     * @param event The event
+     */
+    void onActionEvent(@NonNull ActionEvent event);
+}
@@ -21,11 +21,14 @@ import android.app.Dialog;
 import android.content.Context;
 import android.content.ContextWrapper;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.annotation.Nullable;
 
 public class AUtils {
 
+    private static volatile Handler sMainHandler;
 
     public static Activity getAliveActivity(@Nullable final Context context) {
         if (context != null) {
@@ -67,4 +70,38 @@ public class AUtils {
         }
         return true;
     }
+
+    /**
+     * @return true if called on the main thread
+     */
+    public static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    /**
+     * Run the runnable immediately if called on the main thread, otherwise post it to the main thread.
+     *
+     * @param runnable The runnable to run
+     */
+    public static void runOnMainThread(Runnable runnable) {
+        if (isMainThread()) {
+            runnable.run();
+        } else {
+            postOnMainThread(runnable);
+        }
+    }
+
+    /**
+     * Post the runnable to the main thread
+     *
+     * @param runnable The runnable to post
+     */
+    public static void postOnMainThread(Runnable runnable) {
+        Handler handler = sMainHandler;
+        if (handler == null) {
+            handler = new Handler(Looper.getMainLooper());
+            sMainHandler = handler;
+        }
+        handler.post(runnable);
+    }
 }
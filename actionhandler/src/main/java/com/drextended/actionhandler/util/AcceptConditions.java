@@ -0,0 +1,864 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Combinators for building {@link AcceptCondition}s as an inspectable tree and compiling it.
+ * <p>
+ * Example:
+ * <pre>
+ * AcceptCondition condition = AcceptConditions.and(
+ *         AcceptConditions.isInstance(User.class),
+ *         AcceptConditions.or(
+ *                 AcceptConditions.fieldEquals(User.class, "role", "admin"),
+ *                 AcceptConditions.predicate(User.class, hasPermission)
+ *         )
+ * ).compile();
+ * </pre>
+ * Compiled condition checks required model classes first, then other checks ordered by their cost,
+ * and evaluates each subexpression which occurs in the tree more than once only once per check.
+ */
+public final class AcceptConditions {
+
+    public static final int COST_INSTANCE_OF = 1;
+    public static final int COST_FIELD = 4;
+    public static final int COST_PREDICATE = 16;
+
+    private AcceptConditions() {
+    }
+
+    /**
+     * Check of the model which can not be expressed by other combinators
+     *
+     * @param <M> model type
+     */
+    public interface Predicate<M> {
+        /**
+         * @param model The model to check, never null
+         * @return true if the model is accepted
+         */
+        boolean test(@NonNull M model);
+    }
+
+    /**
+     * Kind of a node in a condition tree
+     */
+    public enum Kind {
+        AND, OR, NOT, INSTANCE_OF, FIELD_EQUALS, PREDICATE
+    }
+
+    /**
+     * Condition which accepts models of given class, its subclasses and implementations
+     *
+     * @param modelClass The class of accepted models
+     * @return the condition
+     */
+    @NonNull
+    public static Condition isInstance(@NonNull Class<?> modelClass) {
+        return new InstanceOfNode(modelClass);
+    }
+
+    /**
+     * Condition which accepts models of given class with given value of the field.
+     * The field is resolved once, when condition is created.
+     *
+     * @param modelClass The class of accepted models
+     * @param fieldName  The name of the field declared in the class or its superclasses
+     * @param expected   The expected value of the field, compared by equals
+     * @return the condition
+     */
+    @NonNull
+    public static Condition fieldEquals(@NonNull Class<?> modelClass, @NonNull String fieldName, @Nullable Object expected) {
+        return new FieldNode(modelClass, findField(modelClass, fieldName), expected);
+    }
+
+    /**
+     * Condition which accepts models of given class matched by the predicate.
+     *
+     * @param modelClass The class of accepted models
+     * @param predicate  The predicate, called only for models of given class
+     * @param <M>        model type
+     * @return the condition
+     */
+    @NonNull
+    public static <M> Condition predicate(@NonNull Class<M> modelClass, @NonNull Predicate<? super M> predicate) {
+        return predicate(modelClass, predicate, COST_PREDICATE);
+    }
+
+    /**
+     * Condition which accepts models of given class matched by the predicate.
+     *
+     * @param modelClass The class of accepted models
+     * @param predicate  The predicate, called only for models of given class
+     * @param cost       The relative cost of the predicate, cheaper checks are called first
+     * @param <M>        model type
+     * @return the condition
+     */
+    @NonNull
+    public static <M> Condition predicate(@NonNull Class<M> modelClass, @NonNull Predicate<? super M> predicate, int cost) {
+        return new PredicateNode(modelClass, predicate, cost);
+    }
+
+    /**
+     * Wrap any condition to use it in a condition tree
+     *
+     * @param condition The condition
+     * @param cost      The relative cost of the condition, cheaper checks are called first
+     * @return the condition
+     */
+    @NonNull
+    public static Condition predicate(@NonNull AcceptCondition condition, int cost) {
+        return new PredicateNode(null, condition, cost);
+    }
+
+    /**
+     * Condition which accepts a model if all given conditions accept it
+     *
+     * @param conditions The conditions
+     * @return the condition
+     */
+    @NonNull
+    public static Condition and(@NonNull AcceptCondition... conditions) {
+        return new GroupNode(Kind.AND, toNodes(conditions));
+    }
+
+    /**
+     * Condition which accepts a model if at least one of given conditions accepts it
+     *
+     * @param conditions The conditions
+     * @return the condition
+     */
+    @NonNull
+    public static Condition or(@NonNull AcceptCondition... conditions) {
+        return new GroupNode(Kind.OR, toNodes(conditions));
+    }
+
+    /**
+     * Condition which accepts a model if given condition does not accept it
+     *
+     * @param condition The condition
+     * @return the condition
+     */
+    @NonNull
+    public static Condition not(@NonNull AcceptCondition condition) {
+        return new NotNode(toNode(condition));
+    }
+
+    /**
+     * Compile the condition. Conditions which are not built by this class are returned as is.
+     *
+     * @param condition The condition to compile
+     * @return the compiled condition
+     */
+    @Nullable
+    public static AcceptCondition compile(@Nullable AcceptCondition condition) {
+        return condition instanceof Condition ? ((Condition) condition).compile() : condition;
+    }
+
+    /**
+     * Returns the class every model accepted by given condition is instance of, if it is known
+     *
+     * @param condition The condition
+     * @return the class of accepted models or null if it is unknown
+     */
+    @Nullable
+    public static Class<?> getModelClass(@Nullable AcceptCondition condition) {
+        if (condition instanceof InstanceOfCondition) return ((InstanceOfCondition) condition).getModelClass();
+        if (condition instanceof Condition) return ((Condition) condition).getModelClass();
+        if (condition instanceof Compiled) return ((Compiled) condition).getModelClass();
+        return null;
+    }
+
+    @NonNull
+    private static Field findField(@NonNull Class<?> modelClass, @NonNull String fieldName) {
+        for (Class<?> clazz = modelClass; clazz != null; clazz = clazz.getSuperclass()) {
+            try {
+                final Field field = clazz.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException ignored) {
+            }
+        }
+        throw new IllegalArgumentException("Field " + fieldName + " not found in " + modelClass.getName());
+    }
+
+    @NonNull
+    private static List<Condition> toNodes(@NonNull AcceptCondition[] conditions) {
+        final List<Condition> nodes = new ArrayList<>(conditions.length);
+        for (AcceptCondition condition : conditions) {
+            nodes.add(toNode(condition));
+        }
+        return nodes;
+    }
+
+    @NonNull
+    private static Condition toNode(@NonNull AcceptCondition condition) {
+        if (condition instanceof Condition) return (Condition) condition;
+        if (condition instanceof Compiled) return ((Compiled) condition).getSource();
+        if (condition instanceof InstanceOfCondition) {
+            return new InstanceOfNode(((InstanceOfCondition) condition).getModelClass());
+        }
+        return new PredicateNode(null, condition, COST_PREDICATE);
+    }
+
+    /**
+     * Node of a condition tree. Can be used as condition as is (checks are called in order they were given),
+     * or compiled by {@link #compile()}.
+     */
+    public abstract static class Condition implements AcceptCondition {
+
+        @NonNull
+        public abstract Kind getKind();
+
+        /**
+         * @return child conditions, empty for leaf nodes
+         */
+        @NonNull
+        public List<Condition> getChildren() {
+            return Collections.emptyList();
+        }
+
+        /**
+         * @return relative cost of the check
+         */
+        public abstract int getCost();
+
+        /**
+         * @return the class every accepted model is instance of, or null if it is unknown
+         */
+        @Nullable
+        public abstract Class<?> getModelClass();
+
+        /**
+         * @return the compiled condition
+         */
+        @NonNull
+        public AcceptCondition compile() {
+            return new Compiler().compile(this);
+        }
+    }
+
+    private static final class InstanceOfNode extends Condition {
+        final Class<?> modelClass;
+
+        InstanceOfNode(Class<?> modelClass) {
+            this.modelClass = modelClass;
+        }
+
+        @NonNull
+        @Override
+        public Kind getKind() {
+            return Kind.INSTANCE_OF;
+        }
+
+        @Override
+        public int getCost() {
+            return COST_INSTANCE_OF;
+        }
+
+        @Override
+        public Class<?> getModelClass() {
+            return modelClass;
+        }
+
+        @Override
+        public boolean isModelAccepted(Object model) {
+            return modelClass.isInstance(model);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof InstanceOfNode && ((InstanceOfNode) o).modelClass == modelClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return modelClass.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "isInstance(" + modelClass.getSimpleName() + ")";
+        }
+    }
+
+    private static final class FieldNode extends Condition {
+        final Class<?> modelClass;
+        final Field field;
+        final Object expected;
+
+        FieldNode(Class<?> modelClass, Field field, Object expected) {
+            this.modelClass = modelClass;
+            this.field = field;
+            this.expected = expected;
+        }
+
+        @NonNull
+        @Override
+        public Kind getKind() {
+            return Kind.FIELD_EQUALS;
+        }
+
+        @Override
+        public int getCost() {
+            return COST_FIELD;
+        }
+
+        @Override
+        public Class<?> getModelClass() {
+            return modelClass;
+        }
+
+        @Override
+        public boolean isModelAccepted(Object model) {
+            return modelClass.isInstance(model) && test(model);
+        }
+
+        boolean test(@NonNull Object model) {
+            try {
+                return Objects.equals(field.get(model), expected);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FieldNode)) return false;
+            final FieldNode that = (FieldNode) o;
+            return modelClass == that.modelClass && field.equals(that.field) && Objects.equals(expected, that.expected);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(modelClass, field, expected);
+        }
+
+        @Override
+        public String toString() {
+            return "fieldEquals(" + modelClass.getSimpleName() + "." + field.getName() + " == " + expected + ")";
+        }
+    }
+
+    private static final class PredicateNode extends Condition {
+        @Nullable
+        final Class<?> modelClass;
+        // Predicate if modelClass is set, AcceptCondition otherwise
+        final Object predicate;
+        final int cost;
+
+        PredicateNode(@Nullable Class<?> modelClass, Object predicate, int cost) {
+            this.modelClass = modelClass;
+            this.predicate = predicate;
+            this.cost = cost;
+        }
+
+        @NonNull
+        @Override
+        public Kind getKind() {
+            return Kind.PREDICATE;
+        }
+
+        @Override
+        public int getCost() {
+            return cost;
+        }
+
+        @Override
+        public Class<?> getModelClass() {
+            return modelClass;
+        }
+
+        @Override
+        public boolean isModelAccepted(Object model) {
+            return modelClass == null
+                    ? ((AcceptCondition) predicate).isModelAccepted(model)
+                    : modelClass.isInstance(model) && test(model);
+        }
+
+        @SuppressWarnings("unchecked")
+        boolean test(@NonNull Object model) {
+            return ((Predicate<Object>) predicate).test(model);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PredicateNode && ((PredicateNode) o).predicate == predicate
+                    && ((PredicateNode) o).modelClass == modelClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(predicate);
+        }
+
+        @Override
+        public String toString() {
+            return "predicate(" + (modelClass != null ? modelClass.getSimpleName() + ", " : "")
+                    + predicate + ", cost=" + cost + ")";
+        }
+    }
+
+    private static final class NotNode extends Condition {
+        final Condition child;
+
+        NotNode(Condition child) {
+            this.child = child;
+        }
+
+        @NonNull
+        @Override
+        public Kind getKind() {
+            return Kind.NOT;
+        }
+
+        @NonNull
+        @Override
+        public List<Condition> getChildren() {
+            return Collections.singletonList(child);
+        }
+
+        @Override
+        public int getCost() {
+            return child.getCost();
+        }
+
+        @Override
+        public Class<?> getModelClass() {
+            return null;
+        }
+
+        @Override
+        public boolean isModelAccepted(Object model) {
+            return !child.isModelAccepted(model);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof NotNode && ((NotNode) o).child.equals(child);
+        }
+
+        @Override
+        public int hashCode() {
+            return ~child.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "not(" + child + ")";
+        }
+    }
+
+    private static final class GroupNode extends Condition {
+        final Kind kind;
+        final List<Condition> children;
+
+        GroupNode(Kind kind, List<Condition> children) {
+            this.kind = kind;
+            this.children = Collections.unmodifiableList(children);
+        }
+
+        @NonNull
+        @Override
+        public Kind getKind() {
+            return kind;
+        }
+
+        @NonNull
+        @Override
+        public List<Condition> getChildren() {
+            return children;
+        }
+
+        @Override
+        public int getCost() {
+            int cost = 0;
+            for (Condition child : children) {
+                cost += child.getCost();
+            }
+            return cost;
+        }
+
+        @Override
+        public Class<?> getModelClass() {
+            Class<?> result = null;
+            for (Condition child : children) {
+                final Class<?> modelClass = child.getModelClass();
+                if (kind == Kind.AND) {
+                    // any required class is valid, the most specific one is preferred
+                    if (modelClass != null && (result == null || result.isAssignableFrom(modelClass))) {
+                        result = modelClass;
+                    }
+                } else {
+                    // the common superclass of all alternatives, if they are related
+                    if (modelClass == null) return null;
+                    if (result == null || modelClass.isAssignableFrom(result)) {
+                        result = modelClass;
+                    } else if (!result.isAssignableFrom(modelClass)) {
+                        return null;
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isModelAccepted(Object model) {
+            final boolean and = kind == Kind.AND;
+            for (Condition child : children) {
+                if (child.isModelAccepted(model) != and) return !and;
+            }
+            return and;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof GroupNode && ((GroupNode) o).kind == kind && ((GroupNode) o).children.equals(children);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * kind.hashCode() + children.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder(kind == Kind.AND ? "and(" : "or(");
+            for (int i = 0; i < children.size(); i++) {
+                if (i > 0) builder.append(", ");
+                builder.append(children.get(i));
+            }
+            return builder.append(')').toString();
+        }
+    }
+
+    /**
+     * Compiled condition
+     */
+    public static final class Compiled implements AcceptCondition {
+        private final Condition mSource;
+        private final Evaluator mRoot;
+        private final int mMemoSize;
+
+        Compiled(Condition source, Evaluator root, int memoSize) {
+            mSource = source;
+            mRoot = root;
+            mMemoSize = memoSize;
+        }
+
+        /**
+         * @return the condition tree this condition was compiled from
+         */
+        @NonNull
+        public Condition getSource() {
+            return mSource;
+        }
+
+        /**
+         * @return the class every accepted model is instance of, or null if it is unknown
+         */
+        @Nullable
+        public Class<?> getModelClass() {
+            return mSource.getModelClass();
+        }
+
+        @Override
+        public boolean isModelAccepted(Object model) {
+            return mRoot.evaluate(model, mMemoSize == 0 ? null : new byte[mMemoSize]);
+        }
+
+        /**
+         * @return the compiled tree in order of evaluation
+         */
+        @Override
+        public String toString() {
+            return mRoot.toString();
+        }
+    }
+
+    private static final Comparator<Evaluator> BY_COST = new Comparator<Evaluator>() {
+        @Override
+        public int compare(Evaluator first, Evaluator second) {
+            return first.cost < second.cost ? -1 : (first.cost == second.cost ? 0 : 1);
+        }
+    };
+
+    private static final class Compiler {
+        // Count of occurrences of subexpressions in the normalized tree
+        private final Map<Condition, Integer> mOccurrences = new HashMap<>();
+        // Memo slots of shared subexpressions
+        private final Map<Condition, Integer> mSlots = new HashMap<>();
+
+        Compiled compile(Condition source) {
+            final Condition normalized = normalize(source);
+            countOccurrences(normalized);
+            return new Compiled(source, build(normalized, Collections.<Class<?>>emptySet()), mSlots.size());
+        }
+
+        // Flattens nested groups of the same kind, removes duplicate children and double negations
+        private Condition normalize(Condition condition) {
+            switch (condition.getKind()) {
+                case NOT: {
+                    final Condition child = normalize(condition.getChildren().get(0));
+                    return child.getKind() == Kind.NOT ? child.getChildren().get(0) : new NotNode(child);
+                }
+                case AND:
+                case OR: {
+                    final Set<Condition> children = new LinkedHashSet<>();
+                    for (Condition child : condition.getChildren()) {
+                        final Condition normalized = normalize(child);
+                        if (normalized.getKind() == condition.getKind()) {
+                            children.addAll(normalized.getChildren());
+                        } else {
+                            children.add(normalized);
+                        }
+                    }
+                    if (children.size() == 1) return children.iterator().next();
+                    return new GroupNode(condition.getKind(), new ArrayList<>(children));
+                }
+                default:
+                    return condition;
+            }
+        }
+
+        private void countOccurrences(Condition condition) {
+            final Integer count = mOccurrences.get(condition);
+            mOccurrences.put(condition, count == null ? 1 : count + 1);
+            if (count == null) {
+                for (Condition child : condition.getChildren()) {
+                    countOccurrences(child);
+                }
+            }
+        }
+
+        /**
+         * @param condition The normalized condition
+         * @param checked   Classes the model is known to be instance of at this point
+         */
+        private Evaluator build(Condition condition, Set<Class<?>> checked) {
+            final Evaluator evaluator;
+            switch (condition.getKind()) {
+                case AND:
+                    evaluator = buildAnd(condition, checked);
+                    break;
+                case OR: {
+                    final List<Evaluator> children = new ArrayList<>();
+                    for (Condition child : condition.getChildren()) {
+                        children.add(build(child, checked));
+                    }
+                    Collections.sort(children, BY_COST);
+                    evaluator = new GroupEvaluator(false, children);
+                    break;
+                }
+                case NOT:
+                    evaluator = new NotEvaluator(build(condition.getChildren().get(0), checked));
+                    break;
+                case INSTANCE_OF:
+                    evaluator = new LeafEvaluator(condition, isChecked(condition.getModelClass(), checked));
+                    break;
+                default:
+                    final Class<?> modelClass = condition.getModelClass();
+                    evaluator = new LeafEvaluator(condition, modelClass != null && isChecked(modelClass, checked));
+                    break;
+            }
+            final Integer occurrences = mOccurrences.get(condition);
+            if (occurrences != null && occurrences > 1 && evaluator.cost > COST_INSTANCE_OF) {
+                Integer slot = mSlots.get(condition);
+                if (slot == null) {
+                    slot = mSlots.size();
+                    mSlots.put(condition, slot);
+                }
+                return new MemoEvaluator(evaluator, slot);
+            }
+            return evaluator;
+        }
+
+        // Hoists instance of checks required by any child and orders the rest by cost
+        private Evaluator buildAnd(Condition condition, Set<Class<?>> checked) {
+            final List<Class<?>> required = new ArrayList<>();
+            for (Condition child : condition.getChildren()) {
+                final Class<?> modelClass = child.getModelClass();
+                if (modelClass == null || isChecked(modelClass, checked)) continue;
+                boolean implied = false;
+                for (int i = required.size() - 1; i >= 0; i--) {
+                    final Class<?> other = required.get(i);
+                    if (modelClass.isAssignableFrom(other)) {
+                        implied = true;
+                        break;
+                    }
+                    if (other.isAssignableFrom(modelClass)) required.remove(i);
+                }
+                if (!implied) required.add(modelClass);
+            }
+            final Set<Class<?>> childChecked = new LinkedHashSet<>(checked);
+            childChecked.addAll(required);
+            final List<Evaluator> children = new ArrayList<>();
+            for (Class<?> modelClass : required) {
+                children.add(new LeafEvaluator(new InstanceOfNode(modelClass), false));
+            }
+            final List<Evaluator> rest = new ArrayList<>();
+            for (Condition child : condition.getChildren()) {
+                if (child.getKind() == Kind.INSTANCE_OF) continue;
+                rest.add(build(child, childChecked));
+            }
+            Collections.sort(rest, BY_COST);
+            children.addAll(rest);
+            return children.size() == 1 ? children.get(0) : new GroupEvaluator(true, children);
+        }
+
+        private static boolean isChecked(Class<?> modelClass, Set<Class<?>> checked) {
+            for (Class<?> clazz : checked) {
+                if (modelClass.isAssignableFrom(clazz)) return true;
+            }
+            return false;
+        }
+    }
+
+    private abstract static class Evaluator {
+        final int cost;
+
+        Evaluator(int cost) {
+            this.cost = cost;
+        }
+
+        abstract boolean evaluate(Object model, byte[] memo);
+    }
+
+    private static final class LeafEvaluator extends Evaluator {
+        final Condition condition;
+        // true if the model is known to be instance of the class of the condition
+        final boolean typeChecked;
+
+        LeafEvaluator(Condition condition, boolean typeChecked) {
+            super(typeChecked && condition.getKind() == Kind.INSTANCE_OF ? 0 : condition.getCost());
+            this.condition = condition;
+            this.typeChecked = typeChecked;
+        }
+
+        @Override
+        boolean evaluate(Object model, byte[] memo) {
+            if (!typeChecked) return condition.isModelAccepted(model);
+            switch (condition.getKind()) {
+                case INSTANCE_OF:
+                    return true;
+                case FIELD_EQUALS:
+                    return ((FieldNode) condition).test(model);
+                default:
+                    return ((PredicateNode) condition).test(model);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return condition.toString();
+        }
+    }
+
+    private static final class NotEvaluator extends Evaluator {
+        final Evaluator child;
+
+        NotEvaluator(Evaluator child) {
+            super(child.cost);
+            this.child = child;
+        }
+
+        @Override
+        boolean evaluate(Object model, byte[] memo) {
+            return !child.evaluate(model, memo);
+        }
+
+        @Override
+        public String toString() {
+            return "not(" + child + ")";
+        }
+    }
+
+    private static final class GroupEvaluator extends Evaluator {
+        final boolean and;
+        final Evaluator[] children;
+
+        GroupEvaluator(boolean and, List<Evaluator> children) {
+            super(sumCost(children));
+            this.and = and;
+            this.children = children.toArray(new Evaluator[children.size()]);
+        }
+
+        private static int sumCost(List<Evaluator> children) {
+            int cost = 0;
+            for (Evaluator child : children) {
+                cost += child.cost;
+            }
+            return cost;
+        }
+
+        @Override
+        boolean evaluate(Object model, byte[] memo) {
+            for (Evaluator child : children) {
+                if (child.evaluate(model, memo) != and) return !and;
+            }
+            return and;
+        }
+
+        @Override
+        public String toString() {
+            return (and ? "and" : "or") + Arrays.toString(children);
+        }
+    }
+
+    private static final class MemoEvaluator extends Evaluator {
+        private static final byte UNKNOWN = 0;
+        private static final byte TRUE = 1;
+        private static final byte FALSE = 2;
+
+        final Evaluator evaluator;
+        final int slot;
+
+        MemoEvaluator(Evaluator evaluator, int slot) {
+            super(evaluator.cost);
+            this.evaluator = evaluator;
+            this.slot = slot;
+        }
+
+        @Override
+        boolean evaluate(Object model, byte[] memo) {
+            if (memo[slot] == UNKNOWN) {
+                memo[slot] = evaluator.evaluate(model, memo) ? TRUE : FALSE;
+            }
+            return memo[slot] == TRUE;
+        }
+
+        @Override
+        public String toString() {
+            return "shared#" + slot + ":" + evaluator;
+        }
+    }
+}
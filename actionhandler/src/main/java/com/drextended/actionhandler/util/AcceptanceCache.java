@@ -0,0 +1,164 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.action.Action;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of {@link Action#isModelAccepted(Object)} results shared between dispatches.
+ * Only models which implement {@link VersionedModel} are cached: a result is keyed on the action,
+ * the model identity and its version, so it is reused until the model reports new version.
+ * Models are referenced weakly, the least recently used results are evicted if the cache is full.
+ */
+public class AcceptanceCache {
+
+    public static final int DEFAULT_MAX_SIZE = 128;
+
+    /**
+     * Model which reports its version. The version has to be changed on every change
+     * of the model which can change a result of {@link Action#isModelAccepted(Object)}.
+     */
+    public interface VersionedModel {
+        /**
+         * @return the version of the model
+         */
+        long getModelVersion();
+    }
+
+    private final Map<Key, Entry> mEntries;
+
+    public AcceptanceCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize The max count of cached results
+     */
+    public AcceptanceCache(final int maxSize) {
+        mEntries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxSize || eldest.getValue().isCleared();
+            }
+        };
+    }
+
+    /**
+     * Returns cached result for given action and model
+     *
+     * @param action The action
+     * @param model  The model
+     * @return cached result, or null if there is no result for current version of the model
+     */
+    @Nullable
+    public synchronized Boolean get(@NonNull Action action, @Nullable Object model) {
+        if (!(model instanceof VersionedModel)) return null;
+        final Entry entry = mEntries.get(new Key(action, model));
+        if (entry == null || entry.version != ((VersionedModel) model).getModelVersion()) return null;
+        return entry.accepted;
+    }
+
+    /**
+     * Cache the result for given action and model
+     *
+     * @param action   The action
+     * @param model    The model
+     * @param accepted The result of {@link Action#isModelAccepted(Object)}
+     */
+    public synchronized void put(@NonNull Action action, @Nullable Object model, boolean accepted) {
+        if (!(model instanceof VersionedModel)) return;
+        final Key key = Key.weak(action, model);
+        mEntries.put(key, new Entry(key, ((VersionedModel) model).getModelVersion(), accepted));
+    }
+
+    /**
+     * Remove all cached results
+     */
+    public synchronized void clear() {
+        mEntries.clear();
+    }
+
+    /**
+     * Key of (action, model) pair, which compares both by identity.
+     * Model can be held by a weak reference.
+     */
+    public static final class Key {
+        @NonNull
+        private final Object mAction;
+        @Nullable
+        private final Object mModel;
+        @Nullable
+        private final WeakReference<Object> mModelRef;
+        private final int mHash;
+
+        public Key(@NonNull Object action, @Nullable Object model) {
+            this(action, model, null);
+        }
+
+        private Key(@NonNull Object action, @Nullable Object model, @Nullable WeakReference<Object> modelRef) {
+            mAction = action;
+            mModel = model;
+            mModelRef = modelRef;
+            mHash = 31 * System.identityHashCode(action) + System.identityHashCode(getModel());
+        }
+
+        static Key weak(@NonNull Object action, @NonNull Object model) {
+            return new Key(action, null, new WeakReference<>(model));
+        }
+
+        @Nullable
+        Object getModel() {
+            return mModelRef != null ? mModelRef.get() : mModel;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            final Key that = (Key) o;
+            return mHash == that.mHash && mAction == that.mAction && getModel() == that.getModel();
+        }
+
+        @Override
+        public int hashCode() {
+            return mHash;
+        }
+    }
+
+    private static class Entry {
+        final Key key;
+        final long version;
+        final boolean accepted;
+
+        Entry(Key key, long version, boolean accepted) {
+            this.key = key;
+            this.version = version;
+            this.accepted = accepted;
+        }
+
+        boolean isCleared() {
+            return key.getModel() == null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of listeners (interceptors and etc.) by action types they are subscribed to.
+ * Used for dispatching an event only to listeners which are interested in given action type.
+ *
+ * @param <T> type of listener
+ */
+public class ActionTypeIndex<T> {
+
+    private final Map<String, Set<T>> mIndex = new HashMap<>();
+
+    /**
+     * Subscribe the item to given action types
+     *
+     * @param item        The item to add
+     * @param actionTypes The action types to subscribe the item
+     */
+    public void add(@NonNull T item, @NonNull String... actionTypes) {
+        for (String actionType : actionTypes) {
+            if (actionType == null) continue;
+            Set<T> items = mIndex.get(actionType);
+            if (items == null) {
+                items = new LinkedHashSet<>(1);
+                mIndex.put(actionType, items);
+            }
+            items.add(item);
+        }
+    }
+
+    /**
+     * Unsubscribe the item from all action types
+     *
+     * @param item The item to remove
+     * @return true if the item was subscribed to at least one action type
+     */
+    public boolean remove(@Nullable Object item) {
+        boolean removed = false;
+        final Iterator<Set<T>> iterator = mIndex.values().iterator();
+        while (iterator.hasNext()) {
+            final Set<T> items = iterator.next();
+            removed |= items.remove(item);
+            if (items.isEmpty()) iterator.remove();
+        }
+        return removed;
+    }
+
+    /**
+     * Unsubscribe all items
+     */
+    public void clear() {
+        mIndex.clear();
+    }
+
+    /**
+     * @return true if there is no any subscription
+     */
+    public boolean isEmpty() {
+        return mIndex.isEmpty();
+    }
+
+    /**
+     * Returns all items subscribed to given action type
+     *
+     * @param actionType The action type
+     * @return items subscribed to given action type or null if there are no such items
+     */
+    @Nullable
+    public Set<T> get(@Nullable String actionType) {
+        return actionType == null || mIndex.isEmpty() ? null : mIndex.get(actionType);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of items by hierarchical action types, like {@code cart.item.remove}.
+ * An item can be registered for exact action type or for a pattern:
+ * <ul>
+ * <li>{@code cart.*} matches any action type with one more segment, e.g. {@code cart.open}</li>
+ * <li>{@code cart.**} matches any action type with one or more segments, e.g. {@code cart.item.remove}</li>
+ * </ul>
+ * {@code *} can be used in place of any segment, {@code **} only as the last one.
+ * Patterns are stored in a trie of segments, so matching costs O(length of action type).
+ *
+ * @param <T> type of item
+ */
+public class ActionTypeTrie<T> {
+
+    public static final char SEPARATOR = '.';
+    public static final String ANY_SEGMENT = "*";
+    public static final String ANY_SEGMENTS = "**";
+
+    private static final Comparator<Entry<?>> BY_SEQUENCE = new Comparator<Entry<?>>() {
+        @Override
+        public int compare(Entry<?> first, Entry<?> second) {
+            return first.sequence < second.sequence ? -1 : (first.sequence == second.sequence ? 0 : 1);
+        }
+    };
+
+    private final Node<T> mRoot = new Node<>();
+    private long mSequence;
+
+    /**
+     * Check if given action type is a pattern
+     *
+     * @param actionType The action type
+     * @return true if the action type contains wildcards
+     */
+    public static boolean isPattern(@Nullable String actionType) {
+        return actionType != null && actionType.indexOf('*') >= 0;
+    }
+
+    /**
+     * Register the item for given action type or pattern
+     *
+     * @param pattern The action type or pattern
+     * @param item    The item
+     */
+    public synchronized void add(@NonNull String pattern, @NonNull T item) {
+        final List<String> segments = split(pattern);
+        Node<T> node = mRoot;
+        for (int i = 0; i < segments.size(); i++) {
+            final String segment = segments.get(i);
+            if (ANY_SEGMENTS.equals(segment)) {
+                if (i != segments.size() - 1) {
+                    throw new IllegalArgumentException("'**' is allowed only as the last segment: " + pattern);
+                }
+                if (i == 0) throw new IllegalArgumentException("Use null action type to match any action type");
+                node.deepItems.add(new Entry<>(item, mSequence++));
+                return;
+            }
+            node = node.child(segment);
+        }
+        node.items.add(new Entry<>(item, mSequence++));
+    }
+
+    /**
+     * Register the item for any action type
+     *
+     * @param item The item
+     */
+    public synchronized void addForAny(@NonNull T item) {
+        mRoot.deepItems.add(new Entry<>(item, mSequence++));
+    }
+
+    /**
+     * Remove all items
+     */
+    public synchronized void clear() {
+        mRoot.clear();
+    }
+
+    /**
+     * Returns items registered for given action type or patterns matching it
+     *
+     * @param actionType The action type
+     * @return matched items in order of registration
+     */
+    @NonNull
+    public synchronized List<T> match(@NonNull String actionType) {
+        final List<Entry<T>> matched = new ArrayList<>();
+        List<Node<T>> nodes = Collections.singletonList(mRoot);
+        int start = 0;
+        while (!nodes.isEmpty()) {
+            for (Node<T> node : nodes) {
+                matched.addAll(node.deepItems);
+            }
+            int end = actionType.indexOf(SEPARATOR, start);
+            if (end < 0) end = actionType.length();
+            final String segment = actionType.substring(start, end);
+            final List<Node<T>> next = new ArrayList<>(nodes.size());
+            for (Node<T> node : nodes) {
+                if (node.children != null) {
+                    final Node<T> child = node.children.get(segment);
+                    if (child != null) next.add(child);
+                }
+                if (node.anyChild != null) next.add(node.anyChild);
+            }
+            if (end == actionType.length()) {
+                for (Node<T> node : next) {
+                    matched.addAll(node.items);
+                }
+                break;
+            }
+            nodes = next;
+            start = end + 1;
+        }
+        if (matched.isEmpty()) return Collections.emptyList();
+        Collections.sort(matched, BY_SEQUENCE);
+        final List<T> items = new ArrayList<>(matched.size());
+        for (Entry<T> entry : matched) {
+            items.add(entry.item);
+        }
+        return items;
+    }
+
+    @NonNull
+    private static List<String> split(@NonNull String actionType) {
+        final List<String> segments = new ArrayList<>();
+        int start = 0;
+        int end;
+        while ((end = actionType.indexOf(SEPARATOR, start)) >= 0) {
+            segments.add(actionType.substring(start, end));
+            start = end + 1;
+        }
+        segments.add(actionType.substring(start));
+        return segments;
+    }
+
+    private static class Node<T> {
+        @Nullable
+        Map<String, Node<T>> children;
+        @Nullable
+        Node<T> anyChild;
+        // Items registered for action types ending at this node
+        final List<Entry<T>> items = new ArrayList<>(1);
+        // Items registered with '**' after this node
+        final List<Entry<T>> deepItems = new ArrayList<>(1);
+
+        @NonNull
+        Node<T> child(@NonNull String segment) {
+            if (ANY_SEGMENT.equals(segment)) {
+                if (anyChild == null) anyChild = new Node<>();
+                return anyChild;
+            }
+            if (children == null) children = new HashMap<>(2);
+            Node<T> child = children.get(segment);
+            if (child == null) {
+                child = new Node<>();
+                children.put(segment, child);
+            }
+            return child;
+        }
+
+        void clear() {
+            children = null;
+            anyChild = null;
+            items.clear();
+            deepItems.clear();
+        }
+    }
+
+    private static class Entry<T> {
+        final T item;
+        final long sequence;
+
+        Entry(T item, long sequence) {
+            this.item = item;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import android.view.View;
 import androidx.databinding.BindingAdapter;
 
 import com.drextended.actionhandler.listener.ActionClickListener;
+import com.drextended.actionhandler.listener.ActionPrefetcher;
 
 /**
  * Helper class for collect all data binding adapters in one place
@@ -53,6 +54,41 @@ public class Converters {
      * @param modelLongClick      The model which will be handled for long click. If null, {@code model} will be used
      * @param actionTag           The tag. CAn be used to distinct click source
      */
+    public static void setActionHandler(
+            final View view,
+            final ActionClickListener actionHandler,
+            final String actionType,
+            final String actionTypeLongClick,
+            final Object model,
+            final Object modelLongClick,
+            final Object actionTag
+    ) {
+        setActionHandler(view, actionHandler, actionType, actionTypeLongClick, model, modelLongClick, actionTag, false);
+    }
+
+    /**
+     * Binding adapter to assign an action to a view using android data binding approach,
+     * see {@link #setActionHandler(View, ActionClickListener, String, String, Object, Object, Object)}.
+     * If {@code actionPrefetch} is true and the action handler is {@link ActionPrefetcher},
+     * the action is prefetched on touch down, see {@link ViewOnActionClickListener}.
+     * Sample:
+     * <pre>
+     * &lt;Button
+     *     android:actionHandler="@{someActionHandler}"
+     *     android:actionType='@{"load_details"}'
+     *     android:actionPrefetch="@{true}"
+     *     android:model="@{user}"/&gt;
+     * </pre>
+     *
+     * @param view                The View to bind an action
+     * @param actionHandler       The action handler which will handle an action
+     * @param actionType          The action type, which will be handled on view clicked
+     * @param actionTypeLongClick The action type, which will be handled on view long clicked
+     * @param model               The model which will be handled
+     * @param modelLongClick      The model which will be handled for long click. If null, {@code model} will be used
+     * @param actionTag           The tag. CAn be used to distinct click source
+     * @param actionPrefetch      Set true to prefetch the action on touch down
+     */
     @BindingAdapter(
             value = {
                     "actionHandler",
@@ -60,7 +96,8 @@ public class Converters {
                     "actionTypeLongClick",
                     "model",
                     "modelLongClick",
-                    "actionTag"
+                    "actionTag",
+                    "actionPrefetch"
             },
             requireAll = false
     )
@@ -71,7 +108,8 @@ public class Converters {
             final String actionTypeLongClick,
             final Object model,
             final Object modelLongClick,
-            final Object actionTag
+            final Object actionTag,
+            final boolean actionPrefetch
     ) {
         if (actionHandler != null) {
             ViewOnActionClickListener clickListener = new ViewOnActionClickListener(
@@ -84,9 +122,13 @@ public class Converters {
             );
             if (actionType != null) view.setOnClickListener(clickListener);
             if (actionTypeLongClick != null) view.setOnLongClickListener(clickListener);
+            if (actionPrefetch) {
+                view.setOnTouchListener(actionType != null && actionHandler instanceof ActionPrefetcher ? clickListener : null);
+            }
         } else {
             if (actionType != null) view.setOnClickListener(null);
             if (actionTypeLongClick != null) view.setOnLongClickListener(null);
+            if (actionPrefetch) view.setOnTouchListener(null);
         }
     }
 }
@@ -0,0 +1,55 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.ActionParams;
+import com.drextended.actionhandler.listener.ActionInterceptor;
+
+import java.util.Map;
+
+/**
+ * Interceptor which intercepts an action type if debounce time for it has not elapsed since last fire.
+ */
+public class DebounceInterceptor implements ActionInterceptor {
+
+    private final long mDefaultDebounceTime;
+
+    // Debounce milliseconds for specific action types (<action type, milliseconds>)
+    @Nullable
+    private final Map<String, Long> mActionDebounceTime;
+
+    private final DebounceHelper mDebounceHelper = new DebounceHelper();
+
+    /**
+     * @param defaultDebounceTime The debounce time in milliseconds for all action types
+     * @param actionDebounceTime  The debounce time for specific action types, overrides default debounce time
+     */
+    public DebounceInterceptor(long defaultDebounceTime, @Nullable Map<String, Long> actionDebounceTime) {
+        mDefaultDebounceTime = defaultDebounceTime;
+        mActionDebounceTime = actionDebounceTime;
+    }
+
+    @Override
+    public boolean onInterceptAction(@NonNull ActionParams params) {
+        Long debounceMillis = mActionDebounceTime == null ? null : mActionDebounceTime.get(params.actionType);
+        if (debounceMillis == null) debounceMillis = mDefaultDebounceTime;
+        return debounceMillis > 0 && !mDebounceHelper.checkTimeAndResetIfElapsed(params.actionType, debounceMillis);
+    }
+}
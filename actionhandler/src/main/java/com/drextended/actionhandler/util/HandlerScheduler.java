@@ -0,0 +1,60 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link LooperScheduler} which posts tasks to a {@link Looper} by {@link Handler}
+ * and measures time by {@link SystemClock#uptimeMillis()}.
+ */
+public class HandlerScheduler implements LooperScheduler {
+
+    private final Handler mHandler;
+
+    /**
+     * @param looper The looper to run tasks on
+     */
+    public HandlerScheduler(@NonNull Looper looper) {
+        mHandler = new Handler(looper);
+    }
+
+    @Override
+    public long uptimeMillis() {
+        return SystemClock.uptimeMillis();
+    }
+
+    @Override
+    public boolean isLooperThread() {
+        return mHandler.getLooper() == Looper.myLooper();
+    }
+
+    @Override
+    public void postAtTime(@NonNull Runnable task, long uptimeMillis) {
+        mHandler.postAtTime(task, uptimeMillis);
+    }
+
+    @Override
+    public void removeCallbacks(@NonNull Runnable task) {
+        mHandler.removeCallbacks(task);
+    }
+}
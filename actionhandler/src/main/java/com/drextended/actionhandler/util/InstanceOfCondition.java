@@ -0,0 +1,50 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.util;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Condition which accepts models of given class, its subclasses and implementations.
+ * Actions which use this condition can declare the model class
+ * by {@link com.drextended.actionhandler.action.ModelClassAction}.
+ */
+public class InstanceOfCondition implements AcceptCondition {
+
+    @NonNull
+    private final Class<?> mModelClass;
+
+    /**
+     * @param modelClass The class of accepted models
+     */
+    public InstanceOfCondition(@NonNull Class<?> modelClass) {
+        mModelClass = modelClass;
+    }
+
+    /**
+     * @return the class of accepted models
+     */
+    @NonNull
+    public Class<?> getModelClass() {
+        return mModelClass;
+    }
+
+    @Override
+    public boolean isModelAccepted(Object model) {
+        return mModelClass.isInstance(model);
+    }
+}
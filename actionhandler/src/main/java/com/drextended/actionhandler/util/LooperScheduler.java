@@ -0,0 +1,53 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler.util;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Clock and message queue of a looper thread. Timers of the library post their ticks through it
+ * instead of using {@link android.os.Handler} and {@link android.os.SystemClock} directly,
+ * see {@link HandlerScheduler} for the default implementation.
+ */
+public interface LooperScheduler {
+
+    /**
+     * @return current time in milliseconds of the clock the scheduler runs tasks by
+     */
+    long uptimeMillis();
+
+    /**
+     * @return true if called on the thread which runs posted tasks
+     */
+    boolean isLooperThread();
+
+    /**
+     * Run the task on the looper thread at given time
+     *
+     * @param task         The task to run
+     * @param uptimeMillis The time by {@link #uptimeMillis()}
+     */
+    void postAtTime(@NonNull Runnable task, long uptimeMillis);
+
+    /**
+     * Remove pending posts of the task
+     *
+     * @param task The task to remove
+     */
+    void removeCallbacks(@NonNull Runnable task);
+}
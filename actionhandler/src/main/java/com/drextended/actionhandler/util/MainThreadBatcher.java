@@ -0,0 +1,82 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Executor which runs tasks on the main thread. Tasks posted before the main thread
+ * picks them up are batched and run by one message, in order they were posted.
+ * If a task throws, the tasks after it are run by the next message.
+ */
+public class MainThreadBatcher implements Executor {
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private List<Runnable> mPending = new ArrayList<>();
+    private boolean mPosted;
+
+    private final Runnable mDrain = new Runnable() {
+        @Override
+        public void run() {
+            final List<Runnable> tasks;
+            synchronized (MainThreadBatcher.this) {
+                tasks = mPending;
+                mPending = new ArrayList<>();
+                mPosted = false;
+            }
+            final int size = tasks.size();
+            int index = 0;
+            try {
+                while (index < size) {
+                    tasks.get(index++).run();
+                }
+            } finally {
+                if (index < size) requeue(tasks.subList(index, size));
+            }
+        }
+    };
+
+    /**
+     * Puts tasks left after a failed one back in front of the pending ones, so they are not lost
+     * when the exception propagates out of the drain message.
+     */
+    private void requeue(@NonNull List<Runnable> tasks) {
+        synchronized (this) {
+            mPending.addAll(0, tasks);
+            if (mPosted) return;
+            mPosted = true;
+        }
+        mHandler.post(mDrain);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable task) {
+        synchronized (this) {
+            mPending.add(task);
+            if (mPosted) return;
+            mPosted = true;
+        }
+        mHandler.post(mDrain);
+    }
+}
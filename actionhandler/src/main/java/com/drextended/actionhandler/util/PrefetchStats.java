@@ -0,0 +1,105 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counters of speculative prefetches: how many were started, claimed by a click (hits)
+ * and cancelled without being claimed (waste). Can be shared by a few actions.
+ */
+public class PrefetchStats {
+
+    private final AtomicInteger mStarted = new AtomicInteger();
+    private final AtomicInteger mHits = new AtomicInteger();
+    private final AtomicInteger mWasted = new AtomicInteger();
+
+    /**
+     * Called when a prefetch is started
+     */
+    public void onStarted() {
+        mStarted.incrementAndGet();
+    }
+
+    /**
+     * Called when a prefetch is claimed by a fire
+     */
+    public void onHit() {
+        mHits.incrementAndGet();
+    }
+
+    /**
+     * Called when a prefetch is cancelled without being claimed
+     */
+    public void onWasted() {
+        mWasted.incrementAndGet();
+    }
+
+    /**
+     * @return count of started prefetches
+     */
+    public int getStartedCount() {
+        return mStarted.get();
+    }
+
+    /**
+     * @return count of prefetches claimed by a fire
+     */
+    public int getHitCount() {
+        return mHits.get();
+    }
+
+    /**
+     * @return count of prefetches cancelled without being claimed
+     */
+    public int getWastedCount() {
+        return mWasted.get();
+    }
+
+    /**
+     * @return share of started prefetches claimed by a fire, from 0 to 1
+     */
+    public float getHitRate() {
+        final int started = mStarted.get();
+        return started == 0 ? 0 : (float) mHits.get() / started;
+    }
+
+    /**
+     * @return share of started prefetches cancelled without being claimed, from 0 to 1
+     */
+    public float getWasteRate() {
+        final int started = mStarted.get();
+        return started == 0 ? 0 : (float) mWasted.get() / started;
+    }
+
+    /**
+     * Reset all counters
+     */
+    public void reset() {
+        mStarted.set(0);
+        mHits.set(0);
+        mWasted.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "PrefetchStats{started=" + mStarted.get()
+                + ", hits=" + mHits.get()
+                + ", wasted=" + mWasted.get() + '}';
+    }
+}
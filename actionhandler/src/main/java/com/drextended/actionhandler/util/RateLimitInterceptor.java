@@ -0,0 +1,85 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.util;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import com.drextended.actionhandler.ActionParams;
+import com.drextended.actionhandler.listener.ActionInterceptor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interceptor which allows not more than given count of fires of an action type per time period.
+ * Each action type has own token bucket, refilled continuously.
+ */
+public class RateLimitInterceptor implements ActionInterceptor {
+
+    private final int mMaxActions;
+    private final long mPeriodMillis;
+    private final Map<String, Bucket> mBuckets = new HashMap<>();
+
+    /**
+     * @param maxActions   Max count of actions allowed per period (also max burst)
+     * @param periodMillis The period in milliseconds
+     */
+    public RateLimitInterceptor(int maxActions, long periodMillis) {
+        if (maxActions <= 0 || periodMillis <= 0) {
+            throw new IllegalArgumentException("maxActions and periodMillis should be positive");
+        }
+        mMaxActions = maxActions;
+        mPeriodMillis = periodMillis;
+    }
+
+    @Override
+    public synchronized boolean onInterceptAction(@NonNull ActionParams params) {
+        final long now = now();
+        Bucket bucket = mBuckets.get(params.actionType);
+        if (bucket == null) {
+            bucket = new Bucket(mMaxActions, now);
+            mBuckets.put(params.actionType, bucket);
+        }
+        final double refill = (now - bucket.lastRefillMillis) * (double) mMaxActions / mPeriodMillis;
+        bucket.tokens = Math.min(mMaxActions, bucket.tokens + refill);
+        bucket.lastRefillMillis = now;
+        if (bucket.tokens >= 1) {
+            bucket.tokens -= 1;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return current time in milliseconds the buckets are refilled by
+     */
+    long now() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    private static class Bucket {
+        double tokens;
+        long lastRefillMillis;
+
+        Bucket(double tokens, long lastRefillMillis) {
+            this.tokens = tokens;
+            this.lastRefillMillis = lastRefillMillis;
+        }
+    }
+}
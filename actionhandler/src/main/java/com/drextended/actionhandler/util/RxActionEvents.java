@@ -0,0 +1,90 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.util;
+
+import androidx.annotation.NonNull;
+
+import com.drextended.actionhandler.ActionEvent;
+import com.drextended.actionhandler.ActionHandler;
+import com.drextended.actionhandler.listener.OnActionEventListener;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableEmitter;
+import io.reactivex.FlowableOnSubscribe;
+import io.reactivex.functions.Cancellable;
+
+/**
+ * Helper to observe lifecycle events of an {@link ActionHandler} as RxJava {@link Flowable}
+ * (which is a reactive-streams Publisher).
+ * Note: RxJava is not a transitive dependency of this library, add it to your project to use this class.
+ * <pre>
+ * RxActionEvents.events(actionHandler, BackpressureStrategy.LATEST)
+ *         .observeOn(Schedulers.computation())
+ *         .subscribe(event -&gt; analytics.track(event));
+ * </pre>
+ */
+public class RxActionEvents {
+
+    /**
+     * Returns stream of action events of given handler with {@link BackpressureStrategy#BUFFER} strategy.
+     *
+     * @param actionHandler The action handler to observe
+     * @return stream of intercepted, fired, error and dismiss events
+     */
+    @NonNull
+    public static Flowable<ActionEvent> events(@NonNull ActionHandler actionHandler) {
+        return events(actionHandler, BackpressureStrategy.BUFFER);
+    }
+
+    /**
+     * Returns stream of action events of given handler.
+     * Events are emitted on the thread which notifies the handler (usually main thread),
+     * use {@code observeOn()} to move consumers to own schedulers.
+     * Given backpressure strategy defines what happens with events which a slow consumer is not ready to receive,
+     * so dispatching of actions is never blocked by consumers.
+     *
+     * @param actionHandler The action handler to observe
+     * @param strategy      The backpressure strategy: buffer, drop, latest and etc.
+     * @return stream of intercepted, fired, error and dismiss events
+     */
+    @NonNull
+    public static Flowable<ActionEvent> events(
+            @NonNull final ActionHandler actionHandler,
+            @NonNull BackpressureStrategy strategy
+    ) {
+        return Flowable.create(new FlowableOnSubscribe<ActionEvent>() {
+            @Override
+            public void subscribe(FlowableEmitter<ActionEvent> source) {
+                final FlowableEmitter<ActionEvent> emitter = source.serialize();
+                final OnActionEventListener listener = new OnActionEventListener() {
+                    @Override
+                    public void onActionEvent(@NonNull ActionEvent event) {
+                        emitter.onNext(event);
+                    }
+                };
+                emitter.setCancellable(new Cancellable() {
+                    @Override
+                    public void cancel() {
+                        actionHandler.removeActionEventListener(listener);
+                    }
+                });
+                actionHandler.addActionEventListener(listener);
+            }
+        }, strategy);
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.actionhandler.util;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.drextended.actionhandler.action.Cancelable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel for delayed tasks run on a looper thread.
+ * Time is divided into ticks; there are 4 levels of 64 slots, each slot of level N covers 64^N ticks,
+ * timers further than 64^4 ticks wait in an overflow list. A timer is put to the lowest level whose
+ * block contains its deadline, and moved to lower levels when the wheel reaches its slot, so
+ * scheduling and cancelling are O(1) and thousands of pending timers cost nothing while waiting.
+ * The looper is woken up only for slots which have timers (or at cascade points of higher levels),
+ * not on every tick.
+ */
+public class TimerWheel {
+
+    private static final int LEVELS = 4;
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int OVERFLOW = -1;
+
+    private final long mTickMillis;
+    private final long mStartMillis;
+    private final LooperScheduler mScheduler;
+    private final Timeout[][] mSlots = new Timeout[LEVELS][SLOTS];
+    private final int[] mLevelCounts = new int[LEVELS];
+    private Timeout mOverflow;
+    private int mSize;
+
+    // Last processed tick
+    private long mCurrentTick;
+    private long mScheduledWakeTick = -1;
+
+    private final Runnable mTick = new Runnable() {
+        @Override
+        public void run() {
+            advance();
+        }
+    };
+
+    /**
+     * Creates wheel with 10 ms tick running tasks on the main thread
+     */
+    public TimerWheel() {
+        this(10, Looper.getMainLooper());
+    }
+
+    /**
+     * @param tickMillis The resolution of timers in milliseconds
+     * @param looper     The looper to run tasks on
+     */
+    public TimerWheel(long tickMillis, @NonNull Looper looper) {
+        this(tickMillis, new HandlerScheduler(looper));
+    }
+
+    /**
+     * @param tickMillis The resolution of timers in milliseconds
+     * @param scheduler  The clock and the looper to run tasks on
+     */
+    TimerWheel(long tickMillis, @NonNull LooperScheduler scheduler) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis should be positive");
+        mTickMillis = tickMillis;
+        mScheduler = scheduler;
+        mStartMillis = scheduler.uptimeMillis();
+    }
+
+    /**
+     * Run the task after given delay, rounded up to the tick
+     *
+     * @param task        The task to run on the looper thread
+     * @param delayMillis The delay in milliseconds
+     * @return the handle to cancel the task
+     */
+    @NonNull
+    public synchronized Timeout schedule(@NonNull Runnable task, long delayMillis) {
+        final long elapsed = mScheduler.uptimeMillis() - mStartMillis;
+        // nothing to process in an empty wheel, jump to the current tick
+        if (mSize == 0) mCurrentTick = Math.max(mCurrentTick, elapsed / mTickMillis);
+        final long deadline = (elapsed + Math.max(0, delayMillis) + mTickMillis - 1) / mTickMillis;
+        final Timeout timeout = new Timeout(this, task, Math.max(mCurrentTick + 1, deadline));
+        insert(timeout);
+        mSize++;
+        scheduleWake();
+        return timeout;
+    }
+
+    /**
+     * Cancel all pending timers
+     *
+     * @return count of cancelled timers
+     */
+    public synchronized int cancelAll() {
+        final int count = mSize;
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                cancelList(mSlots[level][slot]);
+                mSlots[level][slot] = null;
+            }
+            mLevelCounts[level] = 0;
+        }
+        cancelList(mOverflow);
+        mOverflow = null;
+        mSize = 0;
+        mScheduler.removeCallbacks(mTick);
+        mScheduledWakeTick = -1;
+        return count;
+    }
+
+    /**
+     * @return count of pending timers
+     */
+    public synchronized int size() {
+        return mSize;
+    }
+
+    private static void cancelList(Timeout timeout) {
+        while (timeout != null) {
+            final Timeout next = timeout.next;
+            timeout.state = Timeout.CANCELLED;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout = next;
+        }
+    }
+
+    private synchronized boolean cancel(@NonNull Timeout timeout) {
+        if (timeout.state != Timeout.PENDING) return false;
+        timeout.state = Timeout.CANCELLED;
+        unlink(timeout);
+        mSize--;
+        if (mSize == 0) {
+            mScheduler.removeCallbacks(mTick);
+            mScheduledWakeTick = -1;
+        }
+        return true;
+    }
+
+    private void insert(@NonNull Timeout timeout) {
+        int level = 0;
+        while (level < LEVELS
+                && (timeout.deadline >>> (BITS * (level + 1))) != (mCurrentTick >>> (BITS * (level + 1)))) {
+            level++;
+        }
+        timeout.prev = null;
+        if (level == LEVELS) {
+            timeout.level = OVERFLOW;
+            timeout.next = mOverflow;
+            if (mOverflow != null) mOverflow.prev = timeout;
+            mOverflow = timeout;
+            return;
+        }
+        final int slot = (int) ((timeout.deadline >>> (BITS * level)) & MASK);
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.next = mSlots[level][slot];
+        if (timeout.next != null) timeout.next.prev = timeout;
+        mSlots[level][slot] = timeout;
+        mLevelCounts[level]++;
+    }
+
+    private void unlink(@NonNull Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else if (timeout.level == OVERFLOW) {
+            mOverflow = timeout.next;
+        } else {
+            mSlots[timeout.level][timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) timeout.next.prev = timeout.prev;
+        if (timeout.level != OVERFLOW) mLevelCounts[timeout.level]--;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    private void advance() {
+        final List<Timeout> expired = new ArrayList<>();
+        synchronized (this) {
+            mScheduledWakeTick = -1;
+            final long now = (mScheduler.uptimeMillis() - mStartMillis) / mTickMillis;
+            while (mCurrentTick < now && mSize > 0) {
+                if (mLevelCounts[0] == 0) {
+                    // nothing to fire until the next cascade point
+                    mCurrentTick = Math.min(now - 1, mCurrentTick | MASK);
+                }
+                final long tick = ++mCurrentTick;
+                if ((tick & ((1L << (BITS * LEVELS)) - 1)) == 0) {
+                    Timeout timeout = mOverflow;
+                    mOverflow = null;
+                    while (timeout != null) {
+                        final Timeout next = timeout.next;
+                        insert(timeout);
+                        timeout = next;
+                    }
+                }
+                for (int level = LEVELS - 1; level > 0; level--) {
+                    if ((tick & ((1L << (BITS * level)) - 1)) != 0) continue;
+                    final int slot = (int) ((tick >>> (BITS * level)) & MASK);
+                    Timeout timeout = mSlots[level][slot];
+                    mSlots[level][slot] = null;
+                    while (timeout != null) {
+                        final Timeout next = timeout.next;
+                        mLevelCounts[level]--;
+                        insert(timeout);
+                        timeout = next;
+                    }
+                }
+                final int slot = (int) (tick & MASK);
+                Timeout timeout = mSlots[0][slot];
+                mSlots[0][slot] = null;
+                while (timeout != null) {
+                    final Timeout next = timeout.next;
+                    mLevelCounts[0]--;
+                    timeout.prev = null;
+                    timeout.next = null;
+                    timeout.state = Timeout.EXPIRED;
+                    mSize--;
+                    expired.add(timeout);
+                    timeout = next;
+                }
+            }
+            if (mSize == 0) mCurrentTick = Math.max(mCurrentTick, now);
+            scheduleWake();
+        }
+        for (Timeout timeout : expired) {
+            timeout.task.run();
+        }
+    }
+
+    /**
+     * Schedule wake up at the next tick which has something to do:
+     * the nearest non empty slot of the lowest level, which is either a slot to fire
+     * or a slot to cascade to lower levels.
+     */
+    private void scheduleWake() {
+        if (mSize == 0) return;
+        long wakeTick = -1;
+        for (int level = 0; level < LEVELS && wakeTick < 0; level++) {
+            if (mLevelCounts[level] == 0) continue;
+            final int shift = BITS * level;
+            final int current = (int) ((mCurrentTick >>> shift) & MASK);
+            for (int slot = current + 1; slot < SLOTS; slot++) {
+                if (mSlots[level][slot] != null) {
+                    wakeTick = ((mCurrentTick >>> shift) + slot - current) << shift;
+                    break;
+                }
+            }
+        }
+        if (wakeTick < 0) {
+            // only overflow timers left, wake up when the top level wraps
+            wakeTick = ((mCurrentTick >>> (BITS * LEVELS)) + 1) << (BITS * LEVELS);
+        }
+        if (wakeTick == mScheduledWakeTick) return;
+        mScheduler.removeCallbacks(mTick);
+        mScheduledWakeTick = wakeTick;
+        mScheduler.postAtTime(mTick, mStartMillis + wakeTick * mTickMillis);
+    }
+
+    /**
+     * Handle of a scheduled task
+     */
+    public static class Timeout implements Cancelable {
+        static final int PENDING = 0;
+        static final int EXPIRED = 1;
+        static final int CANCELLED = 2;
+
+        private final TimerWheel mWheel;
+        final Runnable task;
+        final long deadline;
+        Timeout prev;
+        Timeout next;
+        int level;
+        int slot;
+        volatile int state = PENDING;
+
+        Timeout(TimerWheel wheel, Runnable task, long deadline) {
+            mWheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the task if it was not run yet
+         */
+        @Override
+        public void cancel() {
+            mWheel.cancel(this);
+        }
+
+        /**
+         * @return true if the task was cancelled before it run
+         */
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        /**
+         * @return true if the task was run or is running
+         */
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+    }
+}
@@ -16,14 +16,24 @@
 
 package com.drextended.actionhandler.util;
 
+import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewConfiguration;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.drextended.actionhandler.action.Cancelable;
 import com.drextended.actionhandler.listener.ActionClickListener;
+import com.drextended.actionhandler.listener.ActionPrefetcher;
 
-public class ViewOnActionClickListener implements View.OnClickListener, View.OnLongClickListener {
+/**
+ * Click listener which fires action types by the action handler.
+ * Being set as {@link View.OnTouchListener} too, it prefetches the action on touch down
+ * if the action handler is {@link ActionPrefetcher}. The prefetch is cancelled if the touch is
+ * cancelled, moves beyond touch slop (e.g. turns into a scroll) or the click does not follow.
+ */
+public class ViewOnActionClickListener implements View.OnClickListener, View.OnLongClickListener, View.OnTouchListener {
 
     @NonNull
     private final ActionClickListener actionHandler;
@@ -38,6 +48,19 @@ public class ViewOnActionClickListener implements View.OnClickListener, View.OnL
     @Nullable
     private final Object actionTypeTag;
 
+    // Handle of the prefetch started on touch down
+    @Nullable
+    private Cancelable prefetch;
+    private float downX;
+    private float downY;
+
+    private final Runnable cancelPrefetchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            cancelPrefetch();
+        }
+    };
+
     public ViewOnActionClickListener(
             @NonNull ActionClickListener actionHandler,
             @Nullable String actionType,
@@ -81,10 +104,51 @@ public class ViewOnActionClickListener implements View.OnClickListener, View.OnL
 
     @Override
     public boolean onLongClick(View v) {
+        cancelPrefetch();
         if (actionTypeLongClick != null) {
             actionHandler.onActionClick(v, actionTypeLongClick, modelLongClick, actionTypeTag);
             return true;
         }
         return false;
     }
+
+    @Override
+    public boolean onTouch(View v, MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                v.removeCallbacks(cancelPrefetchRunnable);
+                cancelPrefetch();
+                if (actionType != null && actionHandler instanceof ActionPrefetcher) {
+                    downX = event.getX();
+                    downY = event.getY();
+                    prefetch = ((ActionPrefetcher) actionHandler).onActionPrefetch(v, actionType, model, actionTypeTag);
+                }
+                break;
+            case MotionEvent.ACTION_MOVE:
+                if (prefetch != null) {
+                    final int touchSlop = ViewConfiguration.get(v.getContext()).getScaledTouchSlop();
+                    final float dx = event.getX() - downX;
+                    final float dy = event.getY() - downY;
+                    if (dx * dx + dy * dy > touchSlop * touchSlop) cancelPrefetch();
+                }
+                break;
+            case MotionEvent.ACTION_UP:
+                // the click is posted on touch up, give it time to claim the prefetch
+                if (prefetch != null) v.postDelayed(cancelPrefetchRunnable, ViewConfiguration.getDoubleTapTimeout());
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                cancelPrefetch();
+                break;
+            default:
+                break;
+        }
+        return false;
+    }
+
+    private void cancelPrefetch() {
+        final Cancelable prefetch = this.prefetch;
+        this.prefetch = null;
+        // does nothing if the prefetch was claimed by the click
+        if (prefetch != null) prefetch.cancel();
+    }
 }
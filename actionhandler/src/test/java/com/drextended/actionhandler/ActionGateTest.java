@@ -0,0 +1,118 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ActionGateTest {
+
+    private ActionGate mGate;
+
+    @Before
+    public void setUp() {
+        mGate = new ActionGate();
+    }
+
+    @Test
+    public void unknownAndNullTypesAreEnabled() {
+        mGate.disable("a");
+
+        assertTrue(mGate.isEnabled("b"));
+        assertTrue(mGate.isEnabled(null));
+    }
+
+    @Test
+    public void disableAndEnableFlipOnlyGivenTypes() {
+        mGate.disable("a", "b");
+        mGate.enable("a");
+
+        assertTrue(mGate.isEnabled("a"));
+        assertFalse(mGate.isEnabled("b"));
+        assertEquals(Collections.singletonList("b"), mGate.getDisabledTypes());
+    }
+
+    @Test
+    public void bitsetGrowsPastOneWord() {
+        final List<String> types = new ArrayList<>();
+        for (int i = 0; i < 130; i++) {
+            types.add("type" + i);
+        }
+        mGate.disable("type0");
+        mGate.update(null, types.subList(64, 130));
+
+        assertFalse(mGate.isEnabled("type0"));
+        assertTrue(mGate.isEnabled("type63"));
+        assertFalse(mGate.isEnabled("type64"));
+        assertFalse(mGate.isEnabled("type129"));
+        assertEquals(67, mGate.getDisabledTypes().size());
+    }
+
+    @Test
+    public void updateEnablesAndDisablesInOneStep() {
+        mGate.disable("a");
+        mGate.update(Arrays.asList("a"), Arrays.asList("b"));
+
+        assertTrue(mGate.isEnabled("a"));
+        assertFalse(mGate.isEnabled("b"));
+    }
+
+    @Test
+    public void setDisabledReplacesDisabledTypes() {
+        mGate.disable("a", "b");
+        mGate.setDisabled(Arrays.asList("b", "c"));
+
+        assertTrue(mGate.isEnabled("a"));
+        assertEquals(Arrays.asList("b", "c"), mGate.getDisabledTypes());
+        mGate.enableAll();
+        assertTrue(mGate.getDisabledTypes().isEmpty());
+        assertTrue(mGate.isEnabled("b"));
+    }
+
+    @Test
+    public void concurrentUpdatesDoNotLoseBits() throws InterruptedException {
+        final Thread[] writers = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            final String prefix = "writer" + w + ".";
+            writers[w] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 100; i++) {
+                        mGate.disable(prefix + i);
+                    }
+                }
+            });
+            writers[w].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertEquals(400, mGate.getDisabledTypes().size());
+        assertFalse(mGate.isEnabled("writer3.99"));
+    }
+}
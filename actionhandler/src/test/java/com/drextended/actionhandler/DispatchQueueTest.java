@@ -0,0 +1,222 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler;
+
+import androidx.annotation.NonNull;
+
+import com.drextended.actionhandler.util.FakeLooperScheduler;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DispatchQueueTest {
+
+    private FakeLooperScheduler mScheduler;
+    private List<ActionParams> mDispatched;
+    private List<ActionParams> mDropped;
+    private List<String> mDropReasons;
+
+    @Before
+    public void setUp() {
+        mScheduler = new FakeLooperScheduler();
+        mDispatched = Collections.synchronizedList(new ArrayList<ActionParams>());
+        mDropped = Collections.synchronizedList(new ArrayList<ActionParams>());
+        mDropReasons = Collections.synchronizedList(new ArrayList<String>());
+    }
+
+    @Test
+    public void ringBufferKeepsOrderAcrossWrap() {
+        final DispatchQueue queue = create(3, DispatchQueue.OverflowPolicy.DROP_NEWEST, 0);
+        offer(queue, "a", "b");
+        mScheduler.advanceTo(0);
+        offer(queue, "c", "d", "e");
+
+        assertEquals(3, queue.getDepth());
+        mScheduler.advanceTo(0);
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e"), types(mDispatched));
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    public void dropNewestDropsOfferedFire() {
+        final DispatchQueue queue = create(2, DispatchQueue.OverflowPolicy.DROP_NEWEST, 0);
+        offer(queue, "a", "b", "c");
+
+        assertEquals(Arrays.asList("c"), types(mDropped));
+        assertEquals(Arrays.asList(ActionHandler.REASON_QUEUE_OVERFLOW), mDropReasons);
+        assertEquals(1, queue.getDroppedCount());
+        mScheduler.advanceTo(0);
+        assertEquals(Arrays.asList("a", "b"), types(mDispatched));
+    }
+
+    @Test
+    public void dropOldestDropsHead() {
+        final DispatchQueue queue = create(2, DispatchQueue.OverflowPolicy.DROP_OLDEST, 0);
+        offer(queue, "a", "b", "c");
+
+        assertEquals(Arrays.asList("a"), types(mDropped));
+        mScheduler.advanceTo(0);
+        assertEquals(Arrays.asList("b", "c"), types(mDispatched));
+    }
+
+    @Test
+    public void latestPerTypeReplacesQueuedFireInPlace() {
+        final DispatchQueue queue = create(3, DispatchQueue.OverflowPolicy.LATEST_PER_TYPE, 0);
+        final ActionParams first = TestActionParams.create("a", 1);
+        final ActionParams latest = TestActionParams.create("a", 2);
+        queue.offer(first, new DispatchContext());
+        offer(queue, "b");
+        queue.offer(latest, new DispatchContext());
+
+        assertEquals(2, queue.getDepth());
+        assertEquals(1, mDropped.size());
+        assertSame(first, mDropped.get(0));
+        mScheduler.advanceTo(0);
+        assertEquals(Arrays.asList("a", "b"), types(mDispatched));
+        assertSame(latest, mDispatched.get(0));
+    }
+
+    @Test
+    public void latestPerTypeForgetsSlotOfDispatchedFire() {
+        final DispatchQueue queue = create(2, DispatchQueue.OverflowPolicy.LATEST_PER_TYPE, 0);
+        offer(queue, "a");
+        mScheduler.advanceTo(0);
+        offer(queue, "a");
+
+        assertEquals(1, queue.getDepth());
+        assertEquals(0, queue.getDroppedCount());
+    }
+
+    @Test
+    public void latestPerTypeDropsOldestWithoutSameType() {
+        final DispatchQueue queue = create(2, DispatchQueue.OverflowPolicy.LATEST_PER_TYPE, 0);
+        offer(queue, "a", "b", "c");
+        // "a" was dropped, so a new "a" is not a replacement
+        offer(queue, "a");
+
+        assertEquals(Arrays.asList("a", "b"), types(mDropped));
+        mScheduler.advanceTo(0);
+        assertEquals(Arrays.asList("c", "a"), types(mDispatched));
+    }
+
+    @Test
+    public void rateLimitSpacesDispatches() {
+        final DispatchQueue queue = create(4, DispatchQueue.OverflowPolicy.DROP_NEWEST, 10);
+        mScheduler.advanceTo(1000);
+        offer(queue, "a", "b", "c");
+
+        mScheduler.advanceTo(1000);
+        assertEquals(Arrays.asList("a"), types(mDispatched));
+        assertEquals(1100, mScheduler.getNextPostTime());
+        mScheduler.advanceTo(1099);
+        assertEquals(1, mDispatched.size());
+        mScheduler.advanceTo(1200);
+        assertEquals(Arrays.asList("a", "b", "c"), types(mDispatched));
+    }
+
+    @Test
+    public void blockOnConsumerThreadDispatchesOldest() {
+        final DispatchQueue queue = create(1, DispatchQueue.OverflowPolicy.BLOCK, 0);
+        offer(queue, "a", "b");
+
+        assertEquals(Arrays.asList("a"), types(mDispatched));
+        assertEquals(0, mDropped.size());
+        assertEquals(1, queue.getDepth());
+    }
+
+    @Test
+    public void blockOnOtherThreadWaitsForSpace() throws InterruptedException {
+        final DispatchQueue queue = create(1, DispatchQueue.OverflowPolicy.BLOCK, 0);
+        offer(queue, "a");
+        final Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                offer(queue, "b");
+            }
+        });
+        producer.start();
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (producer.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(Thread.State.WAITING, producer.getState());
+        assertEquals(1, queue.getDepth());
+        assertTrue(mDispatched.isEmpty());
+        mScheduler.advanceTo(0);
+        producer.join(5000);
+        mScheduler.advanceTo(0);
+        assertEquals(Arrays.asList("a", "b"), types(mDispatched));
+        assertEquals(0, mDropped.size());
+    }
+
+    @Test
+    public void clearDropsQueuedFires() {
+        final DispatchQueue queue = create(4, DispatchQueue.OverflowPolicy.DROP_NEWEST, 0);
+        offer(queue, "a", "b");
+        queue.clear();
+
+        assertEquals(0, queue.getDepth());
+        assertEquals(Arrays.asList("a", "b"), types(mDropped));
+        assertEquals(Arrays.asList(ActionHandler.REASON_QUEUE_CLEARED, ActionHandler.REASON_QUEUE_CLEARED), mDropReasons);
+        mScheduler.advanceTo(0);
+        assertTrue(mDispatched.isEmpty());
+    }
+
+    private DispatchQueue create(int capacity, DispatchQueue.OverflowPolicy policy, int maxFiresPerSecond) {
+        final DispatchQueue queue = new DispatchQueue(capacity, policy, maxFiresPerSecond, mScheduler);
+        queue.setConsumer(new DispatchQueue.Consumer() {
+            @Override
+            public void onDispatch(@NonNull ActionParams params, @NonNull DispatchContext context) {
+                mDispatched.add(params);
+            }
+
+            @Override
+            public void onDropped(@NonNull ActionParams params, @NonNull DispatchContext context, @NonNull String reason) {
+                mDropped.add(params);
+                mDropReasons.add(reason);
+            }
+        });
+        return queue;
+    }
+
+    private static void offer(DispatchQueue queue, String... actionTypes) {
+        for (String actionType : actionTypes) {
+            queue.offer(TestActionParams.create(actionType), new DispatchContext());
+        }
+    }
+
+    private static List<String> types(List<ActionParams> params) {
+        final List<String> types = new ArrayList<>();
+        synchronized (params) {
+            for (ActionParams param : params) {
+                types.add(param.actionType);
+            }
+        }
+        return types;
+    }
+}
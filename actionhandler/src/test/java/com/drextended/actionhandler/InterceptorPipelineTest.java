@@ -0,0 +1,168 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.drextended.actionhandler.action.Action;
+import com.drextended.actionhandler.listener.ActionFireInterceptor;
+import com.drextended.actionhandler.listener.ActionInterceptor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class InterceptorPipelineTest {
+
+    private static final Action ACTION = new Action() {
+        @Override
+        public boolean isModelAccepted(@Nullable Object model) {
+            return true;
+        }
+
+        @Override
+        public void onFireAction(@NonNull ActionArgs args) {
+        }
+    };
+
+    private InterceptorPipeline mPipeline;
+    private List<String> mCalls;
+
+    @Before
+    public void setUp() {
+        mPipeline = new InterceptorPipeline();
+        mCalls = new ArrayList<>();
+    }
+
+    @Test
+    public void stagesAreCalledByPriorityThenRegistration() {
+        mPipeline.addInterceptor(record("low1", false), 0, null, null);
+        mPipeline.addInterceptor(record("high", false), 10, null, null);
+        mPipeline.addInterceptor(record("low2", false), 0, null, null);
+        mPipeline.addInterceptor(record("negative", false), -5, null, null);
+
+        assertNull(mPipeline.intercept(TestActionParams.create("a")));
+        assertEquals(Arrays.asList("high", "low1", "low2", "negative"), mCalls);
+    }
+
+    @Test
+    public void firstVetoStopsInterception() {
+        final ActionInterceptor veto = record("veto", true);
+        mPipeline.addInterceptor(record("first", false), 10, null, null);
+        mPipeline.addInterceptor(veto, 5, "Veto", "vetoed");
+        mPipeline.addInterceptor(record("last", false), 0, null, null);
+
+        final InterceptorPipeline.Stage stage = mPipeline.intercept(TestActionParams.create("a"));
+        assertSame(veto, stage.interceptor);
+        assertEquals("Veto", stage.name);
+        assertEquals("vetoed", stage.reason);
+        assertEquals(1, stage.getInvocations());
+        assertEquals(1, stage.getInterceptions());
+        assertEquals(Arrays.asList("first", "veto"), mCalls);
+    }
+
+    @Test
+    public void stagesAreCompiledPerActionType() {
+        mPipeline.addInterceptor(record("any", false), 0, null, null);
+        mPipeline.addInterceptor(record("onlyA", false), 0, null, null, "a");
+
+        mPipeline.intercept(TestActionParams.create("a"));
+        mPipeline.intercept(TestActionParams.create("b"));
+        assertEquals(Arrays.asList("any", "onlyA", "any"), mCalls);
+    }
+
+    @Test
+    public void changeRecompilesStages() {
+        mPipeline.addInterceptor(record("first", false), 0, null, null);
+        mPipeline.intercept(TestActionParams.create("a"));
+
+        final ActionInterceptor second = record("second", false);
+        mPipeline.addInterceptor(second, 0, null, null, "a");
+        mPipeline.intercept(TestActionParams.create("a"));
+        mPipeline.removeInterceptor(second);
+        mPipeline.intercept(TestActionParams.create("a"));
+        assertEquals(Arrays.asList("first", "first", "second", "first"), mCalls);
+    }
+
+    @Test
+    public void fireInterceptorsAreMatchedByTypeOfFiredAction() {
+        mPipeline.addInterceptor(record("interceptor", false), 0, null, null);
+        mPipeline.addFireInterceptor(recordFire("fireB"), 0, null, null, "b");
+
+        assertNull(mPipeline.interceptFire(TestActionParams.create("a"), "b", ACTION));
+        assertNull(mPipeline.interceptFire(TestActionParams.create("b"), "c", ACTION));
+        assertEquals(Arrays.asList("fireB"), mCalls);
+    }
+
+    @Test
+    public void copyHasOwnStagesAndStats() {
+        mPipeline.addInterceptor(record("shared", false), 0, null, null);
+        final InterceptorPipeline copy = mPipeline.copy();
+        copy.addInterceptor(record("copyOnly", false), 10, null, null);
+
+        copy.intercept(TestActionParams.create("a"));
+        assertEquals(Arrays.asList("copyOnly", "shared"), mCalls);
+        assertEquals(1, mPipeline.getStages().size());
+        assertEquals(0, mPipeline.getStages().get(0).getInvocations());
+        assertEquals(1, copy.getStages().get(1).getInvocations());
+
+        mPipeline.addInterceptor(record("originalOnly", false), 20, null, null);
+        assertEquals(2, copy.getStages().size());
+    }
+
+    @Test
+    public void clearInterceptorsKeepsFireInterceptors() {
+        mPipeline.addInterceptor(record("interceptor", false), 0, null, null);
+        mPipeline.addFireInterceptor(recordFire("fire"), 0, null, null);
+
+        mPipeline.clearInterceptors();
+        assertEquals(1, mPipeline.getStages().size());
+        assertTrue(mPipeline.getStages().get(0).fireInterceptor);
+        mPipeline.clearFireInterceptors();
+        assertTrue(mPipeline.isEmpty());
+    }
+
+    private ActionInterceptor record(final String name, final boolean intercept) {
+        return new ActionInterceptor() {
+            @Override
+            public boolean onInterceptAction(@NonNull ActionParams params) {
+                mCalls.add(name);
+                return intercept;
+            }
+        };
+    }
+
+    private ActionFireInterceptor recordFire(final String name) {
+        return new ActionFireInterceptor() {
+            @Override
+            public boolean onInterceptActionFire(@NonNull ActionParams actionParams, @Nullable String actionType, @NonNull Action action) {
+                mCalls.add(name);
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Action params without a real context, for tests of code which only reads the action type and the model
+ */
+public class TestActionParams {
+
+    private static final Context CONTEXT = new ContextWrapper(null) {
+        @Override
+        public Context getApplicationContext() {
+            return this;
+        }
+    };
+
+    @NonNull
+    public static ActionParams create(@NonNull String actionType) {
+        return create(actionType, null);
+    }
+
+    @NonNull
+    public static ActionParams create(@NonNull String actionType, Object model) {
+        return new ActionParams(CONTEXT, null, actionType, model, null);
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AcceptConditionsTest {
+
+    @Test
+    public void normalizeFlattensNestedGroups() {
+        final AcceptCondition condition = AcceptConditions.and(
+                AcceptConditions.fieldEquals(User.class, "role", "admin"),
+                AcceptConditions.and(
+                        AcceptConditions.fieldEquals(User.class, "name", "john"),
+                        AcceptConditions.fieldEquals(User.class, "role", "admin")
+                )
+        ).compile();
+
+        assertEquals(
+                "and[isInstance(User), fieldEquals(User.role == admin), fieldEquals(User.name == john)]",
+                condition.toString()
+        );
+        assertTrue(condition.isModelAccepted(new User("john", "admin")));
+        assertFalse(condition.isModelAccepted(new User("john", "guest")));
+    }
+
+    @Test
+    public void normalizeRemovesDoubleNegation() {
+        final CountingPredicate predicate = new CountingPredicate(true);
+        final AcceptCondition condition = AcceptConditions.not(
+                AcceptConditions.not(AcceptConditions.predicate(User.class, predicate))
+        ).compile();
+
+        assertEquals("predicate(User, counting, cost=16)", condition.toString());
+        assertTrue(condition.isModelAccepted(new User("john", "admin")));
+        assertFalse(condition.isModelAccepted("not a user"));
+    }
+
+    @Test
+    public void instanceChecksAreHoistedBeforeOtherChecks() {
+        final CountingPredicate predicate = new CountingPredicate(true);
+        final AcceptCondition condition = AcceptConditions.and(
+                AcceptConditions.predicate(User.class, predicate),
+                AcceptConditions.fieldEquals(User.class, "role", "admin")
+        ).compile();
+
+        assertEquals(
+                "and[isInstance(User), fieldEquals(User.role == admin), predicate(User, counting, cost=16)]",
+                condition.toString()
+        );
+        assertFalse(condition.isModelAccepted("not a user"));
+        assertFalse(condition.isModelAccepted(null));
+        assertEquals(0, predicate.calls);
+        assertTrue(condition.isModelAccepted(new User("john", "admin")));
+        assertEquals(1, predicate.calls);
+    }
+
+    @Test
+    public void mostSpecificInstanceCheckIsHoisted() {
+        final AcceptCondition condition = AcceptConditions.and(
+                AcceptConditions.isInstance(User.class),
+                AcceptConditions.isInstance(Admin.class),
+                AcceptConditions.fieldEquals(User.class, "role", "admin")
+        ).compile();
+
+        assertEquals("and[isInstance(Admin), fieldEquals(User.role == admin)]", condition.toString());
+        assertTrue(condition.isModelAccepted(new Admin("john")));
+        assertFalse(condition.isModelAccepted(new User("john", "admin")));
+        assertSame(Admin.class, AcceptConditions.getModelClass(condition));
+    }
+
+    @Test
+    public void sharedSubexpressionIsEvaluatedOncePerCheck() {
+        final CountingPredicate predicate = new CountingPredicate(true);
+        final AcceptCondition shared = AcceptConditions.predicate(User.class, predicate, 2);
+        final AcceptCondition condition = AcceptConditions.or(
+                AcceptConditions.and(shared, AcceptConditions.fieldEquals(User.class, "role", "admin")),
+                AcceptConditions.and(shared, AcceptConditions.fieldEquals(User.class, "role", "owner"))
+        ).compile();
+
+        assertTrue(condition.toString().contains("shared#0:predicate(User, counting, cost=2)"));
+        assertFalse(condition.isModelAccepted(new User("john", "guest")));
+        assertEquals(1, predicate.calls);
+        assertTrue(condition.isModelAccepted(new User("john", "owner")));
+        assertEquals(2, predicate.calls);
+    }
+
+    @Test
+    public void cheapSharedSubexpressionIsNotMemoized() {
+        final AcceptCondition instance = AcceptConditions.isInstance(User.class);
+        final AcceptCondition condition = AcceptConditions.or(
+                AcceptConditions.and(instance, AcceptConditions.fieldEquals(User.class, "role", "admin")),
+                AcceptConditions.and(instance, AcceptConditions.fieldEquals(User.class, "role", "owner"))
+        ).compile();
+
+        assertFalse(condition.toString().contains("shared#"));
+    }
+
+    @Test
+    public void fieldEqualsReadsPrivateFieldOfSuperclass() {
+        final AcceptCondition condition = AcceptConditions.fieldEquals(Admin.class, "name", "john").compile();
+
+        assertTrue(condition.isModelAccepted(new Admin("john")));
+        assertFalse(condition.isModelAccepted(new Admin("jane")));
+        assertFalse(condition.isModelAccepted(new User("john", "admin")));
+    }
+
+    @Test
+    public void fieldEqualsComparesNullValues() {
+        final AcceptCondition condition = AcceptConditions.fieldEquals(User.class, "name", null);
+
+        assertTrue(condition.isModelAccepted(new User(null, "guest")));
+        assertFalse(condition.isModelAccepted(new User("john", "guest")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fieldEqualsFailsForUnknownField() {
+        AcceptConditions.fieldEquals(User.class, "email", "john@example.com");
+    }
+
+    @Test
+    public void orHasModelClassOnlyForRelatedAlternatives() {
+        assertSame(User.class, AcceptConditions.getModelClass(AcceptConditions.or(
+                AcceptConditions.isInstance(User.class),
+                AcceptConditions.isInstance(Admin.class)
+        )));
+        assertNull(AcceptConditions.getModelClass(AcceptConditions.or(
+                AcceptConditions.isInstance(User.class),
+                AcceptConditions.isInstance(String.class)
+        )));
+    }
+
+    @Test
+    public void compiledConditionAcceptsSameModelsAsSource() {
+        final AcceptConditions.Condition source = AcceptConditions.or(
+                AcceptConditions.and(
+                        AcceptConditions.isInstance(User.class),
+                        AcceptConditions.not(AcceptConditions.fieldEquals(User.class, "role", "guest"))
+                ),
+                AcceptConditions.isInstance(String.class)
+        );
+        final AcceptCondition compiled = source.compile();
+        final Object[] models = {
+                new User("john", "guest"), new User("john", "admin"), new Admin("jane"), "text", 1, null
+        };
+        for (Object model : models) {
+            assertEquals(String.valueOf(model), source.isModelAccepted(model), compiled.isModelAccepted(model));
+        }
+    }
+
+    static class User {
+        private final String name;
+        private final String role;
+
+        User(String name, String role) {
+            this.name = name;
+            this.role = role;
+        }
+
+        @Override
+        public String toString() {
+            return name + ":" + role;
+        }
+    }
+
+    static class Admin extends User {
+
+        Admin(String name) {
+            super(name, "admin");
+        }
+    }
+
+    static class CountingPredicate implements AcceptConditions.Predicate<User> {
+        private final boolean mResult;
+        int calls;
+
+        CountingPredicate(boolean result) {
+            mResult = result;
+        }
+
+        @Override
+        public boolean test(User model) {
+            calls++;
+            return mResult;
+        }
+
+        @Override
+        public String toString() {
+            return "counting";
+        }
+    }
+}
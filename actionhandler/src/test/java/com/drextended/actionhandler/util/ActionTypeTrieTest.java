@@ -0,0 +1,113 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ActionTypeTrieTest {
+
+    private ActionTypeTrie<String> mTrie;
+
+    @Before
+    public void setUp() {
+        mTrie = new ActionTypeTrie<>();
+    }
+
+    @Test
+    public void exactActionTypeMatchesOnlyItself() {
+        mTrie.add("cart.item.remove", "remove");
+
+        assertEquals(Collections.singletonList("remove"), mTrie.match("cart.item.remove"));
+        assertEquals(Collections.<String>emptyList(), mTrie.match("cart.item"));
+        assertEquals(Collections.<String>emptyList(), mTrie.match("cart.item.remove.all"));
+    }
+
+    @Test
+    public void anySegmentMatchesExactlyOneSegment() {
+        mTrie.add("cart.*", "cart");
+        mTrie.add("*.open", "open");
+
+        assertEquals(Arrays.asList("cart", "open"), mTrie.match("cart.open"));
+        assertEquals(Collections.singletonList("open"), mTrie.match("order.open"));
+        assertEquals(Collections.<String>emptyList(), mTrie.match("cart"));
+        assertEquals(Collections.<String>emptyList(), mTrie.match("cart.item.remove"));
+    }
+
+    @Test
+    public void anySegmentsMatchesOneOrMoreSegments() {
+        mTrie.add("cart.**", "cart");
+
+        assertEquals(Collections.singletonList("cart"), mTrie.match("cart.open"));
+        assertEquals(Collections.singletonList("cart"), mTrie.match("cart.item.remove"));
+        assertEquals(Collections.<String>emptyList(), mTrie.match("cart"));
+        assertEquals(Collections.<String>emptyList(), mTrie.match("order.open"));
+    }
+
+    @Test
+    public void itemsForAnyActionTypeMatchEverything() {
+        mTrie.addForAny("any");
+
+        assertEquals(Collections.singletonList("any"), mTrie.match("cart"));
+        assertEquals(Collections.singletonList("any"), mTrie.match("cart.item.remove"));
+    }
+
+    @Test
+    public void matchedItemsAreInOrderOfRegistration() {
+        mTrie.add("cart.item.remove", "exact");
+        mTrie.add("cart.**", "deep");
+        mTrie.addForAny("any");
+        mTrie.add("cart.*.remove", "wildcard");
+
+        assertEquals(Arrays.asList("exact", "deep", "any", "wildcard"), mTrie.match("cart.item.remove"));
+    }
+
+    @Test
+    public void clearRemovesAllItems() {
+        mTrie.add("cart.open", "open");
+        mTrie.addForAny("any");
+        mTrie.clear();
+
+        assertEquals(Collections.<String>emptyList(), mTrie.match("cart.open"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void anySegmentsIsAllowedOnlyAsLastSegment() {
+        mTrie.add("cart.**.remove", "remove");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void anySegmentsIsNotAllowedAsWholePattern() {
+        mTrie.add("**", "any");
+    }
+
+    @Test
+    public void isPatternDetectsWildcards() {
+        assertTrue(ActionTypeTrie.isPattern("cart.*"));
+        assertTrue(ActionTypeTrie.isPattern("cart.**"));
+        assertFalse(ActionTypeTrie.isPattern("cart.open"));
+        assertFalse(ActionTypeTrie.isPattern(null));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler.util;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scheduler with a manual clock for tests. The thread which creates it plays the looper thread:
+ * posted tasks run on it when the test moves the clock past their time.
+ */
+public class FakeLooperScheduler implements LooperScheduler {
+
+    private final Thread mLooperThread = Thread.currentThread();
+    private final List<Post> mPosts = new ArrayList<>();
+    private long mNow;
+    private long mSequence;
+
+    @Override
+    public synchronized long uptimeMillis() {
+        return mNow;
+    }
+
+    @Override
+    public boolean isLooperThread() {
+        return Thread.currentThread() == mLooperThread;
+    }
+
+    @Override
+    public synchronized void postAtTime(@NonNull Runnable task, long uptimeMillis) {
+        mPosts.add(new Post(task, uptimeMillis, mSequence++));
+    }
+
+    @Override
+    public synchronized void removeCallbacks(@NonNull Runnable task) {
+        for (int i = mPosts.size() - 1; i >= 0; i--) {
+            if (mPosts.get(i).task == task) mPosts.remove(i);
+        }
+    }
+
+    /**
+     * @return count of pending posts
+     */
+    public synchronized int getPostCount() {
+        return mPosts.size();
+    }
+
+    /**
+     * @return time of the earliest pending post, or -1 if there is none
+     */
+    public synchronized long getNextPostTime() {
+        final Post next = next(Long.MAX_VALUE);
+        return next == null ? -1 : next.time;
+    }
+
+    /**
+     * Move the clock forward, running posts due by given time in order of their time and posting
+     */
+    public void advanceTo(long time) {
+        while (true) {
+            final Post post;
+            synchronized (this) {
+                post = next(time);
+                if (post == null) {
+                    mNow = Math.max(mNow, time);
+                    return;
+                }
+                mPosts.remove(post);
+                mNow = Math.max(mNow, post.time);
+            }
+            post.task.run();
+        }
+    }
+
+    private Post next(long maxTime) {
+        Post next = null;
+        for (Post post : mPosts) {
+            if (post.time > maxTime) continue;
+            if (next == null || post.time < next.time
+                    || (post.time == next.time && post.sequence < next.sequence)) {
+                next = post;
+            }
+        }
+        return next;
+    }
+
+    private static class Post {
+        final Runnable task;
+        final long time;
+        final long sequence;
+
+        Post(Runnable task, long time, long sequence) {
+            this.task = task;
+            this.time = time;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler.util;
+
+import com.drextended.actionhandler.TestActionParams;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimitInterceptorTest {
+
+    private long mNow;
+    private RateLimitInterceptor mInterceptor;
+
+    @Before
+    public void setUp() {
+        mNow = 1000;
+        mInterceptor = new RateLimitInterceptor(2, 1000) {
+            @Override
+            long now() {
+                return mNow;
+            }
+        };
+    }
+
+    @Test
+    public void allowsBurstUpToMaxActions() {
+        assertFalse(intercept("a"));
+        assertFalse(intercept("a"));
+        assertTrue(intercept("a"));
+    }
+
+    @Test
+    public void refillsTokensContinuously() {
+        intercept("a");
+        intercept("a");
+
+        mNow += 250;
+        assertTrue(intercept("a"));
+        mNow += 250;
+        assertFalse(intercept("a"));
+        assertTrue(intercept("a"));
+    }
+
+    @Test
+    public void refillDoesNotExceedMaxActions() {
+        intercept("a");
+        mNow += 10000;
+
+        assertFalse(intercept("a"));
+        assertFalse(intercept("a"));
+        assertTrue(intercept("a"));
+    }
+
+    @Test
+    public void actionTypesHaveOwnBuckets() {
+        intercept("a");
+        intercept("a");
+
+        assertTrue(intercept("a"));
+        assertFalse(intercept("b"));
+    }
+
+    private boolean intercept(String actionType) {
+        return mInterceptor.onInterceptAction(TestActionParams.create(actionType));
+    }
+}
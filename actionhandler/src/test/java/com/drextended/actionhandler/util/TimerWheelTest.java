@@ -0,0 +1,170 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.actionhandler.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimerWheelTest {
+
+    private static final long TICK = 10;
+
+    private FakeLooperScheduler mScheduler;
+    private TimerWheel mWheel;
+    private List<String> mRun;
+
+    @Before
+    public void setUp() {
+        mScheduler = new FakeLooperScheduler();
+        mWheel = new TimerWheel(TICK, mScheduler);
+        mRun = new ArrayList<>();
+    }
+
+    @Test
+    public void delayIsRoundedUpToTick() {
+        mWheel.schedule(record("a"), 25);
+
+        assertEquals(30, mScheduler.getNextPostTime());
+        mScheduler.advanceTo(29);
+        assertEquals(0, mRun.size());
+        mScheduler.advanceTo(30);
+        assertEquals(Arrays.asList("a"), mRun);
+        assertEquals(0, mWheel.size());
+    }
+
+    @Test
+    public void wakesOnlyForSlotsWithTimers() {
+        mWheel.schedule(record("a"), 200);
+        mWheel.schedule(record("b"), 500);
+
+        assertEquals(1, mScheduler.getPostCount());
+        assertEquals(200, mScheduler.getNextPostTime());
+        mScheduler.advanceTo(200);
+        assertEquals(Arrays.asList("a"), mRun);
+        assertEquals(1, mScheduler.getPostCount());
+        assertEquals(500, mScheduler.getNextPostTime());
+        mScheduler.advanceTo(500);
+        assertEquals(Arrays.asList("a", "b"), mRun);
+        assertEquals(0, mScheduler.getPostCount());
+    }
+
+    @Test
+    public void timersOfHigherLevelCascadeBeforeFiring() {
+        // tick 1000 is in slot 15 of level 1, which cascades at tick 960
+        mWheel.schedule(record("a"), 1000 * TICK);
+
+        assertEquals(960 * TICK, mScheduler.getNextPostTime());
+        mScheduler.advanceTo(960 * TICK);
+        assertEquals(0, mRun.size());
+        assertEquals(1, mWheel.size());
+        assertEquals(1000 * TICK, mScheduler.getNextPostTime());
+        mScheduler.advanceTo(1000 * TICK);
+        assertEquals(Arrays.asList("a"), mRun);
+    }
+
+    @Test
+    public void timersBeyondTopLevelWaitInOverflow() {
+        final long wrapTick = 1L << 24;
+        mWheel.schedule(record("a"), (wrapTick + 5) * TICK);
+
+        assertEquals(wrapTick * TICK, mScheduler.getNextPostTime());
+        mScheduler.advanceTo(wrapTick * TICK);
+        assertEquals(0, mRun.size());
+        assertEquals((wrapTick + 5) * TICK, mScheduler.getNextPostTime());
+        mScheduler.advanceTo((wrapTick + 5) * TICK);
+        assertEquals(Arrays.asList("a"), mRun);
+    }
+
+    @Test
+    public void timersOfOneTickRunInOneWake() {
+        mWheel.schedule(record("a"), 41);
+        mWheel.schedule(record("b"), 45);
+        mWheel.schedule(record("c"), 60);
+
+        mScheduler.advanceTo(100);
+        assertEquals(3, mRun.size());
+        assertTrue(mRun.containsAll(Arrays.asList("a", "b", "c")));
+        assertEquals("c", mRun.get(2));
+    }
+
+    @Test
+    public void cancelledTimerDoesNotRun() {
+        final TimerWheel.Timeout first = mWheel.schedule(record("a"), 100);
+        final TimerWheel.Timeout second = mWheel.schedule(record("b"), 100);
+
+        first.cancel();
+        assertTrue(first.isCancelled());
+        assertEquals(1, mWheel.size());
+        mScheduler.advanceTo(100);
+        assertEquals(Arrays.asList("b"), mRun);
+        assertTrue(second.isExpired());
+        assertFalse(second.isCancelled());
+
+        second.cancel();
+        assertFalse(second.isCancelled());
+    }
+
+    @Test
+    public void cancellingLastTimerRemovesWake() {
+        final TimerWheel.Timeout timeout = mWheel.schedule(record("a"), 100);
+
+        timeout.cancel();
+        assertEquals(0, mWheel.size());
+        assertEquals(0, mScheduler.getPostCount());
+    }
+
+    @Test
+    public void cancelAllCancelsEveryLevel() {
+        final TimerWheel.Timeout near = mWheel.schedule(record("a"), 100);
+        final TimerWheel.Timeout far = mWheel.schedule(record("b"), 1000 * TICK);
+        final TimerWheel.Timeout overflow = mWheel.schedule(record("c"), (1L << 25) * TICK);
+
+        assertEquals(3, mWheel.cancelAll());
+        assertTrue(near.isCancelled());
+        assertTrue(far.isCancelled());
+        assertTrue(overflow.isCancelled());
+        assertEquals(0, mScheduler.getPostCount());
+    }
+
+    @Test
+    public void idleWheelStartsFromCurrentTime() {
+        mScheduler.advanceTo(1000);
+        mWheel.schedule(record("a"), 0);
+
+        assertEquals(1010, mScheduler.getNextPostTime());
+        mScheduler.advanceTo(1010);
+        assertEquals(Arrays.asList("a"), mRun);
+    }
+
+    private Runnable record(final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                mRun.add(name);
+            }
+        };
+    }
+}
@@ -25,10 +25,11 @@ import androidx.annotation.Nullable;
 
 import com.drextended.actionhandler.ActionArgs;
 import com.drextended.actionhandler.ActionParams;
+import com.drextended.actionhandler.action.ModelClassAction;
 import com.drextended.actionhandler.action.RequestAction;
 import com.drextended.databinding.R;
 
-public class SampleRequestAction extends RequestAction<String, String> {
+public class SampleRequestAction extends RequestAction<String, String> implements ModelClassAction {
 
     private int mCount;
 
@@ -41,6 +42,11 @@ public class SampleRequestAction extends RequestAction<String, String> {
         return model instanceof String;
     }
 
+    @Override
+    public Class<?> acceptedModelClass() {
+        return String.class;
+    }
+
     @Override
     protected String getDialogMessage(@NonNull ActionParams params) {
         return params.appContext.getString(R.string.action_request_dialog_message, params.model);
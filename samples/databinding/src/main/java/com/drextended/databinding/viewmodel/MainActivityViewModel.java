@@ -26,6 +26,7 @@ import androidx.databinding.ObservableField;
 import com.drextended.actionhandler.ActionArgs;
 import com.drextended.actionhandler.ActionHandler;
 import com.drextended.actionhandler.ActionParams;
+import com.drextended.actionhandler.ObserverDispatcher;
 import com.drextended.actionhandler.action.Action;
 import com.drextended.actionhandler.action.CompositeAction;
 import com.drextended.actionhandler.action.CompositeAction.ActionItem;
@@ -72,8 +73,8 @@ public class MainActivityViewModel extends BaseViewModel implements ActionCallba
         final ShowToastAction showToastAction = new ShowToastAction();
 
         return new ActionHandler.Builder()
-                .addAction(null, new SimpleAnimationAction()) // Applied for any actionType
-                .addAction(null, new TrackAction()) // Applied for any actionType
+                .addObserverAction(new SimpleAnimationAction(), ObserverDispatcher.Mode.IDLE) // Applied for any actionType, after primary actions
+                .addObserverAction(new TrackAction(), ObserverDispatcher.Mode.BACKGROUND) // Applied for any actionType, off the main thread
                 .addAction(ActionType.FIRE_ACTION, showToastAction)
                 .withFactory(new SingleActionFactory() {
                     @Nullable
@@ -27,6 +27,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import com.drextended.actionhandler.ActionArgs;
 import com.drextended.actionhandler.ActionHandler;
 import com.drextended.actionhandler.ActionParams;
+import com.drextended.actionhandler.ObserverDispatcher;
 import com.drextended.actionhandler.action.CompositeAction;
 import com.drextended.actionhandler.action.CompositeAction.ActionItem;
 import com.drextended.actionhandler.action.DialogAction;
@@ -58,8 +59,8 @@ public class MainActivity extends AppCompatActivity implements OnActionFiredList
 
         ShowToastAction showToastAction = new ShowToastAction();
         mActionHandler = new ActionHandler.Builder()
-                .addAction(null, new SimpleAnimationAction()) // Applied for any actionType
-                .addAction(null, new TrackAction()) // Applied for any actionType
+                .addObserverAction(new SimpleAnimationAction(), ObserverDispatcher.Mode.IDLE) // Applied for any actionType, after primary actions
+                .addObserverAction(new TrackAction(), ObserverDispatcher.Mode.BACKGROUND) // Applied for any actionType, off the main thread
                 .addAction(ActionType.OPEN_NEW_SCREEN, new OpenSecondActivity())
 //                .addAction(ActionType.OPEN_NEW_SCREEN, IntentAction.from(SecondActivity.getIntent(this, null)))
                 .addAction(ActionType.FIRE_ACTION, showToastAction)